@@ -377,6 +377,7 @@ public abstract class BrowserMapView implements MapView {
                 boolean recenter;
                 while (true) {
                     List<NavigationPosition> copiedPositions;
+                    PositionColumns copiedColumns;
                     synchronized (notificationMutex) {
                         try {
                             notificationMutex.wait(1000);
@@ -422,6 +423,7 @@ public abstract class BrowserMapView implements MapView {
                                     " haveToReplaceRoute:" + haveToReplaceRoute +
                                     " haveToRepaintRouteImmediately:" + haveToRepaintRouteImmediately);
                             copiedPositions = new ArrayList<>(positionsModel.getRoute().getPositions());
+                            copiedColumns = positionsModel.getRoute().getPositionColumns();
                             recenter = haveToReplaceRoute;
                             haveToUpdateRoute = false;
                             haveToReplaceRoute = false;
@@ -432,7 +434,7 @@ public abstract class BrowserMapView implements MapView {
 
                     setCenterOfMap(copiedPositions, recenter);
                     RouteCharacteristics characteristics = positionsModel.getRoute().getCharacteristics();
-                    List<NavigationPosition> render = positionReducer.reducePositions(copiedPositions, characteristics, showWaypointDescription.getBoolean());
+                    List<NavigationPosition> render = positionReducer.reducePositions(copiedPositions, copiedColumns, characteristics, showWaypointDescription.getBoolean());
                     switch (characteristics) {
                         case Route:
                             addDirectionsToMap(render);
@@ -20,6 +20,7 @@
 
 package slash.navigation.mapview.browser;
 
+import slash.navigation.base.PositionColumns;
 import slash.navigation.base.RouteCharacteristics;
 import slash.navigation.common.BoundingBox;
 import slash.navigation.common.NavigationPosition;
@@ -27,14 +28,18 @@ import slash.navigation.mapview.MapView;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.logging.Logger;
 import java.util.prefs.Preferences;
 
 import static java.lang.Math.max;
 import static java.lang.String.format;
 import static java.lang.System.currentTimeMillis;
+import static java.util.Arrays.copyOf;
+import static java.util.Collections.newSetFromMap;
 import static slash.navigation.base.RouteCalculations.getSignificantPositions;
 import static slash.navigation.base.RouteCharacteristics.Route;
 import static slash.navigation.base.RouteCharacteristics.Waypoints;
@@ -79,7 +84,8 @@ class PositionReducer {
         this.callback = callback;
     }
 
-    public List<NavigationPosition> reducePositions(List<NavigationPosition> positions, RouteCharacteristics characteristics, boolean showWaypointDescription) {
+    public List<NavigationPosition> reducePositions(List<NavigationPosition> positions, PositionColumns columns,
+                                                    RouteCharacteristics characteristics, boolean showWaypointDescription) {
         List<NavigationPosition> result = filterPositionsWithoutCoordinates(positions);
 
         // if it's more than one segment, reduce the positions
@@ -87,7 +93,7 @@ class PositionReducer {
             int zoom = callback.getZoom();
             result = reducedPositions.get(zoom);
             if (result == null) {
-                result = reducePositions(positions, zoom, characteristics, showWaypointDescription);
+                result = reducePositions(positions, columns, zoom, characteristics, showWaypointDescription);
                 reducedPositions.put(zoom, result);
             }
         }
@@ -165,9 +171,11 @@ class PositionReducer {
         return filterVisiblePositions(positions, factor, false);
     }
 
-    private List<NavigationPosition> reducePositions(List<NavigationPosition> positions, int zoom, RouteCharacteristics characteristics, boolean showWaypointDescription) {
+    private List<NavigationPosition> reducePositions(List<NavigationPosition> positions, PositionColumns columns, int zoom,
+                                                     RouteCharacteristics characteristics, boolean showWaypointDescription) {
         int maximumPositionCount = getMaximumPositionCount(characteristics, showWaypointDescription);
         int positionCountBeforeReduction = positions.size();
+        List<NavigationPosition> routePositions = positions;
 
         // reduce the number of result to those that are visible for tracks and waypoint lists
         if (positions.size() > maximumPositionCount && !characteristics.equals(Route))
@@ -178,9 +186,11 @@ class PositionReducer {
         if (positions.size() > maximumSignificantPositionCount)
             positions = filterEveryNthPosition(positions, maximumSignificantPositionCount);
 
-        // determine significant result for routes and tracks for this zoom level if there are too many positions
+        // determine significant result for routes and tracks for this zoom level from the
+        // significances of the route which are calculated once for all zoom levels
         if (!characteristics.equals(Waypoints))
-            positions = filterSignificantPositions(positions, zoom);
+            positions = filterSignificantPositions(positions, routePositions,
+                    isSignificanceOfRouteAffordable(routePositions, columns, maximumSignificantPositionCount) ? columns : null, zoom);
 
         // reduce the number of result to ensure browser stability
         if (positions.size() > maximumPositionCount)
@@ -212,13 +222,40 @@ class PositionReducer {
         return result;
     }
 
-    private List<NavigationPosition> filterSignificantPositions(List<NavigationPosition> positions, int zoom) {
+    private boolean isSignificanceOfRouteAffordable(List<NavigationPosition> routePositions, PositionColumns columns,
+                                                    int maximumSignificantPositionCount) {
+        // the significances of the route are calculated for all its positions
+        return columns != null && columns.size() == routePositions.size() && columns.size() <= maximumSignificantPositionCount;
+    }
+
+    private int[] getSignificantPositionIndices(List<NavigationPosition> positions, List<NavigationPosition> routePositions,
+                                                PositionColumns columns, double threshold) {
+        // without columns for the route positions, search the significant positions of the remaining positions
+        if (columns == null)
+            return getSignificantPositions(positions, threshold);
+
+        Set<NavigationPosition> significantRoutePositions = newSetFromMap(new IdentityHashMap<>());
+        for (int index : columns.getSignificantPositions(threshold))
+            significantRoutePositions.add(routePositions.get(index));
+
+        int[] result = new int[positions.size()];
+        int count = 0;
+        for (int i = 0; i < positions.size(); i++) {
+            // keep the first and the last position like the search on the remaining positions does
+            if (i == 0 || i == positions.size() - 1 || significantRoutePositions.contains(positions.get(i)))
+                result[count++] = i;
+        }
+        return copyOf(result, count);
+    }
+
+    private List<NavigationPosition> filterSignificantPositions(List<NavigationPosition> positions, List<NavigationPosition> routePositions,
+                                                                PositionColumns columns, int zoom) {
         long start = currentTimeMillis();
 
         List<NavigationPosition> result = new ArrayList<>();
         if (zoom < MAXIMUM_ZOOM_FOR_SIGNIFICANCE_CALCULATION) {
             double threshold = THRESHOLD_PER_ZOOM[zoom];
-            int[] significantPositions = getSignificantPositions(positions, threshold);
+            int[] significantPositions = getSignificantPositionIndices(positions, routePositions, columns, threshold);
             for (int significantPosition : significantPositions) {
                 result.add(positions.get(significantPosition));
             }
@@ -0,0 +1,71 @@
+/*
+    This file is part of RouteConverter.
+
+    RouteConverter is free software; you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation; either version 2 of the License, or
+    (at your option) any later version.
+
+    RouteConverter is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with RouteConverter; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+
+    Copyright (C) 2007 Christian Pesch. All Rights Reserved.
+*/
+
+package slash.navigation.gui.events;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.System.currentTimeMillis;
+
+/**
+ * Collects the indices of modified elements and performs an operation on one range
+ * covering all of them once a number of indices is collected or a time budget passed.
+ * Used to reduce the number of notifications that Swing UI Models fire.
+ *
+ * @author Christian Pesch
+ * @see ContinousRange
+ */
+
+public abstract class CoalescedRange {
+    private final int maximumIndexCount;
+    private final long maximumDelayMillis;
+    private int firstIndex, lastIndex, indexCount;
+    private long lastPerformed = currentTimeMillis();
+
+    public CoalescedRange(int maximumIndexCount, long maximumDelayMillis) {
+        this.maximumIndexCount = maximumIndexCount;
+        this.maximumDelayMillis = maximumDelayMillis;
+    }
+
+    public synchronized void add(int index) {
+        if (indexCount == 0) {
+            firstIndex = index;
+            lastIndex = index;
+        } else {
+            firstIndex = min(firstIndex, index);
+            lastIndex = max(lastIndex, index);
+        }
+        indexCount++;
+
+        if (indexCount >= maximumIndexCount || currentTimeMillis() - lastPerformed >= maximumDelayMillis)
+            flush();
+    }
+
+    public synchronized void flush() {
+        lastPerformed = currentTimeMillis();
+        if (indexCount == 0)
+            return;
+
+        indexCount = 0;
+        performOnRange(firstIndex, lastIndex);
+    }
+
+    protected abstract void performOnRange(int firstIndex, int lastIndex);
+}
@@ -0,0 +1,86 @@
+/*
+    This file is part of RouteConverter.
+
+    RouteConverter is free software; you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation; either version 2 of the License, or
+    (at your option) any later version.
+
+    RouteConverter is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with RouteConverter; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+
+    Copyright (C) 2007 Christian Pesch. All Rights Reserved.
+*/
+
+package slash.navigation.gui.events;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CoalescedRangeTest {
+    private final List<List<Integer>> ranges = new ArrayList<>();
+
+    private CoalescedRange createRange(int maximumIndexCount, long maximumDelayMillis) {
+        return new CoalescedRange(maximumIndexCount, maximumDelayMillis) {
+            protected void performOnRange(int firstIndex, int lastIndex) {
+                ranges.add(asList(firstIndex, lastIndex));
+            }
+        };
+    }
+
+    @Test
+    public void testPerformAfterMaximumIndexCount() {
+        CoalescedRange range = createRange(3, 60 * 1000);
+        for (int index : new int[]{2, 4, 6, 8, 10, 12, 14})
+            range.add(index);
+        assertEquals(asList(asList(2, 6), asList(8, 12)), ranges);
+
+        range.flush();
+        assertEquals(asList(asList(2, 6), asList(8, 12), asList(14, 14)), ranges);
+    }
+
+    @Test
+    public void testPerformCoveringUnorderedIndices() {
+        CoalescedRange range = createRange(100, 60 * 1000);
+        range.add(5);
+        range.add(1);
+        range.add(9);
+        range.flush();
+        assertEquals(asList(asList(1, 9)), ranges);
+    }
+
+    @Test
+    public void testFlushWithoutIndices() {
+        CoalescedRange range = createRange(100, 60 * 1000);
+        range.flush();
+        range.add(1);
+        range.flush();
+        range.flush();
+        assertEquals(asList(asList(1, 1)), ranges);
+    }
+
+    @Test
+    public void testPerformAfterMaximumDelay() throws InterruptedException {
+        // the delay starts with the construction, thus leave plenty of time for the first additions
+        CoalescedRange range = createRange(1000, 1000);
+        range.add(1);
+        range.add(2);
+        assertTrue(ranges.isEmpty());
+
+        Thread.sleep(1100);
+        range.add(3);
+        assertEquals(asList(asList(1, 3)), ranges);
+    }
+}
@@ -95,10 +95,14 @@ public class BoundingBox {
     }
 
     public boolean contains(NavigationPosition position) {
-        boolean result = position.getLongitude() >= southWest.getLongitude();
-        result = result && (position.getLongitude() <= northEast.getLongitude());
-        result = result && (position.getLatitude() >= southWest.getLatitude());
-        result = result && (position.getLatitude() <= northEast.getLatitude());
+        return contains(position.getLongitude(), position.getLatitude());
+    }
+
+    public boolean contains(double longitude, double latitude) {
+        boolean result = longitude >= southWest.getLongitude();
+        result = result && (longitude <= northEast.getLongitude());
+        result = result && (latitude >= southWest.getLatitude());
+        result = result && (latitude <= northEast.getLatitude());
         return result;
     }
 
@@ -0,0 +1,310 @@
+/*
+    This file is part of RouteConverter.
+
+    RouteConverter is free software; you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation; either version 2 of the License, or
+    (at your option) any later version.
+
+    RouteConverter is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with RouteConverter; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+
+    Copyright (C) 2007 Christian Pesch. All Rights Reserved.
+*/
+
+package slash.navigation.common;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import static java.lang.Math.round;
+import static java.lang.String.format;
+import static java.lang.System.currentTimeMillis;
+import static java.nio.channels.Channels.newReader;
+import static java.nio.channels.Channels.newWriter;
+import static slash.common.io.Transfer.UTF8_ENCODING;
+
+/**
+ * Caches values that services looked up for a position on disk.
+ *
+ * The positions are rounded to 1e-5 degrees and the values are kept per service.
+ * New values are collected and appended as lines to the cache file with {@link #flush()}
+ * which callers invoke once per batch of lookups and {@link #dispose()} on shutdown.
+ * The cache file is read back lazily and compacted in place when it contains much more
+ * lines than entries. Appending and compacting hold a lock on the cache file since
+ * several processes may share it.
+ *
+ * @author Christian Pesch
+ */
+
+public class CoordinateCache {
+    private static final Logger log = Logger.getLogger(CoordinateCache.class.getName());
+    private static final double PRECISION = 100000.0;
+    private static final int COMPACT_FACTOR = 2;
+    private static final int MAXIMUM_PENDING_LENGTH = 64 * 1024;
+
+    private final File file;
+    private final int maximumSize;
+    private final long timeToLiveMillis;
+    private final Map<String, Entry> entries;
+    private final StringBuilder pending = new StringBuilder();
+    private FileOutputStream appender;
+    private boolean loaded;
+    private int hitCount, missCount;
+
+    public CoordinateCache(File file, final int maximumSize, long timeToLiveMillis) {
+        this.file = file;
+        this.maximumSize = maximumSize;
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maximumSize;
+            }
+        };
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public long getTimeToLiveMillis() {
+        return timeToLiveMillis;
+    }
+
+    static long roundCoordinate(double coordinate) {
+        return round(coordinate * PRECISION);
+    }
+
+    static String createKey(String service, double longitude, double latitude) {
+        return service + "\t" + roundCoordinate(longitude) + "\t" + roundCoordinate(latitude);
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return now - entry.timeStamp > timeToLiveMillis;
+    }
+
+    public synchronized String get(String service, double longitude, double latitude) {
+        load();
+
+        String key = createKey(service, longitude, latitude);
+        Entry entry = entries.get(key);
+        if (entry != null && isExpired(entry, currentTimeMillis())) {
+            entries.remove(key);
+            entry = null;
+        }
+
+        if (entry != null)
+            hitCount++;
+        else
+            missCount++;
+        return entry != null ? entry.value : null;
+    }
+
+    public synchronized void put(String service, double longitude, double latitude, String value) {
+        if (value == null)
+            return;
+        load();
+
+        String key = createKey(service, longitude, latitude);
+        Entry entry = new Entry(value, currentTimeMillis());
+        entries.put(key, entry);
+        pending.append(toLine(key, entry));
+        if (pending.length() > MAXIMUM_PENDING_LENGTH)
+            flush();
+    }
+
+    public synchronized void flush() {
+        if (pending.length() == 0)
+            return;
+
+        try {
+            if (appender == null) {
+                File parent = file.getParentFile();
+                if (parent != null && !parent.exists() && !parent.mkdirs())
+                    throw new IOException(format("Cannot create directory %s", parent));
+                appender = new FileOutputStream(file, true);
+            }
+            try (FileLock ignored = appender.getChannel().lock()) {
+                appender.write(pending.toString().getBytes(UTF8_ENCODING));
+            }
+        } catch (IOException e) {
+            log.warning(format("Cannot append to cache file %s: %s", file, e));
+        }
+        pending.setLength(0);
+    }
+
+    public synchronized void dispose() {
+        flush();
+        closeAppender();
+    }
+
+    private void closeAppender() {
+        if (appender == null)
+            return;
+        try {
+            appender.close();
+        } catch (IOException e) {
+            log.warning(format("Cannot close cache file %s: %s", file, e));
+        }
+        appender = null;
+    }
+
+    public synchronized int getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized int getMissCount() {
+        return missCount;
+    }
+
+    public synchronized int size() {
+        load();
+        return entries.size();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        hitCount = 0;
+        missCount = 0;
+        pending.setLength(0);
+        closeAppender();
+        if (file.exists() && !file.delete())
+            log.warning(format("Cannot delete cache file %s", file));
+    }
+
+    private void load() {
+        if (loaded)
+            return;
+        loaded = true;
+        if (!file.exists())
+            return;
+
+        int lineCount = 0;
+        long now = currentTimeMillis();
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+             FileChannel channel = randomAccessFile.getChannel();
+             FileLock ignored = channel.lock()) {
+            // the reader must not close the channel before the lock is released
+            BufferedReader reader = new BufferedReader(newReader(channel, UTF8_ENCODING));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineCount++;
+                String[] columns = line.split("\t", 5);
+                if (columns.length != 5) {
+                    log.warning(format("Skipping invalid line %d of cache file %s", lineCount, file));
+                    continue;
+                }
+                try {
+                    String key = unescape(columns[0]) + "\t" + Long.parseLong(columns[1]) + "\t" + Long.parseLong(columns[2]);
+                    Entry entry = new Entry(unescape(columns[4]), Long.parseLong(columns[3]));
+                    if (!isExpired(entry, now))
+                        entries.put(key, entry);
+                } catch (NumberFormatException e) {
+                    log.warning(format("Skipping invalid line %d of cache file %s: %s", lineCount, file, e));
+                }
+            }
+            log.info(format("Read %d entries from %d lines of cache file %s", entries.size(), lineCount, file));
+
+            if (lineCount > COMPACT_FACTOR * entries.size())
+                compact(channel);
+        } catch (IOException e) {
+            log.warning(format("Cannot read cache file %s: %s", file, e));
+        }
+    }
+
+    private void compact(FileChannel channel) throws IOException {
+        // rewrite in place while holding the lock since other processes may append to the file
+        channel.truncate(0);
+        channel.position(0);
+        Writer writer = new BufferedWriter(newWriter(channel, UTF8_ENCODING));
+        for (Map.Entry<String, Entry> entry : entries.entrySet())
+            writer.write(toLine(entry.getKey(), entry.getValue()));
+        writer.flush();
+        log.info(format("Compacted cache file %s to %d lines", file, entries.size()));
+    }
+
+    private static String toLine(String key, Entry entry) {
+        String[] keyColumns = key.split("\t", 3);
+        return escape(keyColumns[0]) + "\t" + keyColumns[1] + "\t" + keyColumns[2] + "\t" +
+                entry.timeStamp + "\t" + escape(entry.value) + "\n";
+    }
+
+    static String escape(String string) {
+        StringBuilder buffer = new StringBuilder(string.length());
+        for (int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+            switch (c) {
+                case '\\':
+                    buffer.append("\\\\");
+                    break;
+                case '\t':
+                    buffer.append("\\t");
+                    break;
+                case '\n':
+                    buffer.append("\\n");
+                    break;
+                case '\r':
+                    buffer.append("\\r");
+                    break;
+                default:
+                    buffer.append(c);
+            }
+        }
+        return buffer.toString();
+    }
+
+    static String unescape(String string) {
+        StringBuilder buffer = new StringBuilder(string.length());
+        for (int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+            if (c == '\\' && i + 1 < string.length()) {
+                char next = string.charAt(++i);
+                switch (next) {
+                    case 't':
+                        buffer.append('\t');
+                        break;
+                    case 'n':
+                        buffer.append('\n');
+                        break;
+                    case 'r':
+                        buffer.append('\r');
+                        break;
+                    default:
+                        buffer.append(next);
+                }
+            } else
+                buffer.append(c);
+        }
+        return buffer.toString();
+    }
+
+    private static class Entry {
+        private final String value;
+        private final long timeStamp;
+
+        private Entry(String value, long timeStamp) {
+            this.value = value;
+            this.timeStamp = timeStamp;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+    This file is part of RouteConverter.
+
+    RouteConverter is free software; you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation; either version 2 of the License, or
+    (at your option) any later version.
+
+    RouteConverter is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with RouteConverter; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+
+    Copyright (C) 2007 Christian Pesch. All Rights Reserved.
+*/
+
+package slash.navigation.common;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static java.io.File.createTempFile;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static slash.navigation.common.CoordinateCache.escape;
+import static slash.navigation.common.CoordinateCache.unescape;
+
+public class CoordinateCacheTest {
+    private static final long HOUR = 60 * 60 * 1000L;
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = createTempFile("coordinates", ".cache");
+        assertTrue(file.delete());
+    }
+
+    @After
+    public void tearDown() {
+        if (file.exists())
+            assertTrue(file.delete());
+    }
+
+    @Test
+    public void testGetAndPutByRoundedCoordinate() {
+        CoordinateCache cache = new CoordinateCache(file, 10, HOUR);
+        assertNull(cache.get("A", 10.123456, 53.123456));
+        cache.put("A", 10.123456, 53.123456, "Hamburg");
+
+        assertEquals("Hamburg", cache.get("A", 10.123456, 53.123456));
+        assertEquals("Hamburg", cache.get("A", 10.123461, 53.123459));
+        assertNull(cache.get("A", 10.12347, 53.123456));
+        assertNull(cache.get("B", 10.123456, 53.123456));
+        assertEquals(2, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+    }
+
+    @Test
+    public void testDoesNotCacheNull() {
+        CoordinateCache cache = new CoordinateCache(file, 10, HOUR);
+        cache.put("A", 10.0, 53.0, null);
+        assertEquals(0, cache.size());
+        assertTrue(!file.exists());
+    }
+
+    @Test
+    public void testSurvivesRestart() {
+        CoordinateCache cache = new CoordinateCache(file, 10, HOUR);
+        cache.put("A", 10.0, 53.0, "Tab\tNew\nLine\\Back");
+        cache.put("B", -10.0, -53.0, "South");
+        cache.dispose();
+
+        CoordinateCache restarted = new CoordinateCache(file, 10, HOUR);
+        assertEquals(2, restarted.size());
+        assertEquals("Tab\tNew\nLine\\Back", restarted.get("A", 10.0, 53.0));
+        assertEquals("South", restarted.get("B", -10.0, -53.0));
+        assertEquals(2, restarted.getHitCount());
+        assertEquals(0, restarted.getMissCount());
+    }
+
+    @Test
+    public void testAppendsPerFlush() throws IOException {
+        CoordinateCache cache = new CoordinateCache(file, 10, HOUR);
+        cache.put("A", 10.0, 53.0, "Hamburg");
+        cache.put("A", 11.5, 48.1, "Munich");
+        assertTrue(!file.exists());
+
+        cache.flush();
+        assertEquals(2, Files.readAllLines(file.toPath()).size());
+        cache.flush();
+        assertEquals(2, Files.readAllLines(file.toPath()).size());
+
+        cache.put("A", 13.4, 52.5, "Berlin");
+        cache.dispose();
+        assertEquals(3, Files.readAllLines(file.toPath()).size());
+        assertEquals(3, new CoordinateCache(file, 10, HOUR).size());
+    }
+
+    @Test
+    public void testLaterValueOverridesEarlierValue() throws IOException {
+        CoordinateCache cache = new CoordinateCache(file, 10, HOUR);
+        cache.put("A", 10.0, 53.0, "First");
+        cache.put("A", 10.0, 53.0, "Second");
+        cache.put("A", 10.0, 53.0, "Third");
+        cache.flush();
+        assertEquals(3, Files.readAllLines(file.toPath()).size());
+
+        CoordinateCache restarted = new CoordinateCache(file, 10, HOUR);
+        assertEquals(1, restarted.size());
+        assertEquals("Third", restarted.get("A", 10.0, 53.0));
+        assertEquals(1, Files.readAllLines(file.toPath()).size());
+    }
+
+    @Test
+    public void testRemovesLeastRecentlyUsedBeyondMaximumSize() {
+        CoordinateCache cache = new CoordinateCache(file, 2, HOUR);
+        cache.put("A", 1.0, 1.0, "1");
+        cache.put("A", 2.0, 2.0, "2");
+        assertEquals("1", cache.get("A", 1.0, 1.0));
+        cache.put("A", 3.0, 3.0, "3");
+
+        assertEquals(2, cache.size());
+        assertEquals("1", cache.get("A", 1.0, 1.0));
+        assertNull(cache.get("A", 2.0, 2.0));
+        assertEquals("3", cache.get("A", 3.0, 3.0));
+
+        cache.flush();
+        assertEquals(2, new CoordinateCache(file, 2, HOUR).size());
+    }
+
+    @Test
+    public void testExpiresAfterTimeToLive() throws InterruptedException {
+        CoordinateCache cache = new CoordinateCache(file, 10, 50);
+        cache.put("A", 10.0, 53.0, "Hamburg");
+        assertEquals("Hamburg", cache.get("A", 10.0, 53.0));
+        cache.flush();
+
+        Thread.sleep(100);
+        assertNull(cache.get("A", 10.0, 53.0));
+        assertEquals(0, new CoordinateCache(file, 10, 50).size());
+    }
+
+    @Test
+    public void testClear() {
+        CoordinateCache cache = new CoordinateCache(file, 10, HOUR);
+        cache.put("A", 10.0, 53.0, "Hamburg");
+        cache.get("A", 10.0, 53.0);
+        cache.flush();
+        cache.clear();
+
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHitCount());
+        assertTrue(!file.exists());
+    }
+
+    @Test
+    public void testEscape() {
+        assertEquals("a\\tb\\nc\\rd\\\\e", escape("a\tb\nc\rd\\e"));
+        assertEquals("a\tb\nc\rd\\e", unescape(escape("a\tb\nc\rd\\e")));
+    }
+}
@@ -21,9 +21,14 @@
 package slash.common.helpers;
 
 import javax.xml.bind.*;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.prefs.Preferences;
 
 import static java.util.Arrays.asList;
@@ -32,6 +37,10 @@ import static javax.xml.bind.Marshaller.JAXB_FORMATTED_OUTPUT;
 /**
  * Provides JAXB helpers.
  *
+ * The {@link JAXBContext}s are cached since they are thread-safe and expensive to create.
+ * {@link Unmarshaller}s and {@link Marshaller}s are not thread-safe, thus {@link #unmarshal}
+ * and {@link #marshal} borrow them from a pool per {@link JAXBContext} and thread.
+ *
  * @author Christian Pesch
  */
 
@@ -44,33 +53,37 @@ public class JAXBHelper {
         System.setProperty("javax.xml.bind.JAXBContextFactory", "org.eclipse.persistence.jaxb.JAXBContextFactory");
     }
 
-    private static Map<List<Class<?>>, JAXBContext> classesToContext = new HashMap<>();
-    private static boolean cacheContexts;
+    private static final Map<List<Class<?>>, JAXBContext> classesToContext = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Map<JAXBContext, Unmarshaller>> unmarshallers = ThreadLocal.withInitial(HashMap::new);
+    private static final ThreadLocal<Map<JAXBContext, Marshaller>> marshallers = ThreadLocal.withInitial(HashMap::new);
+
+    public interface UnmarshallerCallback<T> {
+        T unmarshal(Unmarshaller unmarshaller) throws JAXBException;
+    }
 
-    public static void setCacheContexts(boolean cacheContexts) {
-        JAXBHelper.cacheContexts = cacheContexts;
+    public interface MarshallerCallback {
+        void marshal(Marshaller marshaller) throws JAXBException;
     }
 
     public static JAXBContext newContext(Class<?>... classes) {
-        List<Class<?>> key = asList(classes);
-        JAXBContext context = classesToContext.get(key);
-        if (context == null) {
+        return classesToContext.computeIfAbsent(asList(classes), key -> {
             try {
-                context = JAXBContext.newInstance(classes);
-                if (cacheContexts)
-                    classesToContext.put(key, context);
+                return JAXBContext.newInstance(classes);
             } catch (JAXBException e) {
                 throw new RuntimeException(e);
             }
-        }
-        return context;
+        });
+    }
+
+    private static boolean isFormattedOutput() {
+        return preferences.getBoolean("prettyPrintXml", true);
     }
 
     public static Marshaller newMarshaller(JAXBContext context) {
         Marshaller result;
         try {
             result = context.createMarshaller();
-            result.setProperty(JAXB_FORMATTED_OUTPUT, preferences.getBoolean("prettyPrintXml", true));
+            result.setProperty(JAXB_FORMATTED_OUTPUT, isFormattedOutput());
         } catch (JAXBException e) {
             throw new RuntimeException(e);
         }
@@ -90,4 +103,63 @@ public class JAXBHelper {
             throw new RuntimeException(e);
         }
     }
+
+    /**
+     * Calls back with an {@link Unmarshaller} of the current thread for the given context.
+     * Nested calls for the same context get an {@link Unmarshaller} of their own.
+     *
+     * @param context  the context to unmarshal with
+     * @param callback the callback that uses the {@link Unmarshaller} only until it returns
+     * @return the result of the callback
+     * @throws JAXBException if the callback fails
+     */
+    public static <T> T unmarshal(JAXBContext context, UnmarshallerCallback<T> callback) throws JAXBException {
+        Map<JAXBContext, Unmarshaller> pool = unmarshallers.get();
+        Unmarshaller unmarshaller = pool.remove(context);
+        if (unmarshaller == null)
+            unmarshaller = newUnmarshaller(context);
+        try {
+            return callback.unmarshal(unmarshaller);
+        } finally {
+            pool.put(context, unmarshaller);
+        }
+    }
+
+    public static Object unmarshal(JAXBContext context, InputStream inputStream) throws JAXBException {
+        return unmarshal(context, unmarshaller -> unmarshaller.unmarshal(inputStream));
+    }
+
+    public static Object unmarshal(JAXBContext context, Reader reader) throws JAXBException {
+        return unmarshal(context, unmarshaller -> unmarshaller.unmarshal(reader));
+    }
+
+    /**
+     * Calls back with a {@link Marshaller} of the current thread for the given context.
+     * Nested calls for the same context get a {@link Marshaller} of their own.
+     *
+     * @param context  the context to marshal with
+     * @param callback the callback that uses the {@link Marshaller} only until it returns
+     * @throws JAXBException if the callback fails
+     */
+    public static void marshal(JAXBContext context, MarshallerCallback callback) throws JAXBException {
+        Map<JAXBContext, Marshaller> pool = marshallers.get();
+        Marshaller marshaller = pool.remove(context);
+        if (marshaller == null)
+            marshaller = newMarshaller(context);
+        else
+            marshaller.setProperty(JAXB_FORMATTED_OUTPUT, isFormattedOutput());
+        try {
+            callback.marshal(marshaller);
+        } finally {
+            pool.put(context, marshaller);
+        }
+    }
+
+    public static void marshal(JAXBContext context, Object jaxbElement, OutputStream outputStream) throws JAXBException {
+        marshal(context, marshaller -> marshaller.marshal(jaxbElement, outputStream));
+    }
+
+    public static void marshal(JAXBContext context, Object jaxbElement, Writer writer) throws JAXBException {
+        marshal(context, marshaller -> marshaller.marshal(jaxbElement, writer));
+    }
 }
@@ -0,0 +1,71 @@
+/*
+    This file is part of RouteConverter.
+
+    RouteConverter is free software; you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation; either version 2 of the License, or
+    (at your option) any later version.
+
+    RouteConverter is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with RouteConverter; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+
+    Copyright (C) 2007 Christian Pesch. All Rights Reserved.
+*/
+
+package slash.common.helpers;
+
+import java.io.InterruptedIOException;
+
+import static java.lang.Math.max;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Spaces out requests to a service so that at most the given number of requests per second
+ * are started, no matter how many threads issue them.
+ *
+ * @author Christian Pesch
+ */
+
+public class RateLimiter {
+    private final long intervalNanos;
+    private long nextPermitNanos = Long.MIN_VALUE;
+
+    public RateLimiter(double requestsPerSecond) {
+        if (requestsPerSecond <= 0.0)
+            throw new IllegalArgumentException("Requests per second must be positive: " + requestsPerSecond);
+        this.intervalNanos = (long) (1000000000L / requestsPerSecond);
+    }
+
+    long now() {
+        return nanoTime();
+    }
+
+    long reserve() {
+        synchronized (this) {
+            long now = now();
+            long permit = max(now, nextPermitNanos);
+            nextPermitNanos = permit + intervalNanos;
+            return permit - now;
+        }
+    }
+
+    public void acquire() throws InterruptedIOException {
+        long waitNanos = reserve();
+        if (waitNanos <= 0)
+            return;
+
+        try {
+            NANOSECONDS.sleep(waitNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for request permit");
+        }
+    }
+}
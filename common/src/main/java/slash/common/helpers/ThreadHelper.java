@@ -23,6 +23,7 @@ package slash.common.helpers;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static java.lang.String.format;
 import static javax.swing.SwingUtilities.invokeLater;
@@ -53,19 +54,31 @@ public class ThreadHelper {
     }
 
     public static ExecutorService createSingleThreadExecutor(String namePrefix) {
-        return Executors.newSingleThreadExecutor(new NamedThreadFactory(namePrefix));
+        return Executors.newSingleThreadExecutor(new NamedThreadFactory(namePrefix, false));
+    }
+
+    public static ExecutorService createFixedThreadPool(String namePrefix, int threadCount) {
+        return Executors.newFixedThreadPool(threadCount, new NamedThreadFactory(namePrefix, false));
+    }
+
+    public static ExecutorService createDaemonThreadPool(String namePrefix, int threadCount) {
+        return Executors.newFixedThreadPool(threadCount, new NamedThreadFactory(namePrefix, true));
     }
 
     private static class NamedThreadFactory implements ThreadFactory {
         private String namePrefix;
-        private int number = 1;
+        private boolean daemon;
+        private final AtomicInteger number = new AtomicInteger(1);
 
-        private NamedThreadFactory(String namePrefix) {
+        private NamedThreadFactory(String namePrefix, boolean daemon) {
             this.namePrefix = namePrefix;
+            this.daemon = daemon;
         }
 
         public Thread newThread(Runnable runnable) {
-            return new Thread(runnable, format("%s-%d", namePrefix, number++));
+            Thread thread = new Thread(runnable, format("%s-%d", namePrefix, number.getAndIncrement()));
+            thread.setDaemon(daemon);
+            return thread;
         }
     }
 }
@@ -26,10 +26,9 @@ import java.text.SimpleDateFormat;
 import java.util.*;
 import java.util.logging.Logger;
 
+import static java.lang.Math.floorDiv;
 import static java.text.DateFormat.MEDIUM;
 import static java.text.DateFormat.SHORT;
-import static java.util.Calendar.DAY_OF_YEAR;
-import static java.util.Calendar.YEAR;
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.unmodifiableMap;
 
@@ -43,6 +42,8 @@ import static java.util.Collections.unmodifiableMap;
 public class CompactCalendar {
     private static final Logger log = Logger.getLogger(CompactCalendar.class.getName());
     public static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+    private static final long MILLISECONDS_OF_A_DAY = 24 * 60 * 60 * 1000L;
+    private static final ThreadLocal<Map<String, DateFormat>> dateFormats = ThreadLocal.withInitial(HashMap::new);
 
     private final long timeInMillis;
     private final String timeZoneId;
@@ -58,11 +59,20 @@ public class CompactCalendar {
         return simpleDateFormat;
     }
 
+    /**
+     * Returns a {@link DateFormat} in UTC for the given pattern that is cached per thread.
+     * Unlike the result of {@link #createDateFormat(String)} it must not be modified or
+     * passed to other threads.
+     */
+    public static DateFormat getDateFormat(String pattern) {
+        return dateFormats.get().computeIfAbsent(pattern, CompactCalendar::createDateFormat);
+    }
+
     public static CompactCalendar parseDate(String dateString, String dateFormatString) {
         if (dateString == null)
             return null;
         try {
-            DateFormat dateFormat = createDateFormat(dateFormatString);
+            DateFormat dateFormat = getDateFormat(dateFormatString);
             Date parsed = dateFormat.parse(dateString);
             return fromDate(parsed);
         } catch (ParseException e) {
@@ -84,9 +94,7 @@ public class CompactCalendar {
     }
 
     public static CompactCalendar fromDate(Date date) {
-        Calendar calendar = Calendar.getInstance(UTC);
-        calendar.setTime(date);
-        return fromCalendar(calendar);
+        return fromMillis(date.getTime());
     }
 
     public static CompactCalendar now() {
@@ -111,13 +119,22 @@ public class CompactCalendar {
         return result;
     }
 
+    private long getDaysSinceEpoch() {
+        long localTimeInMillis = getTimeInMillis() + getTimeZone().getOffset(getTimeInMillis());
+        return floorDiv(localTimeInMillis, MILLISECONDS_OF_A_DAY);
+    }
+
     public boolean hasDateDefined() {
-        Calendar calendar = getCalendar();
-        return !(calendar.get(YEAR) == 1970 && calendar.get(DAY_OF_YEAR) == 1);
+        // January 1st, 1970 in the time zone of this calendar
+        return getDaysSinceEpoch() != 0;
+    }
+
+    public boolean hasSameDate(CompactCalendar other) {
+        return getDaysSinceEpoch() == other.getDaysSinceEpoch();
     }
 
     public Date getTime() {
-        return getCalendar().getTime();
+        return new Date(getTimeInMillis());
     }
 
     private static volatile Map<String, TimeZone> timeZones = emptyMap();
@@ -147,15 +164,12 @@ public class CompactCalendar {
     }
 
     public boolean after(CompactCalendar other) {
-        if (getTimeZoneId().equals(other.getTimeZoneId()))
-            return getTimeInMillis() > other.getTimeInMillis();
-        return getCalendar().after(other.getCalendar());
+        // like Calendar#after regardless of the time zones
+        return getTimeInMillis() > other.getTimeInMillis();
     }
 
     public boolean before(CompactCalendar other) {
-        if (getTimeZoneId().equals(other.getTimeZoneId()))
-            return getTimeInMillis() < other.getTimeInMillis();
-        return getCalendar().before(other.getCalendar());
+        return getTimeInMillis() < other.getTimeInMillis();
     }
 
     public boolean equals(Object o) {
@@ -0,0 +1,115 @@
+/*
+    This file is part of RouteConverter.
+
+    RouteConverter is free software; you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation; either version 2 of the License, or
+    (at your option) any later version.
+
+    RouteConverter is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with RouteConverter; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+
+    Copyright (C) 2007 Christian Pesch. All Rights Reserved.
+*/
+
+package slash.common.helpers;
+
+import org.junit.Test;
+
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RateLimiterTest {
+    private static class ManualClockRateLimiter extends RateLimiter {
+        private long nowNanos = 0;
+
+        ManualClockRateLimiter(double requestsPerSecond) {
+            super(requestsPerSecond);
+        }
+
+        long now() {
+            return nowNanos;
+        }
+
+        void advance(long millis) {
+            nowNanos += MILLISECONDS.toNanos(millis);
+        }
+    }
+
+    @Test
+    public void testReserveSpacesOutPermits() {
+        ManualClockRateLimiter limiter = new ManualClockRateLimiter(10.0);
+        assertEquals(0, limiter.reserve());
+        assertEquals(100, NANOSECONDS.toMillis(limiter.reserve()));
+        assertEquals(200, NANOSECONDS.toMillis(limiter.reserve()));
+
+        limiter.advance(250);
+        assertEquals(50, NANOSECONDS.toMillis(limiter.reserve()));
+
+        limiter.advance(1000);
+        assertEquals(0, limiter.reserve());
+        assertEquals(100, NANOSECONDS.toMillis(limiter.reserve()));
+    }
+
+    @Test
+    public void testAcquireFromManyThreads() throws InterruptedException {
+        final RateLimiter limiter = new RateLimiter(50.0);
+        List<Thread> threads = new ArrayList<>();
+        long start = nanoTime();
+        for (int i = 0; i < 4; i++) {
+            Thread thread = new Thread(new Runnable() {
+                public void run() {
+                    for (int j = 0; j < 5; j++) {
+                        try {
+                            limiter.acquire();
+                        } catch (InterruptedIOException e) {
+                            fail("Interrupted");
+                        }
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads)
+            thread.join();
+
+        // 20 permits at 50 per second: the first is immediate, the last after 380 milliseconds
+        assertTrue(NANOSECONDS.toMillis(nanoTime() - start) >= 370);
+    }
+
+    @Test
+    public void testAcquireIsInterruptible() {
+        RateLimiter limiter = new RateLimiter(0.1);
+        limiter.reserve();
+
+        Thread.currentThread().interrupt();
+        long start = nanoTime();
+        try {
+            limiter.acquire();
+            fail("InterruptedIOException expected");
+        } catch (InterruptedIOException e) {
+            assertTrue(Thread.interrupted());
+        }
+        assertTrue(NANOSECONDS.toMillis(nanoTime() - start) < 1000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsNonPositiveRate() {
+        new RateLimiter(0.0);
+    }
+}
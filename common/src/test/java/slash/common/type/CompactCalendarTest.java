@@ -25,10 +25,17 @@ import org.junit.Test;
 import java.util.Calendar;
 import java.util.TimeZone;
 
+import static java.util.Calendar.DAY_OF_MONTH;
+import static java.util.Calendar.DAY_OF_YEAR;
+import static java.util.Calendar.MONTH;
+import static java.util.Calendar.YEAR;
 import static org.junit.Assert.*;
 import static slash.common.TestCase.assertCalendarEquals;
 import static slash.common.type.CompactCalendar.UTC;
 import static slash.common.type.CompactCalendar.fromMillis;
+import static slash.common.type.CompactCalendar.fromMillisAndTimeZone;
+import static slash.common.type.CompactCalendar.getDateFormat;
+import static slash.common.type.CompactCalendar.parseDate;
 
 public class CompactCalendarTest {
 
@@ -72,4 +79,43 @@ public class CompactCalendarTest {
         assertEquals("UTC", inTimeZone.getTimeZoneId());
     }
 
+    @Test
+    public void testHasDateDefinedAndSameDateMatchCalendar() {
+        long[] millis = new long[]{-90000000L, -86400001L, -86400000L, -3600000L, -1L, 0L, 1L, 3600000L,
+                7200000L, 82800000L, 86399999L, 86400000L, 90000000L, 1234567890123L};
+        for (String timeZoneId : new String[]{"UTC", "GMT+2", "GMT-5", "Europe/Berlin", "America/Los_Angeles"}) {
+            for (long time : millis) {
+                CompactCalendar compactCalendar = fromMillisAndTimeZone(time, timeZoneId);
+                Calendar calendar = compactCalendar.getCalendar();
+                assertEquals(timeZoneId + " " + time,
+                        !(calendar.get(YEAR) == 1970 && calendar.get(DAY_OF_YEAR) == 1), compactCalendar.hasDateDefined());
+
+                for (long otherTime : millis) {
+                    CompactCalendar other = fromMillisAndTimeZone(otherTime, timeZoneId);
+                    Calendar otherCalendar = other.getCalendar();
+                    assertEquals(timeZoneId + " " + time + " " + otherTime,
+                            calendar.get(YEAR) == otherCalendar.get(YEAR) &&
+                                    calendar.get(MONTH) == otherCalendar.get(MONTH) &&
+                                    calendar.get(DAY_OF_MONTH) == otherCalendar.get(DAY_OF_MONTH),
+                            compactCalendar.hasSameDate(other));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testGetTime() {
+        assertEquals(1234567890123L, fromMillisAndTimeZone(1234567890123L, "GMT+2").getTime().getTime());
+    }
+
+    @Test
+    public void testParseDateWithCachedFormat() {
+        assertEquals(fromMillis(1000), parseDate("01.01.1970 00:00:01", "dd.MM.yyyy HH:mm:ss"));
+        assertEquals(fromMillis(2000), parseDate("01.01.1970 00:00:02", "dd.MM.yyyy HH:mm:ss"));
+        assertEquals(fromMillis(3000), parseDate("1.1.1970 0:0:3", "dd.MM.yyyy HH:mm:ss"));
+        assertNull(parseDate("no date", "dd.MM.yyyy HH:mm:ss"));
+        assertEquals(fromMillis(4000), parseDate("01.01.1970 00:00:04", "dd.MM.yyyy HH:mm:ss"));
+        assertSame(getDateFormat("HH:mm:ss"), getDateFormat("HH:mm:ss"));
+    }
+
 }
@@ -0,0 +1,170 @@
+/*
+    This file is part of RouteConverter.
+
+    RouteConverter is free software; you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation; either version 2 of the License, or
+    (at your option) any later version.
+
+    RouteConverter is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with RouteConverter; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+
+    Copyright (C) 2007 Christian Pesch. All Rights Reserved.
+*/
+
+package slash.navigation.elevation;
+
+import slash.navigation.common.BoundingBox;
+import slash.navigation.common.CoordinateCache;
+import slash.navigation.common.LongitudeAndLatitude;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.prefs.Preferences;
+
+import static java.util.concurrent.TimeUnit.DAYS;
+import static slash.common.io.Directories.getApplicationDirectory;
+
+/**
+ * Looks up elevations of an online {@link ElevationService} in a {@link CoordinateCache}
+ * before querying the service. The cache file in the application directory is shared by
+ * all services and applications. Wrap only services whose terms permit to store their
+ * results for the time to live of the cache; the Google Elevation API does not.
+ *
+ * @author Christian Pesch
+ */
+
+public class CachingElevationService implements ElevationService {
+    private static final Preferences preferences = Preferences.userNodeForPackage(CachingElevationService.class);
+    private static final String ELEVATION_CACHE_SIZE_PREFERENCE = "elevationCacheSize";
+    private static final String ELEVATION_CACHE_TIME_TO_LIVE_PREFERENCE = "elevationCacheTimeToLive";
+    private static CoordinateCache elevationCache;
+
+    private final ElevationService service;
+    private final CoordinateCache cache;
+
+    public CachingElevationService(ElevationService service) {
+        this(service, getElevationCache());
+    }
+
+    CachingElevationService(ElevationService service, CoordinateCache cache) {
+        this.service = service;
+        this.cache = cache;
+    }
+
+    public static synchronized CoordinateCache getElevationCache() {
+        if (elevationCache == null)
+            elevationCache = new CoordinateCache(new File(getApplicationDirectory(), "elevations.cache"),
+                    preferences.getInt(ELEVATION_CACHE_SIZE_PREFERENCE, 100000),
+                    preferences.getLong(ELEVATION_CACHE_TIME_TO_LIVE_PREFERENCE, DAYS.toMillis(365)));
+        return elevationCache;
+    }
+
+    public static synchronized void disposeElevationCache() {
+        if (elevationCache != null)
+            elevationCache.dispose();
+    }
+
+    public ElevationService getService() {
+        return service;
+    }
+
+    public String getName() {
+        return service.getName();
+    }
+
+    public boolean isDownload() {
+        return service.isDownload();
+    }
+
+    public boolean isOverQueryLimit() {
+        return service.isOverQueryLimit();
+    }
+
+    public String getPath() {
+        return service.getPath();
+    }
+
+    public void setPath(String path) {
+        service.setPath(path);
+    }
+
+    public File getDirectory() {
+        return service.getDirectory();
+    }
+
+    private Double getCachedElevationFor(double longitude, double latitude) {
+        String elevation = cache.get(getName(), longitude, latitude);
+        return elevation != null ? Double.valueOf(elevation) : null;
+    }
+
+    private void putCachedElevationFor(double longitude, double latitude, Double elevation) {
+        if (elevation != null)
+            cache.put(getName(), longitude, latitude, elevation.toString());
+    }
+
+    public Double getElevationFor(double longitude, double latitude) throws IOException {
+        Double elevation = getCachedElevationFor(longitude, latitude);
+        if (elevation != null)
+            return elevation;
+
+        // do not remember what the service answered when it ran into its query limit
+        boolean overQueryLimit = isOverQueryLimit();
+        elevation = service.getElevationFor(longitude, latitude);
+        if (!overQueryLimit && !isOverQueryLimit()) {
+            putCachedElevationFor(longitude, latitude, elevation);
+            cache.flush();
+        }
+        return elevation;
+    }
+
+    public List<Double> getElevationsFor(List<LongitudeAndLatitude> longitudeAndLatitudes) throws IOException {
+        List<Double> result = new ArrayList<>(longitudeAndLatitudes.size());
+        List<LongitudeAndLatitude> missing = new ArrayList<>();
+        List<Integer> missingIndices = new ArrayList<>();
+        for (int i = 0; i < longitudeAndLatitudes.size(); i++) {
+            LongitudeAndLatitude longitudeAndLatitude = longitudeAndLatitudes.get(i);
+            Double elevation = getCachedElevationFor(longitudeAndLatitude.longitude, longitudeAndLatitude.latitude);
+            result.add(elevation);
+            if (elevation == null) {
+                missing.add(longitudeAndLatitude);
+                missingIndices.add(i);
+            }
+        }
+        if (missing.isEmpty())
+            return result;
+
+        boolean overQueryLimit = isOverQueryLimit();
+        List<Double> elevations = service.getElevationsFor(missing);
+        boolean cacheElevations = !overQueryLimit && !isOverQueryLimit();
+        for (int i = 0; i < missing.size(); i++) {
+            Double elevation = elevations.get(i);
+            result.set(missingIndices.get(i), elevation);
+            if (cacheElevations)
+                putCachedElevationFor(missing.get(i).longitude, missing.get(i).latitude, elevation);
+        }
+        if (cacheElevations)
+            cache.flush();
+        return result;
+    }
+
+    public void downloadElevationDataFor(List<LongitudeAndLatitude> longitudeAndLatitudes, boolean waitForDownload) {
+        service.downloadElevationDataFor(longitudeAndLatitudes, waitForDownload);
+    }
+
+    public long calculateRemainingDownloadSize(List<BoundingBox> boundingBoxes) {
+        return service.calculateRemainingDownloadSize(boundingBoxes);
+    }
+
+    public void downloadElevationData(List<BoundingBox> boundingBoxes) {
+        service.downloadElevationData(boundingBoxes);
+    }
+}
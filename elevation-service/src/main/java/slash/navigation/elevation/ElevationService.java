@@ -25,6 +25,7 @@ import slash.navigation.common.LongitudeAndLatitude;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -43,6 +44,21 @@ public interface ElevationService {
 
     Double getElevationFor(double longitude, double latitude) throws IOException;
 
+    /**
+     * Looks up the elevations for many positions at once. Services that can
+     * answer many positions with one tile or one request override this.
+     *
+     * @param longitudeAndLatitudes the positions to look up the elevations for
+     * @return the elevations in the order of the positions, null where no elevation is available
+     * @throws IOException if the elevations cannot be looked up
+     */
+    default List<Double> getElevationsFor(List<LongitudeAndLatitude> longitudeAndLatitudes) throws IOException {
+        List<Double> result = new ArrayList<>(longitudeAndLatitudes.size());
+        for (LongitudeAndLatitude longitudeAndLatitude : longitudeAndLatitudes)
+            result.add(getElevationFor(longitudeAndLatitude.longitude, longitudeAndLatitude.latitude));
+        return result;
+    }
+
     void downloadElevationDataFor(List<LongitudeAndLatitude> longitudeAndLatitudes, boolean waitForDownload);
     long calculateRemainingDownloadSize(List<BoundingBox> boundingBoxes);
     void downloadElevationData(List<BoundingBox> boundingBoxes);
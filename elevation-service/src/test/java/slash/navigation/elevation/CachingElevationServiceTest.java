@@ -0,0 +1,154 @@
+/*
+    This file is part of RouteConverter.
+
+    RouteConverter is free software; you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation; either version 2 of the License, or
+    (at your option) any later version.
+
+    RouteConverter is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with RouteConverter; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+
+    Copyright (C) 2007 Christian Pesch. All Rights Reserved.
+*/
+
+package slash.navigation.elevation;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import slash.navigation.common.BoundingBox;
+import slash.navigation.common.CoordinateCache;
+import slash.navigation.common.LongitudeAndLatitude;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.io.File.createTempFile;
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.DAYS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CachingElevationServiceTest {
+    private final LongitudeAndLatitude hamburg = new LongitudeAndLatitude(10.0, 53.5);
+    private final LongitudeAndLatitude munich = new LongitudeAndLatitude(11.5, 48.1);
+    private final LongitudeAndLatitude sea = new LongitudeAndLatitude(5.0, 55.0);
+    private final CountingElevationService service = new CountingElevationService();
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = createTempFile("elevations", ".cache");
+        assertTrue(file.delete());
+    }
+
+    @After
+    public void tearDown() {
+        if (file.exists())
+            assertTrue(file.delete());
+    }
+
+    private CachingElevationService createService() {
+        return new CachingElevationService(service, new CoordinateCache(file, 100, DAYS.toMillis(1)));
+    }
+
+    @Test
+    public void testGetElevationForFromCache() throws IOException {
+        CachingElevationService caching = createService();
+        assertEquals(63.5, caching.getElevationFor(10.0, 53.5), 0.0);
+        assertEquals(63.5, caching.getElevationFor(10.0, 53.5), 0.0);
+        assertEquals(1, service.requests.size());
+
+        assertNull(caching.getElevationFor(5.0, 55.0));
+        assertNull(caching.getElevationFor(5.0, 55.0));
+        assertEquals(3, service.requests.size());
+    }
+
+    @Test
+    public void testGetElevationsForOnlyMissingPositions() throws IOException {
+        CachingElevationService caching = createService();
+        caching.getElevationFor(10.0, 53.5);
+        service.requests.clear();
+
+        assertEquals(asList(63.5, 59.6, null, 63.5), caching.getElevationsFor(asList(hamburg, munich, sea, hamburg)));
+        assertEquals(asList(munich, sea), service.requests);
+    }
+
+    @Test
+    public void testCacheSurvivesRestart() throws IOException {
+        createService().getElevationsFor(asList(hamburg, munich));
+
+        assertEquals(asList(63.5, 59.6), createService().getElevationsFor(asList(hamburg, munich)));
+        assertEquals(2, service.requests.size());
+    }
+
+    @Test
+    public void testDoNotCacheOverQueryLimit() throws IOException {
+        CachingElevationService caching = createService();
+        service.overQueryLimit = true;
+        caching.getElevationFor(10.0, 53.5);
+        caching.getElevationsFor(asList(hamburg, munich));
+
+        service.overQueryLimit = false;
+        caching.getElevationsFor(asList(hamburg, munich));
+        assertEquals(5, service.requests.size());
+        caching.getElevationsFor(asList(hamburg, munich));
+        assertEquals(5, service.requests.size());
+    }
+
+    private static class CountingElevationService implements ElevationService {
+        private final List<LongitudeAndLatitude> requests = new ArrayList<>();
+        private boolean overQueryLimit;
+
+        public String getName() {
+            return "Counting";
+        }
+
+        public boolean isDownload() {
+            return false;
+        }
+
+        public boolean isOverQueryLimit() {
+            return overQueryLimit;
+        }
+
+        public String getPath() {
+            throw new UnsupportedOperationException();
+        }
+
+        public void setPath(String path) {
+            throw new UnsupportedOperationException();
+        }
+
+        public File getDirectory() {
+            throw new UnsupportedOperationException();
+        }
+
+        public Double getElevationFor(double longitude, double latitude) {
+            requests.add(new LongitudeAndLatitude(longitude, latitude));
+            return longitude != 5.0 ? longitude + latitude : null;
+        }
+
+        public void downloadElevationDataFor(List<LongitudeAndLatitude> longitudeAndLatitudes, boolean waitForDownload) {
+            throw new UnsupportedOperationException();
+        }
+
+        public long calculateRemainingDownloadSize(List<BoundingBox> boundingBoxes) {
+            throw new UnsupportedOperationException();
+        }
+
+        public void downloadElevationData(List<BoundingBox> boundingBoxes) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+    This file is part of RouteConverter.
+
+    RouteConverter is free software; you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation; either version 2 of the License, or
+    (at your option) any later version.
+
+    RouteConverter is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with RouteConverter; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+
+    Copyright (C) 2007 Christian Pesch. All Rights Reserved.
+*/
+
+package slash.navigation.geocoding;
+
+import slash.navigation.common.LongitudeAndLatitude;
+import slash.navigation.common.NavigationPosition;
+
+import javax.naming.ServiceUnavailableException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Provides helpers for {@link GeocodingService}s.
+ *
+ * @author Christian Pesch
+ */
+
+public class GeocodingHelper {
+    /**
+     * Retrieves the addresses for many {@link NavigationPosition}s with one request per
+     * distinct coordinate, one after another or in parallel on the given executor.
+     * @param service the {@link GeocodingService} to reverse geocode the addresses with
+     * @param positions the {@link NavigationPosition}s to reverse geocode the addresses
+     * @param executor the long-lived executor of the service that bounds its parallel requests
+     *                 or null to send one request after another
+     * @return the addresses in the order of the given {@link NavigationPosition}s
+     * @throws ServiceUnavailableException if the service is overloaded
+     * @throws IOException if a request fails
+     */
+    public static List<String> getAddressesFor(GeocodingService service, List<NavigationPosition> positions,
+                                               ExecutorService executor) throws IOException, ServiceUnavailableException {
+        Map<Object, Integer> distinctIndices = new HashMap<>();
+        List<NavigationPosition> distinctPositions = new ArrayList<>();
+        int[] indices = new int[positions.size()];
+        for (int i = 0; i < positions.size(); i++) {
+            NavigationPosition position = positions.get(i);
+            Object key = position.hasCoordinates() ?
+                    new LongitudeAndLatitude(position.getLongitude(), position.getLatitude()) : position;
+            Integer index = distinctIndices.get(key);
+            if (index == null) {
+                index = distinctPositions.size();
+                distinctIndices.put(key, index);
+                distinctPositions.add(position);
+            }
+            indices[i] = index;
+        }
+
+        List<String> addresses = executor != null && distinctPositions.size() > 1 ?
+                getAddressesInParallel(service, distinctPositions, executor) :
+                getAddressesOneAfterAnother(service, distinctPositions);
+
+        List<String> result = new ArrayList<>(positions.size());
+        for (int index : indices)
+            result.add(addresses.get(index));
+        return result;
+    }
+
+    private static List<String> getAddressesOneAfterAnother(GeocodingService service, List<NavigationPosition> positions)
+            throws IOException, ServiceUnavailableException {
+        List<String> result = new ArrayList<>(positions.size());
+        for (NavigationPosition position : positions)
+            result.add(service.getAddressFor(position));
+        return result;
+    }
+
+    private static List<String> getAddressesInParallel(final GeocodingService service, List<NavigationPosition> positions,
+                                                       ExecutorService executor) throws IOException, ServiceUnavailableException {
+        List<Future<String>> futures = new ArrayList<>(positions.size());
+        try {
+            for (final NavigationPosition position : positions) {
+                futures.add(executor.submit(new Callable<String>() {
+                    public String call() throws Exception {
+                        return service.getAddressFor(position);
+                    }
+                }));
+            }
+
+            List<String> result = new ArrayList<>(positions.size());
+            for (Future<String> future : futures)
+                result.add(future.get());
+            return result;
+
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException)
+                throw (IOException) cause;
+            if (cause instanceof ServiceUnavailableException)
+                throw (ServiceUnavailableException) cause;
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            throw new IOException("Cannot retrieve addresses: " + cause, cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while retrieving addresses");
+        } finally {
+            // a failed or interrupted batch does not keep the executor of the service busy
+            for (Future<String> future : futures)
+                future.cancel(true);
+        }
+    }
+}
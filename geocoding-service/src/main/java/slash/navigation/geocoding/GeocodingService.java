@@ -24,6 +24,7 @@ import slash.navigation.common.NavigationPosition;
 
 import javax.naming.ServiceUnavailableException;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -38,6 +39,14 @@ public interface GeocodingService {
     boolean isDownload();
     boolean isOverQueryLimit();
 
+    /**
+     * Returns whether the terms of the service permit to store its results.
+     * @return true if the results of the service may be cached
+     */
+    default boolean isCacheable() {
+        return false;
+    }
+
     /**
      * Retrieves a list of {@link NavigationPosition}s for a given address.
      * @param address the address to geocode
@@ -55,4 +64,19 @@ public interface GeocodingService {
      * @throws IOException if the request fails
      */
     String getAddressFor(NavigationPosition position) throws IOException, ServiceUnavailableException;
+
+    /**
+     * Retrieves the addresses for many {@link NavigationPosition}s. Services that can
+     * answer many positions within their limits override this.
+     * @param positions the {@link NavigationPosition}s to reverse geocode the addresses
+     * @return the addresses in the order of the given {@link NavigationPosition}s
+     * @throws ServiceUnavailableException if the service is overloaded
+     * @throws IOException if a request fails
+     */
+    default List<String> getAddressesFor(List<NavigationPosition> positions) throws IOException, ServiceUnavailableException {
+        List<String> result = new ArrayList<>(positions.size());
+        for (NavigationPosition position : positions)
+            result.add(getAddressFor(position));
+        return result;
+    }
 }
@@ -21,10 +21,12 @@
 package slash.navigation.geonames;
 
 import slash.common.helpers.APIKeyRegistry;
+import slash.common.helpers.RateLimiter;
 import slash.navigation.common.BoundingBox;
 import slash.navigation.common.LongitudeAndLatitude;
 import slash.navigation.common.NavigationPosition;
 import slash.navigation.elevation.ElevationService;
+import slash.navigation.geocoding.GeocodingHelper;
 import slash.navigation.geocoding.GeocodingService;
 import slash.navigation.geonames.binding.Geonames;
 import slash.navigation.rest.Get;
@@ -35,9 +37,14 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
 import java.util.prefs.Preferences;
 
+import static java.lang.Math.min;
+import static java.util.Collections.nCopies;
+import static slash.common.helpers.ThreadHelper.createDaemonThreadPool;
 import static slash.common.io.Transfer.parseInteger;
 import static slash.common.io.Transfer.trim;
 
@@ -50,15 +57,24 @@ import static slash.common.io.Transfer.trim;
 public class GeoNamesService implements ElevationService, GeocodingService {
     private static final Preferences preferences = Preferences.userNodeForPackage(GeoNamesService.class);
     private static final Logger log = Logger.getLogger(GeoNamesService.class.getName());
-    private static final String GEONAMES_URL_PREFERENCE = "geonamesUrl";
-    private int overQueryLimitCount;
+    static final String GEONAMES_URL_PREFERENCE = "geonamesUrl";
+    private static final String GEONAMES_REQUESTS_PER_SECOND_PREFERENCE = "geonamesRequestsPerSecond";
+    private static final RateLimiter rateLimiter = new RateLimiter(preferences.getDouble(GEONAMES_REQUESTS_PER_SECOND_PREFERENCE, 10.0));
+    private static final int MAXIMUM_POSITIONS_PER_REQUEST = 20;
+    private static final int PARALLEL_REQUESTS = 4;
+    private static final ExecutorService geocodingExecutor = createDaemonThreadPool("GeoNamesGeocoding", PARALLEL_REQUESTS);
+    private final AtomicInteger overQueryLimitCount = new AtomicInteger();
 
     public String getName() {
         return "GeoNames";
     }
 
     public boolean isOverQueryLimit() {
-        return overQueryLimitCount > 0;
+        return overQueryLimitCount.get() > 0;
+    }
+
+    public boolean isCacheable() {
+        return true;
     }
 
     private String getGeoNamesApiUrl() {
@@ -71,6 +87,7 @@ public class GeoNamesService implements ElevationService, GeocodingService {
             return null;
 
         String url = getGeoNamesApiUrl() + uri + "&username=" + userName;
+        rateLimiter.acquire();
         Get get = new Get(url);
         String result = get.executeAsString();
         if (get.isSuccessful()) {
@@ -81,7 +98,7 @@ public class GeoNamesService implements ElevationService, GeocodingService {
     }
 
     private Integer getElevationFor(String uri, double longitude, double latitude, Integer nullValue) throws IOException {
-        String result = execute(uri + "?lat=" + latitude + "&lng=" + longitude, uri); // could be up to 20 points
+        String result = execute(uri + "?lat=" + latitude + "&lng=" + longitude, uri);
         if (result != null) {
             try {
                 Integer elevation = parseInteger(result);
@@ -94,10 +111,66 @@ public class GeoNamesService implements ElevationService, GeocodingService {
         return null;
     }
 
+    private List<Integer> getElevationsFor(String uri, List<LongitudeAndLatitude> longitudeAndLatitudes, Integer nullValue) throws IOException {
+        StringBuilder latitudes = new StringBuilder();
+        StringBuilder longitudes = new StringBuilder();
+        for (LongitudeAndLatitude longitudeAndLatitude : longitudeAndLatitudes) {
+            if (latitudes.length() > 0) {
+                latitudes.append(',');
+                longitudes.append(',');
+            }
+            latitudes.append(longitudeAndLatitude.latitude);
+            longitudes.append(longitudeAndLatitude.longitude);
+        }
+
+        String result = execute(uri + "?lats=" + latitudes + "&lngs=" + longitudes, uri);
+        if (result == null)
+            return nCopies(longitudeAndLatitudes.size(), null);
+
+        String[] lines = result.trim().split("\\s+");
+        if (lines.length != longitudeAndLatitudes.size())
+            throw new IOException("Cannot unmarshall " + result + ": expected " + longitudeAndLatitudes.size() + " elevations");
+
+        List<Integer> elevations = new ArrayList<>(lines.length);
+        for (String line : lines) {
+            try {
+                Integer elevation = parseInteger(line);
+                elevations.add(elevation != null && !elevation.equals(nullValue) ? elevation : null);
+            } catch (NumberFormatException e) {
+                throw new IOException("Cannot unmarshall " + result + ": " + e, e);
+            }
+        }
+        return elevations;
+    }
+
+    private void addElevationsFor(String uri, List<LongitudeAndLatitude> longitudeAndLatitudes, Integer nullValue,
+                                  double minimumLatitude, double maximumLatitude, List<Double> result) throws IOException {
+        List<Integer> indices = new ArrayList<>();
+        for (int i = 0; i < longitudeAndLatitudes.size(); i++) {
+            double latitude = longitudeAndLatitudes.get(i).latitude;
+            if (result.get(i) == null && latitude < maximumLatitude && latitude > minimumLatitude)
+                indices.add(i);
+        }
+
+        for (int i = 0; i < indices.size(); i += MAXIMUM_POSITIONS_PER_REQUEST) {
+            List<Integer> requestIndices = indices.subList(i, min(i + MAXIMUM_POSITIONS_PER_REQUEST, indices.size()));
+            List<LongitudeAndLatitude> request = new ArrayList<>(requestIndices.size());
+            for (Integer index : requestIndices)
+                request.add(longitudeAndLatitudes.get(index));
+
+            List<Integer> elevations = getElevationsFor(uri, request, nullValue);
+            for (int j = 0; j < requestIndices.size(); j++) {
+                Integer elevation = elevations.get(j);
+                if (elevation != null)
+                    result.set(requestIndices.get(j), elevation.doubleValue());
+            }
+        }
+    }
+
     private void checkCurrentlyOverloaded(String url, String result) throws ServiceUnavailableException {
         if (result.contains("limit") && (result.contains("overloaded") || result.contains("exceeded"))) {
-            overQueryLimitCount++;
-            log.warning("geonames API is over query limit, count: " + overQueryLimitCount + ", url: " + url);
+            int count = overQueryLimitCount.incrementAndGet();
+            log.warning("geonames API is over query limit, count: " + count + ", url: " + url);
             throw new ServiceUnavailableException(getClass().getSimpleName(), url, result);
         }
 
@@ -134,6 +207,14 @@ public class GeoNamesService implements ElevationService, GeocodingService {
         return elevation != null ? elevation.doubleValue() : null;
     }
 
+    public List<Double> getElevationsFor(List<LongitudeAndLatitude> longitudeAndLatitudes) throws IOException {
+        List<Double> result = new ArrayList<>(nCopies(longitudeAndLatitudes.size(), (Double) null));
+        addElevationsFor("astergdem", longitudeAndLatitudes, -9999, -65.0, 83.0, result);
+        addElevationsFor("srtm3", longitudeAndLatitudes, -32768, -56.0, 60.0, result);
+        addElevationsFor("gtopo30", longitudeAndLatitudes, -9999, -Double.MAX_VALUE, Double.MAX_VALUE, result);
+        return result;
+    }
+
     public List<NavigationPosition> getPositionsFor(String address) {
         return null; // not supported
     }
@@ -182,6 +263,10 @@ public class GeoNamesService implements ElevationService, GeocodingService {
         return description;
     }
 
+    public List<String> getAddressesFor(List<NavigationPosition> positions) throws IOException, javax.naming.ServiceUnavailableException {
+        return GeocodingHelper.getAddressesFor(this, positions, geocodingExecutor);
+    }
+
     public boolean isDownload() {
         return false;
     }
@@ -0,0 +1,175 @@
+/*
+    This file is part of RouteConverter.
+
+    RouteConverter is free software; you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation; either version 2 of the License, or
+    (at your option) any later version.
+
+    RouteConverter is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with RouteConverter; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+
+    Copyright (C) 2007 Christian Pesch. All Rights Reserved.
+*/
+package slash.navigation.geonames;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import slash.common.helpers.APIKeyRegistry;
+import slash.navigation.common.LongitudeAndLatitude;
+import slash.navigation.common.NavigationPosition;
+import slash.navigation.common.SimpleNavigationPosition;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.prefs.Preferences;
+
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static slash.navigation.geonames.GeoNamesService.GEONAMES_URL_PREFERENCE;
+
+public class GeoNamesServiceTest {
+    private static final Preferences preferences = Preferences.userNodeForPackage(GeoNamesService.class);
+    private final Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+    private final AtomicInteger parallelRequests = new AtomicInteger();
+    private final AtomicInteger maximumParallelRequests = new AtomicInteger();
+    private final ExecutorService executor = newCachedThreadPool();
+    private HttpServer server;
+    private GeoNamesService service = new GeoNamesService();
+    private String previousUserName, previousUrl;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", new HttpHandler() {
+            public void handle(HttpExchange exchange) throws IOException {
+                String path = exchange.getRequestURI().getPath().substring(1);
+                requests.putIfAbsent(path, new AtomicInteger());
+                requests.get(path).incrementAndGet();
+                maximumParallelRequests.accumulateAndGet(parallelRequests.incrementAndGet(), Math::max);
+
+                StringBuilder response = new StringBuilder();
+                for (String parameter : exchange.getRequestURI().getQuery().split("&")) {
+                    String[] nameAndValue = parameter.split("=");
+                    if (!nameAndValue[0].equals("lng") && !nameAndValue[0].equals("lngs"))
+                        continue;
+                    for (String longitude : nameAndValue[1].split(",")) {
+                        if (path.equals("findNearbyPlaceName"))
+                            response.append("<geonames><geoname><name>Place ").append(getIndex(Double.parseDouble(longitude))).
+                                    append("</name></geoname></geonames>");
+                        else
+                            response.append(createElevation(path, Double.parseDouble(longitude))).append("\r\n");
+                    }
+                }
+                parallelRequests.decrementAndGet();
+                byte[] bytes = response.toString().getBytes();
+                exchange.sendResponseHeaders(200, bytes.length);
+                try (OutputStream outputStream = exchange.getResponseBody()) {
+                    outputStream.write(bytes);
+                }
+            }
+        });
+        server.setExecutor(executor);
+        server.start();
+
+        previousUserName = APIKeyRegistry.getInstance().getAPIKeyPreference("geonames");
+        previousUrl = preferences.get(GEONAMES_URL_PREFERENCE, null);
+        APIKeyRegistry.getInstance().setAPIKeyPreference("geonames", "test");
+        preferences.put(GEONAMES_URL_PREFERENCE, "http://localhost:" + server.getAddress().getPort() + "/");
+    }
+
+    @After
+    public void tearDown() {
+        if (previousUrl != null)
+            preferences.put(GEONAMES_URL_PREFERENCE, previousUrl);
+        else
+            preferences.remove(GEONAMES_URL_PREFERENCE);
+        APIKeyRegistry.getInstance().setAPIKeyPreference("geonames", previousUserName);
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private static int getIndex(double longitude) {
+        return (int) Math.round((longitude - 10.0) * 1000.0);
+    }
+
+    private static int createElevation(String path, double longitude) {
+        int index = getIndex(longitude);
+        if (path.equals("astergdem"))
+            return index % 7 == 0 ? -9999 : index;
+        if (path.equals("srtm3"))
+            return index % 14 == 0 ? -32768 : 1000 + index;
+        return 2000 + index;
+    }
+
+    private int getRequestCount(String path) {
+        AtomicInteger count = requests.get(path);
+        return count != null ? count.get() : 0;
+    }
+
+    @Test
+    public void testElevationsForInFewRequests() throws IOException {
+        List<LongitudeAndLatitude> longitudeAndLatitudes = new ArrayList<>();
+        for (int i = 0; i < 45; i++)
+            longitudeAndLatitudes.add(new LongitudeAndLatitude(10.0 + i / 1000.0, 50.0));
+
+        List<Double> elevations = service.getElevationsFor(longitudeAndLatitudes);
+        assertEquals(45, elevations.size());
+        for (int i = 0; i < 45; i++)
+            assertEquals((double) (i % 14 == 0 ? 2000 + i : i % 7 == 0 ? 1000 + i : i), elevations.get(i), 0.0);
+
+        assertEquals(3, getRequestCount("astergdem"));
+        assertEquals(1, getRequestCount("srtm3"));
+        assertEquals(1, getRequestCount("gtopo30"));
+    }
+
+    @Test
+    public void testElevationsForLikeElevationFor() throws IOException {
+        List<LongitudeAndLatitude> longitudeAndLatitudes = new ArrayList<>();
+        for (int i = 0; i < 30; i++)
+            longitudeAndLatitudes.add(new LongitudeAndLatitude(10.0 + i / 1000.0, i % 3 == 0 ? 50.0 : i % 3 == 1 ? 70.0 : 85.0));
+
+        List<Double> elevations = service.getElevationsFor(longitudeAndLatitudes);
+        int requestCount = getRequestCount("astergdem") + getRequestCount("srtm3") + getRequestCount("gtopo30");
+        assertEquals(3, requestCount);
+
+        for (int i = 0; i < longitudeAndLatitudes.size(); i++) {
+            LongitudeAndLatitude longitudeAndLatitude = longitudeAndLatitudes.get(i);
+            assertEquals(service.getElevationFor(longitudeAndLatitude.longitude, longitudeAndLatitude.latitude), elevations.get(i));
+        }
+    }
+
+    @Test
+    public void testAddressesForOncePerCoordinateInOrder() throws Exception {
+        List<NavigationPosition> positions = new ArrayList<>();
+        for (int i = 0; i < 30; i++)
+            positions.add(new SimpleNavigationPosition(10.0 + (i % 15) / 1000.0, 50.0));
+
+        List<String> addresses = service.getAddressesFor(positions);
+        assertEquals(30, addresses.size());
+        for (int i = 0; i < 30; i++)
+            assertEquals("Place " + (i % 15), addresses.get(i));
+
+        assertEquals(15, getRequestCount("findNearbyPlaceName"));
+        assertEquals(0, getRequestCount("findNearby"));
+        assertTrue(maximumParallelRequests.get() <= 4);
+    }
+}
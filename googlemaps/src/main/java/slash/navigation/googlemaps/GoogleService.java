@@ -21,6 +21,7 @@
 package slash.navigation.googlemaps;
 
 import slash.common.helpers.APIKeyRegistry;
+import slash.common.helpers.RateLimiter;
 import slash.navigation.common.BoundingBox;
 import slash.navigation.common.LongitudeAndLatitude;
 import slash.navigation.common.NavigationPosition;
@@ -39,8 +40,11 @@ import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
+import java.util.prefs.Preferences;
 
+import static java.lang.Math.min;
 import static java.util.Arrays.sort;
 import static slash.common.io.Transfer.encodeUri;
 import static slash.navigation.common.Bearing.calculateBearing;
@@ -56,15 +60,25 @@ import static slash.navigation.rest.HttpRequest.USER_AGENT;
  */
 
 public class GoogleService implements ElevationService, GeocodingService {
+    private static final Preferences preferences = Preferences.userNodeForPackage(GoogleService.class);
     private static final Logger log = Logger.getLogger(GoogleService.class.getName());
-    private int overQueryLimitCount, deniedCount;
+    private static final String GOOGLE_REQUESTS_PER_SECOND_PREFERENCE = "googleRequestsPerSecond";
+    // the Elevation and Geocoding API permit up to 50 requests per second
+    private static final RateLimiter rateLimiter = new RateLimiter(preferences.getDouble(GOOGLE_REQUESTS_PER_SECOND_PREFERENCE, 50.0));
+    private static final int MAXIMUM_LOCATIONS_PER_REQUEST = 100; // up to 512 locations but the URL length is limited
+    private final AtomicInteger overQueryLimitCount = new AtomicInteger(), deniedCount = new AtomicInteger();
 
     public String getName() {
         return "Google";
     }
 
     public boolean isOverQueryLimit() {
-        return overQueryLimitCount > 5 || deniedCount > 5;
+        return overQueryLimitCount.get() > 5 || deniedCount.get() > 5;
+    }
+
+    public boolean isCacheable() {
+        // the terms of the Google Maps APIs restrict storing their results
+        return false;
     }
 
     private String getGoogleApiUrl(String apiType, String payload) {
@@ -82,7 +96,8 @@ public class GoogleService implements ElevationService, GeocodingService {
         return getGoogleApiUrl("geocode", payload);
     }
 
-    private Get get(String url) {
+    private Get get(String url) throws IOException {
+        rateLimiter.acquire();
         Get get = new Get(url);
         get.setUserAgent(USER_AGENT);
         return get;
@@ -90,14 +105,14 @@ public class GoogleService implements ElevationService, GeocodingService {
 
     private void checkForError(String url, String status) throws ServiceUnavailableException {
         if (status.equals("OVER_QUERY_LIMIT")) {
-            overQueryLimitCount++;
-            log.warning("Google API is over query limit, count: " + overQueryLimitCount + ", url: " + url);
+            int count = overQueryLimitCount.incrementAndGet();
+            log.warning("Google API is over query limit, count: " + count + ", url: " + url);
             throw new ServiceUnavailableException(getClass().getSimpleName(), url, status);
         }
 
         if (status.equals("REQUEST_DENIED")) {
-            deniedCount++;
-            log.warning("Google API access is denied, count: " + deniedCount + ", url: " + url);
+            int count = deniedCount.incrementAndGet();
+            log.warning("Google API access is denied, count: " + count + ", url: " + url);
             throw new ServiceUnavailableException(getClass().getSimpleName(), url, status);
         }
     }
@@ -166,7 +181,7 @@ public class GoogleService implements ElevationService, GeocodingService {
     }
 
     public Double getElevationFor(double longitude, double latitude) throws IOException {
-        String url = getElevationUrl("locations=" + latitude + "," + longitude); // could be up to 512 locations
+        String url = getElevationUrl("locations=" + latitude + "," + longitude);
         Get get = get(url);
         log.info("Getting elevation for " + longitude + "," + latitude);
         String result = get.executeAsString();
@@ -185,6 +200,46 @@ public class GoogleService implements ElevationService, GeocodingService {
         return null;
     }
 
+    private List<Double> getElevationsForLocations(List<LongitudeAndLatitude> longitudeAndLatitudes) throws IOException {
+        StringBuilder locations = new StringBuilder();
+        for (LongitudeAndLatitude longitudeAndLatitude : longitudeAndLatitudes) {
+            if (locations.length() > 0)
+                locations.append("%7C");
+            locations.append(longitudeAndLatitude.latitude).append(',').append(longitudeAndLatitude.longitude);
+        }
+
+        String url = getElevationUrl("locations=" + locations);
+        Get get = get(url);
+        log.info("Getting elevations for " + longitudeAndLatitudes.size() + " locations");
+        String result = get.executeAsString();
+        if (get.isSuccessful())
+            try {
+                ElevationResponse elevationResponse = unmarshalElevation(result);
+                if (elevationResponse != null) {
+                    String status = elevationResponse.getStatus();
+                    checkForError(url, status);
+                    List<Double> elevations = extractElevations(elevationResponse.getResult());
+                    if (elevations.size() == longitudeAndLatitudes.size())
+                        return elevations;
+                    if (elevations.size() > 0)
+                        throw new IOException("Cannot unmarshall " + result + ": expected " + longitudeAndLatitudes.size() + " elevations");
+                }
+            } catch (JAXBException e) {
+                throw new IOException("Cannot unmarshall " + result + ": " + e, e);
+            }
+        List<Double> elevations = new ArrayList<>(longitudeAndLatitudes.size());
+        for (int i = 0; i < longitudeAndLatitudes.size(); i++)
+            elevations.add(null);
+        return elevations;
+    }
+
+    public List<Double> getElevationsFor(List<LongitudeAndLatitude> longitudeAndLatitudes) throws IOException {
+        List<Double> result = new ArrayList<>(longitudeAndLatitudes.size());
+        for (int i = 0; i < longitudeAndLatitudes.size(); i += MAXIMUM_LOCATIONS_PER_REQUEST)
+            result.addAll(getElevationsForLocations(longitudeAndLatitudes.subList(i, min(i + MAXIMUM_LOCATIONS_PER_REQUEST, longitudeAndLatitudes.size()))));
+        return result;
+    }
+
     private List<Double> extractElevations(List<ElevationResponse.Result> responses) {
         List<Double> results = new ArrayList<>(responses.size());
         for (ElevationResponse.Result response : responses) {
@@ -38,15 +38,15 @@ public class GpxUtil {
     public static final String GARMIN_TRIP_EXTENSIONS_1_NAMESPACE_URI = "http://www.garmin.com/xmlschemas/TripExtensions/v1";
     public static final String TREKBUDDY_EXTENSIONS_0984_NAMESPACE_URI = "http://trekbuddy.net/2009/01/gpx/nmea";
 
-    public static Unmarshaller newUnmarshaller10() {
-        return newUnmarshaller(newContext(slash.navigation.gpx.binding10.ObjectFactory.class));
+    public static JAXBContext newContext10() {
+        return newContext(slash.navigation.gpx.binding10.ObjectFactory.class);
     }
 
-    private static Marshaller newMarshaller10() {
-        return newMarshaller(newContext(slash.navigation.gpx.binding10.ObjectFactory.class));
+    public static Unmarshaller newUnmarshaller10() {
+        return newUnmarshaller(newContext10());
     }
 
-    private static JAXBContext newContext11() {
+    public static JAXBContext newContext11() {
         return newContext(slash.navigation.gpx.binding11.ObjectFactory.class,
                 slash.navigation.gpx.garmin3.ObjectFactory.class,
                 slash.navigation.gpx.trackpoint1.ObjectFactory.class,
@@ -54,19 +54,11 @@ public class GpxUtil {
                 slash.navigation.gpx.trip1.ObjectFactory.class);
     }
 
-    private static Unmarshaller newUnmarshaller11() {
-        return newUnmarshaller(newContext11());
-    }
-
-    private static Marshaller newMarshaller11() {
-        return newMarshaller(newContext11());
-    }
-
 
     public static Gpx unmarshal10(Reader reader) throws JAXBException {
         Gpx result;
         try {
-            result = (Gpx) newUnmarshaller10().unmarshal(reader);
+            result = (Gpx) unmarshal(newContext10(), reader);
         } catch (ClassCastException e) {
             throw new JAXBException("Parse error: " + e);
         }
@@ -76,7 +68,7 @@ public class GpxUtil {
     public static Gpx unmarshal10(InputStream inputStream) throws JAXBException {
         Gpx result;
         try {
-            result = (Gpx) newUnmarshaller10().unmarshal(inputStream);
+            result = (Gpx) unmarshal(newContext10(), inputStream);
         } catch (ClassCastException e) {
             throw new JAXBException("Parse error: " + e);
         }
@@ -86,7 +78,7 @@ public class GpxUtil {
     public static void marshal10(Gpx gpx, OutputStream outputStream) throws JAXBException {
         try {
             try {
-                newMarshaller10().marshal(new JAXBElement<>(new QName(GPX_10_NAMESPACE_URI, "gpx"), Gpx.class, gpx), outputStream);
+                marshal(newContext10(), new JAXBElement<>(new QName(GPX_10_NAMESPACE_URI, "gpx"), Gpx.class, gpx), outputStream);
             }
             finally {
                 outputStream.flush();
@@ -105,7 +97,7 @@ public class GpxUtil {
     public static GpxType unmarshal11(Reader reader) throws JAXBException {
         GpxType result;
         try {
-            JAXBElement element = (JAXBElement) newUnmarshaller11().unmarshal(reader);
+            JAXBElement element = (JAXBElement) unmarshal(newContext11(), reader);
             result = (GpxType) element.getValue();
         } catch (ClassCastException e) {
             throw new JAXBException("Parse error: " + e);
@@ -116,7 +108,7 @@ public class GpxUtil {
     public static GpxType unmarshal11(InputStream in) throws JAXBException {
         GpxType result;
         try {
-            JAXBElement element = (JAXBElement) newUnmarshaller11().unmarshal(in);
+            JAXBElement element = (JAXBElement) unmarshal(newContext11(), in);
             result = (GpxType) element.getValue();
         } catch (ClassCastException e) {
             throw new JAXBException("Parse error: " + e);
@@ -125,13 +117,13 @@ public class GpxUtil {
     }
 
     public static void marshal11(GpxType gpxType, Writer writer) throws JAXBException {
-        newMarshaller11().marshal(new slash.navigation.gpx.binding11.ObjectFactory().createGpx(gpxType), writer);
+        marshal(newContext11(), new slash.navigation.gpx.binding11.ObjectFactory().createGpx(gpxType), writer);
     }
 
     public static void marshal11(GpxType gpxType, OutputStream outputStream) throws JAXBException {
         try {
             try {
-                newMarshaller11().marshal(new slash.navigation.gpx.binding11.ObjectFactory().createGpx(gpxType), outputStream);
+                marshal(newContext11(), new slash.navigation.gpx.binding11.ObjectFactory().createGpx(gpxType), outputStream);
             }
             finally {
                 outputStream.flush();
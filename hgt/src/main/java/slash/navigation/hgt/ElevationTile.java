@@ -20,31 +20,46 @@
 
 package slash.navigation.hgt;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 
 /**
  * A tile with elevation data.
  *
+ * The tile is read into a short array once and its resolution is derived once from the file size.
+ * It retains about 2.9 MB of heap for SRTM3 and about 26 MB for SRTM1 data, see {@link #getSize()}.
+ * It does not keep the file open, so the file can be replaced or deleted afterwards.
+ *
  * @author Robert "robekas", Christian Pesch
  */
 
 public class ElevationTile {
     /** 1200 Intervals means 1201 positions per line and column */
     private static final int SRTM3_INTERVALS = 1200;
-    private static final int SRTM3_FILE_SIZE = (SRTM3_INTERVALS + 1) * (SRTM3_INTERVALS + 1) * 2;
+    static final int SRTM3_FILE_SIZE = (SRTM3_INTERVALS + 1) * (SRTM3_INTERVALS + 1) * 2;
     private static final int SRTM1_INTERVALS = 3600;
     public static final int SRTM1_FILE_SIZE = (SRTM1_INTERVALS + 1) * (SRTM1_INTERVALS + 1) * 2;
     private static final int INVALID_VALUE_LIMIT = -15000; // Won't interpolate below this elevation in Meters, guess is: -0x8000
-
-    private final RandomAccessFile file;
-
-    public ElevationTile(RandomAccessFile file) {
-        this.file = file;
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final short[] elevations;
+    private final int intervalCount;
+
+    public ElevationTile(RandomAccessFile file) throws IOException {
+        if (file != null) {
+            long fileLength = file.length();
+            this.intervalCount = getIntervalCount(file, fileLength);
+            this.elevations = read(file.getChannel(), (int) fileLength / 2);
+        } else {
+            this.intervalCount = 0;
+            this.elevations = null;
+        }
     }
-    
-    private int getIntervalCount() throws IOException {
-        long fileLength = file.length();
+
+    private static int getIntervalCount(RandomAccessFile file, long fileLength) throws IOException {
         if(fileLength == SRTM3_FILE_SIZE)
           return SRTM3_INTERVALS;
         else if(fileLength == SRTM1_FILE_SIZE)
@@ -53,6 +68,44 @@ public class ElevationTile {
             throw new IOException("Elevation tile " + file + " has invalid size " + fileLength);
     }
 
+    private static short[] read(FileChannel channel, int count) throws IOException {
+        short[] elevations = new short[count];
+        // the byte order of HGT files is big endian like the buffer
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        long position = 0;
+        int index = 0;
+        while (index < count) {
+            buffer.clear();
+            buffer.limit(Math.min(buffer.capacity(), (count - index) * 2));
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, position);
+                if (read < 0)
+                    throw new EOFException("Elevation tile ends after " + position + " of " + count * 2 + " bytes");
+                position += read;
+            }
+            buffer.flip();
+            int shorts = buffer.remaining() / 2;
+            buffer.asShortBuffer().get(elevations, index, shorts);
+            index += shorts;
+        }
+        return elevations;
+    }
+
+    /**
+     * Returns the number of bytes of heap that the elevations of this tile occupy.
+     *
+     * @return the size of the elevations in bytes
+     */
+    public int getSize() {
+        return elevations != null ? elevations.length * 2 : 0;
+    }
+
+    private double getElevation(int pos) throws IOException {
+        if (pos < 0 || pos >= elevations.length)
+            throw new IOException("Elevation tile has no elevation at index " + pos);
+        return elevations[pos];
+    }
+
     /**
      * Calculate the elevation for the destination position according the
      * theorem on intersecting lines ("Strahlensatz").
@@ -67,12 +120,36 @@ public class ElevationTile {
     }
 
     public Double getElevationFor(Double longitude, Double latitude) throws IOException {
-        if (file == null || longitude == null || latitude == null)
+        if (elevations == null || longitude == null || latitude == null)
             return null;
+        return getElevationFor((double) longitude, (double) latitude);
+    }
+
+    /**
+     * Interpolate the elevations for positions which are all located on this tile.
+     *
+     * @param longitudes the longitudes of the positions
+     * @param latitudes  the latitudes of the positions
+     * @return the elevations in the order of the positions, null where no elevation is available
+     * @throws IOException if this tile cannot provide an elevation for a position
+     */
+    public Double[] getElevationsFor(double[] longitudes, double[] latitudes) throws IOException {
+        if (longitudes.length != latitudes.length)
+            throw new IllegalArgumentException("Got " + longitudes.length + " longitudes but " + latitudes.length + " latitudes");
+
+        Double[] result = new Double[longitudes.length];
+        if (elevations == null)
+            return result;
+
+        for (int i = 0; i < longitudes.length; i++)
+            result[i] = getElevationFor(longitudes[i], latitudes[i]);
+        return result;
+    }
 
+    private Double getElevationFor(double longitude, double latitude) throws IOException {
         // cut off the decimal places
-        int longitudeAsInt = longitude.intValue();
-        int latitudeAsInt = latitude.intValue();
+        int longitudeAsInt = (int) longitude;
+        int latitudeAsInt = (int) latitude;
 
         if (longitude < 0) {                                        // If it's west longitude (negative value)
             longitudeAsInt = (longitudeAsInt - 1) * -1;             // Make a positive number (left edge)
@@ -84,7 +161,6 @@ public class ElevationTile {
             latitude = ((double) latitudeAsInt + latitude) + (double) latitudeAsInt; // Make positive double latitude (needed for later calculation)
         }
 
-        int intervalCount = getIntervalCount();
         int longitudeIntervalIndex = (int) ((longitude - (double) longitudeAsInt) * intervalCount);
         int latitudeIntervalIndex = (int) ((latitude - (double) latitudeAsInt) * intervalCount);
 
@@ -106,20 +182,16 @@ public class ElevationTile {
         int pos;                                                    // The index of the elevation into the hgt file
 
         pos = (((intervalCount - latitudeIntervalIndex) - 1) * (intervalCount + 1)) + longitudeIntervalIndex; // The index for the left top elevation
-        file.seek(pos * 2);                                // We have 16-bit values for elevation, so multiply by 2
-        dLeftTop = file.readShort();                       // Now read the left top elevation from hgt file
+        dLeftTop = getElevation(pos);                      // Now read the left top elevation from hgt file
 
         pos = ((intervalCount - latitudeIntervalIndex) * (intervalCount + 1)) + longitudeIntervalIndex; // The index for the left bottom elevation
-        file.seek(pos * 2);                                // We have 16-bit values for elevation, so multiply by 2
-        dLeftBottom = file.readShort();                    // Now read the left bottom elevation from hgt file
+        dLeftBottom = getElevation(pos);                   // Now read the left bottom elevation from hgt file
 
         pos = (((intervalCount - latitudeIntervalIndex) - 1) * (intervalCount + 1)) + longitudeIntervalIndex + 1; // The index for the right top elevation
-        file.seek(pos * 2);                                // We have 16-bit values for elevation, so multiply by 2
-        dRightTop = file.readShort();                      // Now read the right top elevation from hgt file
+        dRightTop = getElevation(pos);                     // Now read the right top elevation from hgt file
 
         pos = ((intervalCount - latitudeIntervalIndex) * (intervalCount + 1)) + longitudeIntervalIndex + 1; // The index for the right bottom elevation
-        file.seek(pos * 2);                                // We have 16-bit values for elevation, so multiply by 2
-        dRightBottom = file.readShort();                   // Now read the right bottom top elevation from hgt file
+        dRightBottom = getElevation(pos);                  // Now read the right bottom elevation from hgt file
 
         // if one of the read elevation values is not valid, we cannot interpolate
         if ((dLeftTop < INVALID_VALUE_LIMIT) || (dLeftBottom < INVALID_VALUE_LIMIT) ||
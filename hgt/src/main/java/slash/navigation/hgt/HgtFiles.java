@@ -33,9 +33,14 @@ import slash.navigation.elevation.ElevationService;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.prefs.Preferences;
 
 import static java.lang.String.format;
+import static java.lang.System.currentTimeMillis;
+import static java.lang.Thread.currentThread;
+import static java.util.Arrays.asList;
 import static slash.common.io.Directories.ensureDirectory;
 import static slash.common.io.Directories.getApplicationDirectory;
 import static slash.common.io.Files.removeExtension;
@@ -50,15 +55,41 @@ public class HgtFiles implements ElevationService {
     private static final Preferences preferences = Preferences.userNodeForPackage(HgtFiles.class);
     private static final String DIRECTORY_PREFERENCE = "directory";
     private static final String BASE_URL_PREFERENCE = "baseUrl";
+    private static final String MAXIMUM_TILE_CACHE_SIZE_PREFERENCE = "maximumTileCacheMegaBytes";
     private static final String DOT_HGT = ".hgt";
-
-    private final Map<java.io.File, RandomAccessFile> randomAccessFileCache = new HashMap<>();
+    private static final int MAXIMUM_TILE_CACHE_MEGA_BYTES = 128; // 44 SRTM3 tiles with 2.9 MB or 4 SRTM1 tiles with 26 MB
+    private static final int MAXIMUM_MISSING_TILE_COUNT = 1024;
+    private static final long MISSING_TILE_RECHECK_MILLIS = 5000;
+    static final int NO_TILE = -1;
+
+    private final ConcurrentMap<Integer, CachedElevationTile> elevationTileCache = new ConcurrentHashMap<>();
+    private final Map<Integer, Long> missingTileCache;
+    private final AtomicLong accessCounter = new AtomicLong();
+    // guards the size accounting and the eviction of the tile cache
+    private final Object tileCacheLock = new Object();
+    private final long maximumTileCacheSize;
+    private long tileCacheSize;
+    private int tileCount;
     private final DataSource dataSource;
     private final DownloadManager downloadManager;
 
     public HgtFiles(DataSource dataSource, DownloadManager downloadManager) {
+        this(dataSource, downloadManager, preferences.getInt(MAXIMUM_TILE_CACHE_SIZE_PREFERENCE, MAXIMUM_TILE_CACHE_MEGA_BYTES) * 1024L * 1024L);
+    }
+
+    HgtFiles(DataSource dataSource, DownloadManager downloadManager, long maximumTileCacheSize) {
         this.dataSource = dataSource;
         this.downloadManager = downloadManager;
+        this.maximumTileCacheSize = maximumTileCacheSize;
+        this.missingTileCache = createLeastRecentlyUsedCache(MAXIMUM_MISSING_TILE_COUNT);
+    }
+
+    private static <V> Map<Integer, V> createLeastRecentlyUsedCache(final int maximumSize) {
+        return new LinkedHashMap<Integer, V>(16, 0.75f, true) {
+            protected boolean removeEldestEntry(Map.Entry<Integer, V> eldest) {
+                return size() > maximumSize;
+            }
+        };
     }
 
     public String getName() {
@@ -102,31 +133,213 @@ public class HgtFiles implements ElevationService {
                 (longitude < 0) ? ((longitudeAsInteger - 1) * -1) : longitudeAsInteger);
     }
 
+    static int createTileKey(double longitude, double latitude) {
+        if (!(longitude >= -180.0 && longitude <= 180.0 && latitude >= -90.0 && latitude <= 90.0))
+            return NO_TILE;
+        // same tiles as createFileKey(): a negative coordinate belongs to the tile of the next lower degree
+        int longitudeAsInteger = (int) longitude - (longitude < 0 ? 1 : 0);
+        int latitudeAsInteger = (int) latitude - (latitude < 0 ? 1 : 0);
+        return (latitudeAsInteger + 128) << 16 | (longitudeAsInteger + 256);
+    }
+
+    String createFileKey(int tileKey) {
+        int longitudeAsInteger = (tileKey & 0xffff) - 256;
+        int latitudeAsInteger = (tileKey >> 16) - 128;
+        return format("%s%02d%s%03d" + DOT_HGT, (latitudeAsInteger < 0) ? "S" : "N", Math.abs(latitudeAsInteger),
+                (longitudeAsInteger < 0) ? "W" : "E", Math.abs(longitudeAsInteger));
+    }
+
     private java.io.File createFile(String key) {
         return new java.io.File(getDirectory(), key);
     }
 
-    public Double getElevationFor(double longitude, double latitude) throws IOException {
-        java.io.File file = createFile(createFileKey(longitude, latitude));
-        if (!file.exists())
+    ElevationTile createElevationTile(java.io.File file) throws IOException {
+        // the tile is read into memory and the file is released
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")) {
+            return new ElevationTile(randomAccessFile);
+        }
+    }
+
+    private boolean isMissingTile(int tileKey) {
+        synchronized (missingTileCache) {
+            Long missingSince = missingTileCache.get(tileKey);
+            return missingSince != null && currentTimeMillis() - missingSince < MISSING_TILE_RECHECK_MILLIS;
+        }
+    }
+
+    private ElevationTile getElevationTile(int tileKey) throws IOException {
+        if (tileKey == NO_TILE)
             return null;
 
-        RandomAccessFile randomAccessFile = randomAccessFileCache.get(file);
-        if (randomAccessFile == null) {
-            randomAccessFile = new RandomAccessFile(file, "r");
-            randomAccessFileCache.put(file, randomAccessFile);
+        CachedElevationTile cachedTile = elevationTileCache.get(tileKey);
+        if (cachedTile == null) {
+            if (isMissingTile(tileKey))
+                return null;
+
+            final java.io.File file = createFile(createFileKey(tileKey));
+            CachedElevationTile loadingTile = new CachedElevationTile(new FutureTask<>(new Callable<ElevationTile>() {
+                public ElevationTile call() throws IOException {
+                    return file.exists() ? createElevationTile(file) : null;
+                }
+            }));
+            cachedTile = elevationTileCache.putIfAbsent(tileKey, loadingTile);
+            if (cachedTile == null)
+                return loadElevationTile(tileKey, loadingTile);
         }
-        return new ElevationTile(randomAccessFile).getElevationFor(longitude, latitude);
+
+        cachedTile.lastAccess = accessCounter.incrementAndGet();
+        return getElevationTile(tileKey, cachedTile);
     }
 
-    public void dispose() {
-        for (RandomAccessFile randomAccessFile : randomAccessFileCache.values())
-            try {
-                randomAccessFile.close();
-            } catch (IOException e) {
-                throw new IllegalArgumentException("Cannot close random access file" + randomAccessFile);
+    private ElevationTile loadElevationTile(int tileKey, CachedElevationTile cachedTile) throws IOException {
+        // read without a lock, other threads that ask for the same tile wait for the result
+        cachedTile.lastAccess = accessCounter.incrementAndGet();
+        cachedTile.elevationTile.run();
+        ElevationTile elevationTile = getElevationTile(tileKey, cachedTile);
+
+        synchronized (missingTileCache) {
+            if (elevationTile == null)
+                missingTileCache.put(tileKey, currentTimeMillis());
+            else
+                missingTileCache.remove(tileKey);
+        }
+
+        if (elevationTile == null)
+            elevationTileCache.remove(tileKey, cachedTile);
+        else
+            addToTileCache(tileKey, cachedTile, elevationTile.getSize());
+        return elevationTile;
+    }
+
+    private ElevationTile getElevationTile(int tileKey, CachedElevationTile cachedTile) throws IOException {
+        try {
+            return cachedTile.elevationTile.get();
+        } catch (ExecutionException e) {
+            elevationTileCache.remove(tileKey, cachedTile);
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException)
+                throw (IOException) cause;
+            throw new IOException(format("Cannot read elevation tile %s: %s", createFileKey(tileKey), cause), cause);
+        } catch (InterruptedException e) {
+            currentThread().interrupt();
+            throw new IOException(format("Interrupted while waiting for elevation tile %s", createFileKey(tileKey)), e);
+        }
+    }
+
+    private void addToTileCache(int tileKey, CachedElevationTile cachedTile, int size) {
+        synchronized (tileCacheLock) {
+            // the cache may have been disposed while the tile was read
+            if (elevationTileCache.get(tileKey) != cachedTile)
+                return;
+
+            cachedTile.size = size;
+            tileCacheSize += size;
+            tileCount++;
+            evictLeastRecentlyUsedTiles(cachedTile);
+        }
+    }
+
+    private void evictLeastRecentlyUsedTiles(CachedElevationTile mostRecentTile) {
+        // keeps at least the most recently read tile even if it alone exceeds the maximum size
+        while (tileCacheSize > maximumTileCacheSize && tileCount > 1) {
+            Integer eldestKey = null;
+            CachedElevationTile eldestTile = null;
+            for (Map.Entry<Integer, CachedElevationTile> entry : elevationTileCache.entrySet()) {
+                CachedElevationTile cachedTile = entry.getValue();
+                if (cachedTile.size > 0 && cachedTile != mostRecentTile &&
+                        (eldestTile == null || cachedTile.lastAccess < eldestTile.lastAccess)) {
+                    eldestKey = entry.getKey();
+                    eldestTile = cachedTile;
+                }
             }
-        randomAccessFileCache.clear();
+            if (eldestTile == null)
+                break;
+
+            elevationTileCache.remove(eldestKey, eldestTile);
+            tileCacheSize -= eldestTile.size;
+            tileCount--;
+            eldestTile.size = 0;
+        }
+    }
+
+    int getElevationTileCount() {
+        synchronized (tileCacheLock) {
+            return tileCount;
+        }
+    }
+
+    long getTileCacheSize() {
+        synchronized (tileCacheLock) {
+            return tileCacheSize;
+        }
+    }
+
+    private void forgetMissingTiles() {
+        synchronized (missingTileCache) {
+            missingTileCache.clear();
+        }
+    }
+
+    public Double getElevationFor(double longitude, double latitude) throws IOException {
+        ElevationTile elevationTile = getElevationTile(createTileKey(longitude, latitude));
+        return elevationTile != null ? elevationTile.getElevationFor(longitude, latitude) : null;
+    }
+
+    public Double[] getElevationsFor(double[] longitudes, double[] latitudes) throws IOException {
+        if (longitudes.length != latitudes.length)
+            throw new IllegalArgumentException("Got " + longitudes.length + " longitudes but " + latitudes.length + " latitudes");
+
+        // group the positions by tile to look up each tile once
+        Map<Integer, List<Integer>> indicesByKey = new HashMap<>();
+        for (int i = 0; i < longitudes.length; i++) {
+            int key = createTileKey(longitudes[i], latitudes[i]);
+            List<Integer> indices = indicesByKey.get(key);
+            if (indices == null) {
+                indices = new ArrayList<>();
+                indicesByKey.put(key, indices);
+            }
+            indices.add(i);
+        }
+
+        Double[] result = new Double[longitudes.length];
+        for (Map.Entry<Integer, List<Integer>> entry : indicesByKey.entrySet()) {
+            ElevationTile elevationTile = getElevationTile(entry.getKey());
+            if (elevationTile == null)
+                continue;
+
+            List<Integer> indices = entry.getValue();
+            double[] tileLongitudes = new double[indices.size()];
+            double[] tileLatitudes = new double[indices.size()];
+            for (int i = 0; i < indices.size(); i++) {
+                tileLongitudes[i] = longitudes[indices.get(i)];
+                tileLatitudes[i] = latitudes[indices.get(i)];
+            }
+
+            Double[] elevations = elevationTile.getElevationsFor(tileLongitudes, tileLatitudes);
+            for (int i = 0; i < indices.size(); i++)
+                result[indices.get(i)] = elevations[i];
+        }
+        return result;
+    }
+
+    public List<Double> getElevationsFor(List<LongitudeAndLatitude> longitudeAndLatitudes) throws IOException {
+        double[] longitudes = new double[longitudeAndLatitudes.size()];
+        double[] latitudes = new double[longitudeAndLatitudes.size()];
+        for (int i = 0; i < longitudeAndLatitudes.size(); i++) {
+            LongitudeAndLatitude longitudeAndLatitude = longitudeAndLatitudes.get(i);
+            longitudes[i] = longitudeAndLatitude.longitude;
+            latitudes[i] = longitudeAndLatitude.latitude;
+        }
+        return asList(getElevationsFor(longitudes, latitudes));
+    }
+
+    public void dispose() {
+        synchronized (tileCacheLock) {
+            elevationTileCache.clear();
+            tileCacheSize = 0;
+            tileCount = 0;
+        }
+        forgetMissingTiles();
     }
 
     public void downloadElevationDataFor(List<LongitudeAndLatitude> longitudeAndLatitudes, boolean waitForDownload) {
@@ -150,8 +363,10 @@ public class HgtFiles implements ElevationService {
             downloads.add(download(downloadable));
         }
 
-        if (!downloads.isEmpty() && waitForDownload)
+        if (!downloads.isEmpty() && waitForDownload) {
             downloadManager.waitForCompletion(downloads);
+            forgetMissingTiles();
+        }
     }
 
     private Download download(Downloadable downloadable) {
@@ -230,4 +445,15 @@ public class HgtFiles implements ElevationService {
             download(downloadable);
         }
     }
+
+    private static class CachedElevationTile {
+        private final FutureTask<ElevationTile> elevationTile;
+        private volatile long lastAccess;
+        // the size accounted for in the tile cache, guarded by the tile cache lock
+        private int size;
+
+        private CachedElevationTile(FutureTask<ElevationTile> elevationTile) {
+            this.elevationTile = elevationTile;
+        }
+    }
 }
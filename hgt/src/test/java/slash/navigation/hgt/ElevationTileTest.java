@@ -0,0 +1,152 @@
+/*
+    This file is part of RouteConverter.
+
+    RouteConverter is free software; you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation; either version 2 of the License, or
+    (at your option) any later version.
+
+    RouteConverter is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with RouteConverter; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+
+    Copyright (C) 2007 Christian Pesch. All Rights Reserved.
+*/
+package slash.navigation.hgt;
+
+import org.junit.Test;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Random;
+
+import static java.io.File.createTempFile;
+import static org.junit.Assert.*;
+
+public class ElevationTileTest {
+    private static final int INTERVALS = 1200;
+
+    static File createTile(File file, Random random) throws IOException {
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            for (int i = 0; i < (INTERVALS + 1) * (INTERVALS + 1); i++)
+                output.writeShort(random.nextInt(50) == 0 ? Short.MIN_VALUE : random.nextInt(9000) - 500);
+        }
+        return file;
+    }
+
+    private static File createTile(Random random) throws IOException {
+        File file = createTempFile("elevationtile", ".hgt");
+        file.deleteOnExit();
+        return createTile(file, random);
+    }
+
+    // the interpolation with seek and readShort per elevation that was used before tiles were read into memory
+    static Double readElevationFor(RandomAccessFile file, double longitude, double latitude) throws IOException {
+        int longitudeAsInt = (int) longitude;
+        int latitudeAsInt = (int) latitude;
+        if (longitude < 0) {
+            longitudeAsInt = (longitudeAsInt - 1) * -1;
+            longitude = ((double) longitudeAsInt + longitude) + (double) longitudeAsInt;
+        }
+        if (latitude < 0) {
+            latitudeAsInt = (latitudeAsInt - 1) * -1;
+            latitude = ((double) latitudeAsInt + latitude) + (double) latitudeAsInt;
+        }
+
+        int longitudeIntervalIndex = Math.min((int) ((longitude - (double) longitudeAsInt) * INTERVALS), INTERVALS - 1);
+        int latitudeIntervalIndex = Math.min((int) ((latitude - (double) latitudeAsInt) * INTERVALS), INTERVALS - 1);
+        double dOffLon = longitude - (double) longitudeAsInt;
+        double dOffLat = latitude - (double) latitudeAsInt;
+
+        int top = (((INTERVALS - latitudeIntervalIndex) - 1) * (INTERVALS + 1)) + longitudeIntervalIndex;
+        int bottom = ((INTERVALS - latitudeIntervalIndex) * (INTERVALS + 1)) + longitudeIntervalIndex;
+        file.seek(top * 2);
+        double dLeftTop = file.readShort();
+        file.seek(bottom * 2);
+        double dLeftBottom = file.readShort();
+        file.seek((top + 1) * 2);
+        double dRightTop = file.readShort();
+        file.seek((bottom + 1) * 2);
+        double dRightBottom = file.readShort();
+        if (dLeftTop < -15000 || dLeftBottom < -15000 || dRightTop < -15000 || dRightBottom < -15000)
+            return null;
+
+        double dDeltaLon = dOffLon - (double) longitudeIntervalIndex * (1.0 / (double) INTERVALS);
+        double dDeltaLat = dOffLat - (double) latitudeIntervalIndex * (1.0 / (double) INTERVALS);
+        double dLonHeightLeft = dLeftBottom - ((dLeftBottom - dLeftTop) * dDeltaLat) / (1.0 / (double) INTERVALS);
+        double dLonHeightRight = dRightBottom - ((dRightBottom - dRightTop) * dDeltaLat) / (1.0 / (double) INTERVALS);
+        double dElevation = dLonHeightLeft - ((dLonHeightLeft - dLonHeightRight) * dDeltaLon) / (1.0 / (double) INTERVALS);
+        return dElevation + 0.5;
+    }
+
+    private double[] createCoordinates(Random random, int count, int degree) {
+        double[] result = new double[count];
+        for (int i = 0; i < count; i++)
+            result[i] = i % 100 == 0 ? (double) degree : degree + (degree < 0 ? -1 : 1) * random.nextDouble();
+        return result;
+    }
+
+    @Test
+    public void testInterpolateLikeReadingFromFile() throws IOException {
+        Random random = new Random(11);
+        File file = createTile(random);
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")) {
+            ElevationTile tile = new ElevationTile(randomAccessFile);
+
+            for (int[] degrees : new int[][]{{11, 47}, {-71, -33}, {-1, 42}, {0, 0}}) {
+                double[] longitudes = createCoordinates(random, 5000, degrees[0]);
+                double[] latitudes = createCoordinates(random, 5000, degrees[1]);
+                Double[] elevations = tile.getElevationsFor(longitudes, latitudes);
+
+                int interpolated = 0;
+                for (int i = 0; i < longitudes.length; i++) {
+                    Double expected = readElevationFor(randomAccessFile, longitudes[i], latitudes[i]);
+                    assertEquals(expected, tile.getElevationFor(longitudes[i], latitudes[i]));
+                    assertEquals(expected, elevations[i]);
+                    if (expected != null)
+                        interpolated++;
+                }
+                assertTrue(interpolated > longitudes.length / 2);
+            }
+        }
+    }
+
+    @Test
+    public void testTileOutlivesFile() throws IOException {
+        File file = createTile(new Random(4711));
+        ElevationTile tile;
+        Double expected;
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")) {
+            tile = new ElevationTile(randomAccessFile);
+            expected = readElevationFor(randomAccessFile, 11.5, 47.5);
+        }
+        assertTrue(file.delete());
+        assertEquals(expected, tile.getElevationFor(11.5, 47.5));
+    }
+
+    @Test
+    public void testNoTile() throws IOException {
+        ElevationTile tile = new ElevationTile(null);
+        assertNull(tile.getElevationFor(11.5, 47.5));
+        assertArrayEquals(new Double[2], tile.getElevationsFor(new double[]{11.5, 11.6}, new double[]{47.5, 47.6}));
+    }
+
+    @Test(expected = IOException.class)
+    public void testInvalidSize() throws IOException {
+        File file = createTempFile("elevationtile", ".hgt");
+        file.deleteOnExit();
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            randomAccessFile.setLength(4711);
+            new ElevationTile(randomAccessFile);
+        }
+    }
+}
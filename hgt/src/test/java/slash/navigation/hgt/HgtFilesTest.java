@@ -3,7 +3,31 @@ package slash.navigation.hgt;
 import org.junit.Test;
 import slash.navigation.download.DownloadManager;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.io.File.createTempFile;
+import static java.util.concurrent.Executors.newFixedThreadPool;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static slash.navigation.hgt.ElevationTile.SRTM3_FILE_SIZE;
+import static slash.navigation.hgt.HgtFiles.NO_TILE;
+import static slash.navigation.hgt.HgtFiles.createTileKey;
+import static slash.navigation.hgt.ElevationTileTest.createTile;
+import static slash.navigation.hgt.ElevationTileTest.readElevationFor;
 
 public class HgtFilesTest {
     private HgtFiles files = new HgtFiles(null, new DownloadManager(null));
@@ -21,4 +45,194 @@ public class HgtFilesTest {
         assertEquals("N42E000.hgt", files.createFileKey(0.15052, 42.42091));
         assertEquals("N42W001.hgt", files.createFileKey(-0.55289, 42.55803));
     }
+
+    @Test
+    public void createTileKeyLikeFileKey() {
+        Random random = new Random(7);
+        for (int i = 0; i < 100000; i++) {
+            double longitude = i % 10 == 0 ? random.nextInt(361) - 180 : random.nextDouble() * 360.0 - 180.0;
+            double latitude = i % 10 == 0 ? random.nextInt(181) - 90 : random.nextDouble() * 180.0 - 90.0;
+            int tileKey = createTileKey(longitude, latitude);
+            assertNotEquals(NO_TILE, tileKey);
+            assertEquals(files.createFileKey(longitude, latitude), files.createFileKey(tileKey));
+        }
+        assertNotEquals(createTileKey(0.1, 42.0), createTileKey(-0.1, 42.0));
+        assertNotEquals(createTileKey(0.1, 42.0), createTileKey(0.1, -42.0));
+        assertEquals(NO_TILE, createTileKey(180.1, 42.0));
+        assertEquals(NO_TILE, createTileKey(0.1, -90.1));
+        assertEquals(NO_TILE, createTileKey(Double.NaN, 42.0));
+    }
+
+    private File createDirectory() throws IOException {
+        File directory = createTempFile("hgtfiles", "");
+        assertTrue(directory.delete() && directory.mkdir());
+        directory.deleteOnExit();
+        return directory;
+    }
+
+    private HgtFiles createHgtFiles(final File directory, int maximumTileCount) {
+        return new HgtFiles(null, null, maximumTileCount * (long) SRTM3_FILE_SIZE) {
+            public File getDirectory() {
+                return directory;
+            }
+        };
+    }
+
+    @Test
+    public void boundTileCacheBySize() throws IOException {
+        File directory = createDirectory();
+        Random random = new Random(5);
+        createTile(new File(directory, "N47E011.hgt"), random);
+        createTile(new File(directory, "N47E012.hgt"), random);
+        createTile(new File(directory, "N48E011.hgt"), random);
+
+        HgtFiles hgtFiles = createHgtFiles(directory, 2);
+        hgtFiles.getElevationFor(11.5, 47.5);
+        hgtFiles.getElevationFor(12.5, 47.5);
+        assertEquals(2, hgtFiles.getElevationTileCount());
+        assertEquals(2L * SRTM3_FILE_SIZE, hgtFiles.getTileCacheSize());
+
+        hgtFiles.getElevationFor(11.5, 48.5);
+        assertEquals(2, hgtFiles.getElevationTileCount());
+        assertEquals(2L * SRTM3_FILE_SIZE, hgtFiles.getTileCacheSize());
+
+        hgtFiles.dispose();
+        assertEquals(0, hgtFiles.getElevationTileCount());
+        assertEquals(0L, hgtFiles.getTileCacheSize());
+    }
+
+    @Test
+    public void keepMostRecentTileLargerThanCache() throws IOException {
+        File directory = createDirectory();
+        Random random = new Random(6);
+        createTile(new File(directory, "N47E011.hgt"), random);
+        createTile(new File(directory, "N47E012.hgt"), random);
+
+        HgtFiles hgtFiles = createHgtFiles(directory, 0);
+        hgtFiles.getElevationFor(11.5, 47.5);
+        hgtFiles.getElevationFor(12.5, 47.5);
+        assertEquals(1, hgtFiles.getElevationTileCount());
+        assertEquals((long) SRTM3_FILE_SIZE, hgtFiles.getTileCacheSize());
+        hgtFiles.dispose();
+    }
+
+    @Test
+    public void getElevationsForGroupsByTile() throws IOException {
+        File directory = createDirectory();
+        Random random = new Random(42);
+        File n47e011 = createTile(new File(directory, "N47E011.hgt"), random);
+        File s34w071 = createTile(new File(directory, "S34W071.hgt"), random);
+
+        HgtFiles hgtFiles = createHgtFiles(directory, 64);
+        double[] longitudes = new double[]{11.1, -70.2, 11.3, 12.5, -70.9, 11.9};
+        double[] latitudes = new double[]{47.1, -33.2, 47.3, 47.5, -33.9, 47.9};
+        Double[] elevations = hgtFiles.getElevationsFor(longitudes, latitudes);
+        assertNull(elevations[3]);
+
+        try (RandomAccessFile first = new RandomAccessFile(n47e011, "r");
+             RandomAccessFile second = new RandomAccessFile(s34w071, "r")) {
+            for (int i : new int[]{0, 2, 5}) {
+                assertEquals(readElevationFor(first, longitudes[i], latitudes[i]), elevations[i]);
+                assertEquals(elevations[i], hgtFiles.getElevationFor(longitudes[i], latitudes[i]));
+            }
+            for (int i : new int[]{1, 4}) {
+                assertEquals(readElevationFor(second, longitudes[i], latitudes[i]), elevations[i]);
+                assertEquals(elevations[i], hgtFiles.getElevationFor(longitudes[i], latitudes[i]));
+            }
+        }
+        hgtFiles.dispose();
+    }
+
+    @Test
+    public void rememberMissingTiles() throws IOException {
+        File directory = createDirectory();
+        HgtFiles hgtFiles = createHgtFiles(directory, 64);
+        assertNull(hgtFiles.getElevationFor(11.5, 47.5));
+
+        createTile(new File(directory, "N47E011.hgt"), new Random(3));
+        assertNull(hgtFiles.getElevationFor(11.5, 47.5));
+        assertEquals(0, hgtFiles.getElevationTileCount());
+
+        hgtFiles.dispose();
+        assertNotNull(hgtFiles.getElevationFor(11.5, 47.5));
+        assertEquals(1, hgtFiles.getElevationTileCount());
+    }
+
+    @Test
+    public void readEachTileOnceFromManyThreads() throws Exception {
+        File directory = createDirectory();
+        Random random = new Random(17);
+        final int[][] tiles = new int[][]{{11, 47}, {12, 47}, {11, 48}, {12, 48}, {-71, -34}, {-70, -34}};
+        final File[] files = new File[tiles.length];
+        for (int i = 0; i < tiles.length; i++)
+            files[i] = createTile(new File(directory, this.files.createFileKey(tiles[i][0] + 0.5, tiles[i][1] + 0.5)), random);
+
+        final AtomicInteger reads = new AtomicInteger();
+        final AtomicInteger concurrentReads = new AtomicInteger();
+        final Map<File, AtomicInteger> readsInProgress = new ConcurrentHashMap<>();
+        final int maximumTileCount = 3;
+        final HgtFiles hgtFiles = new HgtFiles(null, null, maximumTileCount * (long) SRTM3_FILE_SIZE) {
+            public File getDirectory() {
+                return directory;
+            }
+
+            ElevationTile createElevationTile(File file) throws IOException {
+                readsInProgress.putIfAbsent(file, new AtomicInteger());
+                if (readsInProgress.get(file).incrementAndGet() > 1)
+                    concurrentReads.incrementAndGet();
+                try {
+                    reads.incrementAndGet();
+                    Thread.yield();
+                    return super.createElevationTile(file);
+                } finally {
+                    readsInProgress.get(file).decrementAndGet();
+                }
+            }
+        };
+
+        ExecutorService executor = newFixedThreadPool(8);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            final long seed = t;
+            futures.add(executor.submit(new Callable<Integer>() {
+                public Integer call() throws Exception {
+                    Random random = new Random(seed);
+                    RandomAccessFile[] randomAccessFiles = new RandomAccessFile[files.length];
+                    try {
+                        for (int i = 0; i < files.length; i++)
+                            randomAccessFiles[i] = new RandomAccessFile(files[i], "r");
+
+                        int lookups = 0;
+                        for (int i = 0; i < 5000; i++) {
+                            // two out of eight tiles are missing
+                            int tile = random.nextInt(tiles.length + 2);
+                            double longitude = (tile < tiles.length ? tiles[tile][0] : 30 + tile) + random.nextDouble();
+                            double latitude = (tile < tiles.length ? tiles[tile][1] : 10) + random.nextDouble();
+                            Double expected = tile < tiles.length ? readElevationFor(randomAccessFiles[tile], longitude, latitude) : null;
+                            assertEquals(expected, hgtFiles.getElevationFor(longitude, latitude));
+                            assertTrue(hgtFiles.getElevationTileCount() <= maximumTileCount);
+                            assertTrue(hgtFiles.getTileCacheSize() <= maximumTileCount * (long) SRTM3_FILE_SIZE);
+                            lookups++;
+                        }
+                        return lookups;
+                    } finally {
+                        for (RandomAccessFile randomAccessFile : randomAccessFiles)
+                            if (randomAccessFile != null)
+                                randomAccessFile.close();
+                    }
+                }
+            }));
+        }
+        int lookups = 0;
+        for (Future<Integer> future : futures)
+            lookups += future.get();
+        executor.shutdown();
+
+        assertEquals(8 * 5000, lookups);
+        assertEquals(0, concurrentReads.get());
+        assertTrue(reads.get() > tiles.length);
+        assertTrue(reads.get() < lookups);
+        assertEquals(maximumTileCount, hgtFiles.getElevationTileCount());
+        hgtFiles.dispose();
+    }
 }
@@ -95,6 +95,16 @@ public abstract class BabelFormat extends BaseNavigationFormat<GpxRoute> {
 
     protected abstract boolean isStreamingCapable();
 
+    /**
+     * Returns the text files of this format start with. Used to decide if GPSBabel
+     * should be started for a file whose extension doesn't match.
+     *
+     * @return the text files of this format start with or null if there is none
+     */
+    public String getSignature() {
+        return null;
+    }
+
     protected String[] getGlobalOptions() {
         return ROUTE_WAYPOINTS_TRACKS;
     }
@@ -42,6 +42,10 @@ public class GarminMapSource5Format extends BabelFormat implements MultipleRoute
         return "mapsource";
     }
 
+    public String getSignature() {
+        return "MsRcd";
+    }
+
     public boolean isSupportsMultipleRoutes() {
         return true;
     }
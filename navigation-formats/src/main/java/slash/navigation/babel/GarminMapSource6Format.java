@@ -42,6 +42,10 @@ public class GarminMapSource6Format extends BabelFormat implements MultipleRoute
         return "gdb";
     }
 
+    public String getSignature() {
+        return "MsRcf";
+    }
+
     protected String getFormatOptions(GpxRoute route) {
         return ",ver=3";
     }
@@ -46,6 +46,10 @@ public class GarminPcx5Format extends BabelFormat {
         return "pcx";
     }
 
+    public String getSignature() {
+        return "H  SOFTWARE NAME";
+    }
+
     protected String[] getGlobalOptions() {
         return new String[]{"-r", "-w"};
     }
@@ -39,6 +39,10 @@ public class NationalGeographicTopo3Format extends BabelFormat {
         return "tpo3";
     }
 
+    public String getSignature() {
+        return "TOPO! Ver";
+    }
+
     public boolean isSupportsWriting() {
         return false;
     }
@@ -39,6 +39,10 @@ public class OziExplorerRouteFormat extends OziExplorerFormat {
         return "OziExplorer Route (*" + getExtension() + ")";
     }
 
+    public String getSignature() {
+        return "OziExplorer Route File";
+    }
+
     protected String[] getGlobalOptions() {
         return new String[]{"-r"};
     }
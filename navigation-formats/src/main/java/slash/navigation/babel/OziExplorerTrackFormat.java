@@ -39,6 +39,10 @@ public class OziExplorerTrackFormat extends OziExplorerFormat {
         return "OziExplorer Track (*" + getExtension() + ")";
     }
 
+    public String getSignature() {
+        return "OziExplorer Track Point File";
+    }
+
     protected String[] getGlobalOptions() {
         return new String[]{"-t"};
     }
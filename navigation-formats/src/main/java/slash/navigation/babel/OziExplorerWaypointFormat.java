@@ -39,6 +39,10 @@ public class OziExplorerWaypointFormat extends OziExplorerFormat {
         return "OziExplorer Waypoint (*" + getExtension() + ")";
     }
 
+    public String getSignature() {
+        return "OziExplorer Waypoint File";
+    }
+
     protected String[] getGlobalOptions() {
         return new String[]{"-w"};
     }
@@ -85,6 +85,7 @@ import static java.lang.Double.MAX_VALUE;
 import static java.lang.Math.*;
 import static java.util.Arrays.asList;
 import static java.util.Arrays.binarySearch;
+import static java.util.Collections.reverse;
 import static slash.common.io.Transfer.*;
 import static slash.common.type.CompactCalendar.*;
 import static slash.navigation.base.RouteCalculations.getSignificantPositions;
@@ -99,6 +100,8 @@ public abstract class BaseRoute<P extends BaseNavigationPosition, F extends Base
     private static final String REVERSE_ROUTE_NAME_POSTFIX = " (rev)";
     private F format;
     private RouteCharacteristics characteristics;
+    private int modificationStamp, firstModifiedIndex = Integer.MAX_VALUE;
+    private PositionColumns positionColumns;
 
     protected BaseRoute(F format, RouteCharacteristics characteristics) {
         this.format = format;
@@ -127,12 +130,62 @@ public abstract class BaseRoute<P extends BaseNavigationPosition, F extends Base
 
     public abstract int getPositionCount();
 
+    public synchronized int getModificationStamp() {
+        return modificationStamp;
+    }
+
+    /**
+     * Signals that the {@link #getPositions() positions} of this route have been modified
+     * outside of the methods of this route, e.g. by setting the coordinates of a position.
+     * Once the {@link #getPositionColumns() columnar view} has been requested, every such
+     * modification has to be signalled, otherwise the analytics of this route are stale.
+     */
+    public void modified() {
+        modified(0);
+    }
+
+    /**
+     * Signals that the {@link #getPositions() positions} of this route have been modified
+     * from the given index onward
+     *
+     * @param firstIndex the first index of the positions that have been modified
+     */
+    public synchronized void modified(int firstIndex) {
+        modificationStamp++;
+        firstModifiedIndex = min(firstModifiedIndex, max(firstIndex, 0));
+    }
+
+    /**
+     * Returns a read-only columnar view of the {@link #getPositions() positions} of this route
+     * which is built once per {@link #getModificationStamp() modification stamp}. Once requested,
+     * the analytics of this route are computed from the view. After a modification, only the
+     * positions from the first modified index onward are read again. Positions may be
+     * modified on another thread than the one that requests the view. Changes to the positions
+     * that bypass the methods of this route have to be signalled with {@link #modified()}.
+     */
+    public synchronized PositionColumns getPositionColumns() {
+        PositionColumns columns = positionColumns;
+        if (columns == null || columns.getModificationStamp() != modificationStamp || columns.size() != getPositionCount()) {
+            // without a modification stamp it is unknown where the positions have changed
+            int firstIndex = columns != null && columns.getModificationStamp() != modificationStamp ? firstModifiedIndex : 0;
+            columns = new PositionColumns(getPositions(), modificationStamp, columns, firstIndex);
+            positionColumns = columns;
+            firstModifiedIndex = Integer.MAX_VALUE;
+        }
+        return columns;
+    }
+
+    private synchronized PositionColumns getAvailablePositionColumns() {
+        return positionColumns != null ? getPositionColumns() : null;
+    }
+
     public void top(int index, int topOffset) {
         List<P> positions = getPositions();
         P move = positions.get(index);
         for (int i = index; i > topOffset; i--)
             positions.set(i, positions.get(i - 1));
         positions.set(topOffset, move);
+        modified(topOffset);
     }
 
     public void move(int firstIndex, int secondIndex) {
@@ -141,6 +194,7 @@ public abstract class BaseRoute<P extends BaseNavigationPosition, F extends Base
         P to = positions.get(secondIndex);
         positions.set(firstIndex, to);
         positions.set(secondIndex, from);
+        modified(min(firstIndex, secondIndex));
     }
 
     public void bottom(int index, int bottomOffset) {
@@ -149,30 +203,45 @@ public abstract class BaseRoute<P extends BaseNavigationPosition, F extends Base
         for (int i = index; i < getPositionCount() - 1 - bottomOffset; i++)
             positions.set(i, positions.get(i + 1));
         positions.set(getPositionCount() - 1 - bottomOffset, move);
+        modified(index);
     }
 
     public abstract void add(int index, P position);
 
     public P remove(int index) {
         List<P> positions = getPositions();
-        return positions.remove(index);
+        P result = positions.remove(index);
+        modified(index);
+        return result;
     }
 
     /**
      * Removes duplicate adjacent {@link #getPositions() positions} from this route, leaving
-     * only distinct neighbours
+     * only distinct neighbours. The kept positions are moved forward in a single pass and the
+     * remaining tail is cut off at once.
      */
     public void removeDuplicates() {
         List<P> positions = getPositions();
+        ListIterator<P> kept = positions.listIterator();
+        int keptCount = 0, firstRemovedIndex = -1, index = 0;
         P previous = null;
-        int index = 0;
-        while (index < positions.size()) {
-            P next = positions.get(index);
+        for (P next : positions) {
             if (previous != null && (!next.hasCoordinates() || toDouble(next.calculateDistance(previous)) <= 0.0)) {
-                positions.remove(index);
-            } else
-                index++;
+                if (firstRemovedIndex == -1)
+                    firstRemovedIndex = index;
+            } else {
+                kept.next();
+                if (firstRemovedIndex != -1)
+                    kept.set(next);
+                keptCount++;
+            }
             previous = next;
+            index++;
+        }
+
+        if (firstRemovedIndex != -1) {
+            positions.subList(keptCount, positions.size()).clear();
+            modified(firstRemovedIndex);
         }
     }
 
@@ -202,9 +271,14 @@ public abstract class BaseRoute<P extends BaseNavigationPosition, F extends Base
             }
             previous = next;
         }
+        modified();
     }
 
     public int[] getContainedPositions(BoundingBox boundingBox) {
+        PositionColumns columns = getAvailablePositionColumns();
+        if (columns != null)
+            return columns.getContainedPositions(boundingBox);
+
         List<Integer> result = new ArrayList<>();
         List<P> positions = getPositions();
         for (int i = 0; i < positions.size(); i++) {
@@ -232,6 +306,10 @@ public abstract class BaseRoute<P extends BaseNavigationPosition, F extends Base
     }
 
     public int[] getInsignificantPositions(double threshold) {
+        PositionColumns columns = getAvailablePositionColumns();
+        if (columns != null)
+            return columns.getInsignificantPositions(threshold);
+
         int[] significantPositions = getSignificantPositions(getPositions(), threshold);
         BitSet bitset = new BitSet(getPositionCount());
         for (int significantPosition : significantPositions)
@@ -246,6 +324,10 @@ public abstract class BaseRoute<P extends BaseNavigationPosition, F extends Base
     }
 
     public int getClosestPosition(double longitude, double latitude, double threshold) {
+        PositionColumns columns = getAvailablePositionColumns();
+        if (columns != null)
+            return columns.getClosestPosition(longitude, latitude, threshold);
+
         int closestIndex = -1;
         double closestDistance = MAX_VALUE;
 
@@ -262,6 +344,10 @@ public abstract class BaseRoute<P extends BaseNavigationPosition, F extends Base
     }
 
     public int getClosestPosition(CompactCalendar time, long threshold) {
+        PositionColumns columns = getAvailablePositionColumns();
+        if (columns != null)
+            return columns.getClosestPosition(time.getTimeInMillis(), threshold);
+
         int closestIndex = -1;
         long closestDistance = Long.MAX_VALUE;
 
@@ -295,6 +381,10 @@ public abstract class BaseRoute<P extends BaseNavigationPosition, F extends Base
     }
 
     public long getTime() {
+        PositionColumns columns = getAvailablePositionColumns();
+        if (columns != null)
+            return columns.getTime();
+
         CompactCalendar minimum = null, maximum = null;
         long totalTimeMilliSeconds = 0;
         List<P> positions = getPositions();
@@ -326,6 +416,10 @@ public abstract class BaseRoute<P extends BaseNavigationPosition, F extends Base
     }
 
     public double getDistance(int startIndex, int endIndex) {
+        PositionColumns columns = getAvailablePositionColumns();
+        if (columns != null)
+            return columns.getDistance(startIndex, endIndex);
+
         double result = 0;
         List<P> positions = getPositions();
         NavigationPosition previous = null;
@@ -342,6 +436,10 @@ public abstract class BaseRoute<P extends BaseNavigationPosition, F extends Base
     }
 
     public double[] getDistancesFromStart(int startIndex, int endIndex) {
+        PositionColumns columns = getAvailablePositionColumns();
+        if (columns != null)
+            return columns.getDistancesFromStart(startIndex, endIndex);
+
         double[] result = new double[endIndex - startIndex + 1];
         List<P> positions = getPositions();
         int index = 0;
@@ -363,6 +461,10 @@ public abstract class BaseRoute<P extends BaseNavigationPosition, F extends Base
     }
 
     public double[] getDistancesFromStart(int[] indices) {
+        PositionColumns columns = getAvailablePositionColumns();
+        if (columns != null)
+            return columns.getDistancesFromStart(indices);
+
         double[] result = new double[indices.length];
         if (indices.length > 0 && getPositionCount() > 0) {
             Arrays.sort(indices);
@@ -390,6 +492,10 @@ public abstract class BaseRoute<P extends BaseNavigationPosition, F extends Base
     }
 
     public double getDistanceDifference(int index) {
+        PositionColumns columns = getAvailablePositionColumns();
+        if (columns != null)
+            return columns.getDistanceDifference(index);
+
         List<P> positions = getPositions();
         NavigationPosition previous = index > 0 ? positions.get(index - 1) : null;
         NavigationPosition current = index < positions.size() ? positions.get(index) : null;
@@ -402,6 +508,10 @@ public abstract class BaseRoute<P extends BaseNavigationPosition, F extends Base
     }
 
     public long[] getTimesFromStart(int startIndex, int endIndex) {
+        PositionColumns columns = getAvailablePositionColumns();
+        if (columns != null)
+            return columns.getTimesFromStart(startIndex, endIndex);
+
         long[] result = new long[endIndex - startIndex + 1];
         List<P> positions = getPositions();
         int index = 0;
@@ -423,6 +533,10 @@ public abstract class BaseRoute<P extends BaseNavigationPosition, F extends Base
     }
 
     public long[] getTimesFromStart(int[] indices) {
+        PositionColumns columns = getAvailablePositionColumns();
+        if (columns != null)
+            return columns.getTimesFromStart(indices);
+
         long[] result = new long[indices.length];
         if (indices.length > 0 && getPositionCount() > 0) {
             Arrays.sort(indices);
@@ -450,6 +564,10 @@ public abstract class BaseRoute<P extends BaseNavigationPosition, F extends Base
     }
 
     public double getElevationAscend(int startIndex, int endIndex) {
+        PositionColumns columns = getAvailablePositionColumns();
+        if (columns != null)
+            return columns.getElevationAscend(startIndex, endIndex);
+
         double result = 0;
         List<P> positions = getPositions();
         NavigationPosition previous = null;
@@ -466,6 +584,10 @@ public abstract class BaseRoute<P extends BaseNavigationPosition, F extends Base
     }
 
     public double getElevationDescend(int startIndex, int endIndex) {
+        PositionColumns columns = getAvailablePositionColumns();
+        if (columns != null)
+            return columns.getElevationDescend(startIndex, endIndex);
+
         double result = 0;
         List<P> positions = getPositions();
         NavigationPosition previous = null;
@@ -482,6 +604,10 @@ public abstract class BaseRoute<P extends BaseNavigationPosition, F extends Base
     }
 
     public double getElevationDifference(int index) {
+        PositionColumns columns = getAvailablePositionColumns();
+        if (columns != null)
+            return columns.getElevationDifference(index);
+
         List<P> positions = getPositions();
         NavigationPosition previous = index > 0 ? positions.get(index - 1) : null;
         NavigationPosition current = index < positions.size() ? positions.get(index) : null;
@@ -507,14 +633,12 @@ public abstract class BaseRoute<P extends BaseNavigationPosition, F extends Base
         for (int i = 0; i < positions.size(); i++) {
             existing.set(i, positions.get(i));
         }
+        modified();
     }
 
     public void revert() {
-        List<P> positions = getPositions();
-        List<P> reverted = new ArrayList<>();
-        for (P position : positions) {
-            reverted.add(0, position);
-        }
+        List<P> reverted = new ArrayList<>(getPositions());
+        reverse(reverted);
         order(reverted);
 
         String routeName = getName();
@@ -23,10 +23,16 @@ import slash.navigation.babel.BabelFormat;
 import slash.navigation.common.NavigationPosition;
 
 import java.io.IOException;
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
+import static java.lang.invoke.MethodHandles.lookup;
+import static java.lang.invoke.MethodType.methodType;
 import static slash.common.io.Transfer.trim;
 
 /**
@@ -36,6 +42,8 @@ import static slash.common.io.Transfer.trim;
  */
 
 public class NavigationFormatConverter {
+    private static final Map<Class<?>, Map<Class<?>, MethodHandle>> conversions = new ConcurrentHashMap<>();
+
     private static String removeDigits(String string) {
         StringBuilder buffer = new StringBuilder(string);
         for (int i = 0; i < buffer.length(); i++) {
@@ -62,31 +70,55 @@ public class NavigationFormatConverter {
         return formatName;
     }
 
-    /*package local for tests*/static BaseNavigationPosition asFormat(NavigationPosition position, NavigationFormat format) throws IOException {
-        BaseNavigationPosition result;
+    private static String getPositionMethodName(NavigationFormat format) {
         String formatName = getFormatName(format);
         formatName = formatName.replace("Format", "Position");
         formatName = removeDigits(formatName);
+        return "as" + formatName;
+    }
+
+    private static String getRouteMethodName(NavigationFormat format) {
+        return "as" + getFormatName(format);
+    }
+
+    private static MethodHandle getConversion(Object object, NavigationFormat format,
+                                              Function<NavigationFormat, String> methodName) throws IOException {
+        // the as... method depends only on the classes, thus it is looked up once per pair of classes
+        Map<Class<?>, MethodHandle> formatConversions = conversions.computeIfAbsent(object.getClass(),
+                k -> new ConcurrentHashMap<>());
+        MethodHandle conversion = formatConversions.get(format.getClass());
+        if (conversion == null) {
+            String name = methodName.apply(format);
+            try {
+                Method method = object.getClass().getMethod(name);
+                conversion = lookup().unreflect(method).asType(methodType(Object.class, Object.class));
+            } catch (Exception e) {
+                throw new IOException("Cannot call " + name + "() on " + object, e);
+            }
+            formatConversions.put(format.getClass(), conversion);
+        }
+        return conversion;
+    }
+
+    private static Object convert(Object object, NavigationFormat format,
+                                  Function<NavigationFormat, String> methodName) throws IOException {
+        MethodHandle conversion = getConversion(object, format, methodName);
         try {
-            Method method = position.getClass().getMethod("as" + formatName);
-            result = (BaseNavigationPosition) method.invoke(position);
-        } catch (Exception e) {
-            throw new IOException("Cannot call as" + formatName + "() on " + position, e);
+            return conversion.invokeExact(object);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IOException("Cannot call " + methodName.apply(format) + "() on " + object, t);
         }
-        return result;
+    }
+
+    /*package local for tests*/static BaseNavigationPosition asFormat(NavigationPosition position, NavigationFormat format) throws IOException {
+        return (BaseNavigationPosition) convert(position, format, NavigationFormatConverter::getPositionMethodName);
     }
 
     @SuppressWarnings("unchecked")
     public static BaseRoute<BaseNavigationPosition, BaseNavigationFormat> asFormat(BaseRoute route, NavigationFormat format) throws IOException {
-        BaseRoute<BaseNavigationPosition, BaseNavigationFormat> result;
-        String formatName = getFormatName(format);
-        try {
-            Method method = route.getClass().getMethod("as" + formatName);
-            result = (BaseRoute<BaseNavigationPosition, BaseNavigationFormat>) method.invoke(route);
-        } catch (Exception e) {
-            throw new IOException("Cannot call as" + formatName + "() on " + route, e);
-        }
-        return result;
+        return (BaseRoute<BaseNavigationPosition, BaseNavigationFormat>) convert(route, format, NavigationFormatConverter::getRouteMethodName);
     }
 
     public static List<BaseNavigationPosition> convertPositions(List<NavigationPosition> positions, NavigationFormat format) throws IOException {
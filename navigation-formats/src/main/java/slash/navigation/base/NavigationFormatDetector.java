@@ -0,0 +1,313 @@
+/*
+    This file is part of RouteConverter.
+
+    RouteConverter is free software; you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation; either version 2 of the License, or
+    (at your option) any later version.
+
+    RouteConverter is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with RouteConverter; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+
+    Copyright (C) 2007 Christian Pesch. All Rights Reserved.
+*/
+
+package slash.navigation.base;
+
+import slash.navigation.babel.BabelFormat;
+import slash.navigation.excel.MicrosoftExcel2008Format;
+import slash.navigation.excel.MicrosoftExcel97Format;
+import slash.navigation.fit.FitFormat;
+import slash.navigation.gpx.Gpx10Format;
+import slash.navigation.gpx.Gpx11Format;
+import slash.navigation.gpx.GpxFormat;
+import slash.navigation.kml.*;
+import slash.navigation.nmea.BaseNmeaFormat;
+import slash.navigation.photo.PhotoFormat;
+import slash.navigation.tcx.Tcx1Format;
+import slash.navigation.tcx.Tcx2Format;
+import slash.navigation.tcx.TcxFormat;
+import slash.navigation.zip.ZipFormat;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static javax.xml.stream.XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES;
+import static javax.xml.stream.XMLInputFactory.SUPPORT_DTD;
+import static javax.xml.stream.XMLStreamConstants.START_ELEMENT;
+import static slash.navigation.gpx.GpxUtil.GPX_10_NAMESPACE_URI;
+import static slash.navigation.gpx.GpxUtil.GPX_11_NAMESPACE_URI;
+import static slash.navigation.kml.KmlUtil.*;
+import static slash.navigation.tcx.TcxUtil.TCX_1_NAMESPACE_URI;
+import static slash.navigation.tcx.TcxUtil.TCX_2_NAMESPACE_URI;
+
+/**
+ * Ranks {@link NavigationFormat}s by the magic bytes, the XML root element and
+ * the extension of a byte stream to parse the plausible candidates first.
+ *
+ * Formats keep their order and are only moved to the end of the list if their
+ * signature cannot match the stream, so that they are still tried as a fallback.
+ * {@link BabelFormat}s start an external process and are therefore tried in order
+ * only if their extension or signature matches and last otherwise.
+ *
+ * @author Christian Pesch
+ */
+
+public class NavigationFormatDetector {
+    private static final Logger log = Logger.getLogger(NavigationFormatDetector.class.getName());
+    // stays below the default buffer size of BufferedInputStream to keep the mark() valid
+    static final int HEADER_SIZE = 4 * 1024;
+
+    private static final byte[] ZIP_MAGIC = {'P', 'K', 3, 4};
+    private static final byte[] OLE2_MAGIC = {(byte) 0xD0, (byte) 0xCF, 0x11, (byte) 0xE0, (byte) 0xA1, (byte) 0xB1, 0x1A, (byte) 0xE1};
+    private static final byte[] FIT_MAGIC = {'.', 'F', 'I', 'T'};
+    private static final int FIT_MAGIC_OFFSET = 8;
+    private static final byte[] JPEG_MAGIC = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF};
+    private static final byte[] UTF8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+    private static final byte[] UTF16BE_BOM = {(byte) 0xFE, (byte) 0xFF};
+    private static final byte[] UTF16LE_BOM = {(byte) 0xFF, (byte) 0xFE};
+
+    enum Plausibility {
+        Likely, Possible, Unlikely
+    }
+
+    private final byte[] header;
+    private final int length;
+    private final String extension;
+    private final boolean xml, xmlUndetermined;
+    private final QName rootElement;
+
+    NavigationFormatDetector(byte[] header, int length, String extension) {
+        this.header = header;
+        this.length = length;
+        this.extension = extension;
+        this.xmlUndetermined = startsWith(UTF16BE_BOM, 0) || startsWith(UTF16LE_BOM, 0);
+        boolean startsWithAngleBracket = startsWithAngleBracket();
+        this.rootElement = startsWithAngleBracket || xmlUndetermined ? parseRootElement() : null;
+        this.xml = startsWithAngleBracket || rootElement != null;
+    }
+
+    /**
+     * Reads the header of the given stream and resets it to its mark.
+     *
+     * @param buffer    a marked {@link InputStream}
+     * @param extension the extension of the file name or null if unknown
+     * @return a detector for the header of the stream
+     * @throws IOException if the stream cannot be read or reset
+     */
+    public static NavigationFormatDetector detect(InputStream buffer, String extension) throws IOException {
+        byte[] header = new byte[HEADER_SIZE];
+        int length = 0;
+        while (length < header.length) {
+            int count = buffer.read(header, length, header.length - length);
+            if (count < 0)
+                break;
+            length += count;
+        }
+        buffer.reset();
+        return new NavigationFormatDetector(header, length, extension);
+    }
+
+    private boolean startsWith(byte[] magic, int offset) {
+        if (length < offset + magic.length)
+            return false;
+        for (int i = 0; i < magic.length; i++) {
+            if (header[offset + i] != magic[i])
+                return false;
+        }
+        return true;
+    }
+
+    private boolean startsWithAngleBracket() {
+        int index = startsWith(UTF8_BOM, 0) ? UTF8_BOM.length : 0;
+        while (index < length && Character.isWhitespace(header[index]))
+            index++;
+        return index < length && header[index] == '<';
+    }
+
+    private boolean startsWithDollar() {
+        int index = 0;
+        while (index < length && Character.isWhitespace(header[index]))
+            index++;
+        return index < length && header[index] == '$';
+    }
+
+    private QName parseRootElement() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(SUPPORT_DTD, false);
+        factory.setProperty(IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        try {
+            XMLStreamReader reader = factory.createXMLStreamReader(new ByteArrayInputStream(header, 0, length));
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() == START_ELEMENT)
+                        return reader.getName();
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException | RuntimeException e) {
+            log.fine(format("Cannot determine XML root element: %s", e));
+        }
+        return null;
+    }
+
+    boolean isXml() {
+        return xml;
+    }
+
+    QName getRootElement() {
+        return rootElement;
+    }
+
+    private static String getRootElementName(NavigationFormat format) {
+        if (format instanceof GpxFormat)
+            return "gpx";
+        if (format instanceof KmlFormat)
+            return "kml";
+        if (format instanceof TcxFormat)
+            return "TrainingCenterDatabase";
+        return null;
+    }
+
+    private static String getNamespaceUri(NavigationFormat format) {
+        if (format instanceof Gpx10Format)
+            return GPX_10_NAMESPACE_URI;
+        if (format instanceof Gpx11Format)
+            return GPX_11_NAMESPACE_URI;
+        if (format instanceof Kml20Format)
+            return KML_20_NAMESPACE_URI;
+        if (format instanceof Kml21Format)
+            return KML_21_NAMESPACE_URI;
+        if (format instanceof Kml22BetaFormat)
+            return KML_22_BETA_NAMESPACE_URI;
+        if (format instanceof Kml22Format)
+            return KML_22_NAMESPACE_URI;
+        if (format instanceof Tcx1Format)
+            return TCX_1_NAMESPACE_URI;
+        if (format instanceof Tcx2Format)
+            return TCX_2_NAMESPACE_URI;
+        return null;
+    }
+
+    private static boolean isZipBased(NavigationFormat format) {
+        return format instanceof ZipFormat || format instanceof KmzFormat || format instanceof MicrosoftExcel2008Format;
+    }
+
+    private Plausibility getXmlPlausibility(NavigationFormat format) {
+        if (xmlUndetermined)
+            return Plausibility.Possible;
+        if (!xml)
+            return Plausibility.Unlikely;
+
+        String rootElementName = getRootElementName(format);
+        if (rootElement == null || rootElementName == null)
+            return Plausibility.Possible;
+        if (!rootElementName.equals(rootElement.getLocalPart()))
+            return Plausibility.Unlikely;
+        return rootElement.getNamespaceURI().equals(getNamespaceUri(format)) ? Plausibility.Likely : Plausibility.Possible;
+    }
+
+    Plausibility getPlausibility(NavigationFormat format) {
+        // garbled data is expected to violate signatures
+        if (format instanceof GarbleNavigationFormat || length == 0)
+            return Plausibility.Possible;
+
+        if (isZipBased(format))
+            return startsWith(ZIP_MAGIC, 0) ? Plausibility.Likely : Plausibility.Unlikely;
+        if (format instanceof MicrosoftExcel97Format)
+            return startsWith(OLE2_MAGIC, 0) ? Plausibility.Likely : Plausibility.Unlikely;
+        if (format instanceof FitFormat)
+            return startsWith(FIT_MAGIC, FIT_MAGIC_OFFSET) ? Plausibility.Likely : Plausibility.Unlikely;
+        if (format instanceof XmlNavigationFormat)
+            return getXmlPlausibility(format);
+
+        if (format instanceof PhotoFormat && startsWith(JPEG_MAGIC, 0) ||
+                format instanceof BaseNmeaFormat && startsWithDollar())
+            return Plausibility.Likely;
+        return Plausibility.Possible;
+    }
+
+    private boolean hasExtension(NavigationFormat format) {
+        return extension != null && extension.equals(format.getExtension());
+    }
+
+    private boolean hasSignature(BabelFormat format) {
+        String signature = format.getSignature();
+        return signature != null && startsWith(signature.getBytes(ISO_8859_1), 0);
+    }
+
+    boolean isBabelCandidate(BabelFormat format) {
+        // without an extension there is nothing to rule out formats without signature
+        return extension == null || extension.isEmpty() || hasExtension(format) || hasSignature(format);
+    }
+
+    /**
+     * Sorts the given formats by their plausibility for the header: the first, preferred format stays
+     * first, followed by the formats whose signature may match in the order of the given list and
+     * the formats whose signature doesn't match. {@link BabelFormat}s whose extension or signature
+     * matches count as plausible, the other candidates follow as a last group.
+     *
+     * @param formats the formats to sort
+     * @return the formats sorted by plausibility
+     */
+    public List<NavigationFormat> sortByPlausibility(List<NavigationFormat> formats) {
+        List<NavigationFormat> plausible = new ArrayList<>();
+        List<NavigationFormat> unlikely = new ArrayList<>();
+        List<NavigationFormat> babel = new ArrayList<>();
+        int likely = 0, skippedBabel = 0;
+        for (NavigationFormat format : formats) {
+            if (format == formats.get(0)) {
+                plausible.add(format);
+                continue;
+            }
+
+            if (format instanceof BabelFormat) {
+                BabelFormat babelFormat = (BabelFormat) format;
+                if (hasExtension(babelFormat) || hasSignature(babelFormat))
+                    plausible.add(format);
+                else if (isBabelCandidate(babelFormat))
+                    babel.add(format);
+                else
+                    skippedBabel++;
+                continue;
+            }
+
+            switch (getPlausibility(format)) {
+                case Likely:
+                    likely++;
+                    plausible.add(format);
+                    break;
+                case Possible:
+                    plausible.add(format);
+                    break;
+                default:
+                    unlikely.add(format);
+            }
+        }
+
+        List<NavigationFormat> result = new ArrayList<>(formats.size());
+        result.addAll(plausible);
+        result.addAll(unlikely);
+        result.addAll(babel);
+        log.fine(format("Detected %d plausible formats with %d likely, %d unlikely and %d GPSBabel formats, skipped %d GPSBabel formats",
+                plausible.size(), likely, unlikely.size(), babel.size(), skippedBabel));
+        return result;
+    }
+}
@@ -48,6 +48,7 @@ import java.util.logging.Logger;
 import static java.io.File.separatorChar;
 import static java.lang.Math.min;
 import static java.lang.String.format;
+import static slash.common.io.Files.getExtension;
 import static slash.common.io.Transfer.ceiling;
 import static slash.common.type.CompactCalendar.UTC;
 import static slash.common.type.CompactCalendar.fromCalendar;
@@ -102,20 +103,21 @@ public class NavigationFormatParser {
     }
 
     @SuppressWarnings("unchecked")
-    private void internalRead(InputStream buffer, List<NavigationFormat> formats, ParserContext context) throws IOException {
+    private void internalRead(InputStream buffer, List<NavigationFormat> formats, String extension, ParserContext context) throws IOException {
         int routeCountBefore = context.getRoutes().size();
         NavigationFormat firstSuccessfulFormat = null;
 
         try {
-            for (NavigationFormat<BaseRoute> format : formats) {
+            NavigationFormatDetector detector = NavigationFormatDetector.detect(buffer, extension);
+            for (NavigationFormat<BaseRoute> format : detector.sortByPlausibility(formats)) {
                 notifyReading(format);
 
                 log.fine(format("Trying to read with %s", format));
                 try {
                     format.read(buffer, context);
 
-                    // if no route has been read, take the first that didn't throw an exception
-                    if (firstSuccessfulFormat == null)
+                    // if no route has been read, take the first in the given order that didn't throw an exception
+                    if (firstSuccessfulFormat == null || formats.indexOf(format) < formats.indexOf(firstSuccessfulFormat))
                         firstSuccessfulFormat = format;
                 } catch (Exception e) {
                     log.severe(format("Error reading with %s: %s, %s", format, e.getClass(), e));
@@ -185,6 +187,7 @@ public class NavigationFormatParser {
     @SuppressWarnings("unchecked")
     private void commentRoute(BaseRoute route) {
         commentPositions(route.getPositions());
+        route.modified();
         commentRouteName(route);
     }
 
@@ -212,7 +215,7 @@ public class NavigationFormatParser {
 
         public void parse(InputStream inputStream, CompactCalendar startDate, String preferredExtension) throws IOException {
             internalSetStartDate(startDate);
-            internalRead(inputStream, getNavigationFormatRegistry().getReadFormatsPreferredByExtension(preferredExtension), this);
+            internalRead(inputStream, getNavigationFormatRegistry().getReadFormatsPreferredByExtension(preferredExtension), preferredExtension, this);
         }
 
         public void parse(String urlString) throws IOException {
@@ -226,7 +229,7 @@ public class NavigationFormatParser {
             try {
                 CompactCalendar startDate = extractStartDate(url);
                 internalSetStartDate(startDate);
-                internalRead(buffer, getNavigationFormatRegistry().getReadFormats(), this);
+                internalRead(buffer, getNavigationFormatRegistry().getReadFormats(), getExtension(url.getPath()), this);
             } finally {
                 //noinspection ThrowFromFinallyBlock
                 buffer.closeUnderlyingInputStream();
@@ -241,7 +244,7 @@ public class NavigationFormatParser {
         buffer.mark(readBufferSize + 1);
         try {
             ParserContext<BaseRoute> context = new InternalParserContext<>(file, startDate);
-            internalRead(buffer, formats, context);
+            internalRead(buffer, formats, file != null ? getExtension(file) : null, context);
             return createResult(context);
         } finally {
             //noinspection ThrowFromFinallyBlock
@@ -0,0 +1,446 @@
+/*
+    This file is part of RouteConverter.
+
+    RouteConverter is free software; you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation; either version 2 of the License, or
+    (at your option) any later version.
+
+    RouteConverter is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with RouteConverter; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+
+    Copyright (C) 2007 Christian Pesch. All Rights Reserved.
+*/
+
+package slash.navigation.base;
+
+import slash.common.type.CompactCalendar;
+import slash.navigation.common.BoundingBox;
+
+import java.util.List;
+
+import static java.lang.Double.MAX_VALUE;
+import static java.lang.Double.NaN;
+import static java.lang.Double.isNaN;
+import static java.lang.Math.abs;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.System.arraycopy;
+import static java.util.Arrays.copyOf;
+import static java.util.Arrays.copyOfRange;
+import static java.util.Arrays.sort;
+import static slash.navigation.common.Bearing.calculateBearing;
+
+/**
+ * A read-only columnar view of the {@link BaseNavigationPosition}s of a {@link BaseRoute}
+ * at a given modification stamp.
+ *
+ * Missing longitudes, latitudes, elevations and speeds are stored as {@link Double#NaN},
+ * missing times as {@link #NO_TIME}. The analytics return the same results as the
+ * corresponding methods of {@link BaseRoute} that work on the positions.
+ *
+ * The distance, elapsed time, ascent and descent from the first position are summed up
+ * for every position, which answers range queries in constant time. A view for a modified
+ * route copies the columns and sums of the positions before the first modified index.
+ * Closest position and bounding box queries on many positions use a {@link PositionGrid}
+ * which is built on the first query. Closest time queries use a binary search as long as
+ * the times of the positions are in order. The Douglas-Peucker significance of the positions
+ * is calculated once and then filtered for every threshold.
+ *
+ * @author Christian Pesch
+ */
+
+public class PositionColumns {
+    public static final long NO_TIME = Long.MIN_VALUE;
+    private static final int MINIMUM_POSITIONS_FOR_GRID = 256;
+    private static final int[] OUT_OF_ORDER = new int[0];
+
+    private final int modificationStamp;
+    private final double[] longitudes, latitudes, elevations;
+    private final long[] times;
+    private final float[] speeds;
+    private final double[] distancesFromStart, ascendsFromStart, descendsFromStart;
+    private final long[] timesFromStart;
+    // built on demand and published safely since views are shared between threads
+    private volatile PositionGrid grid;
+    private volatile int[] timeIndices;
+    private volatile double[] significances;
+
+    PositionColumns(List<? extends BaseNavigationPosition> positions, int modificationStamp) {
+        this(positions, modificationStamp, null, 0);
+    }
+
+    PositionColumns(List<? extends BaseNavigationPosition> positions, int modificationStamp,
+                    PositionColumns previous, int firstModifiedIndex) {
+        this.modificationStamp = modificationStamp;
+        int size = positions.size();
+        longitudes = new double[size];
+        latitudes = new double[size];
+        elevations = new double[size];
+        times = new long[size];
+        speeds = new float[size];
+        distancesFromStart = new double[size];
+        timesFromStart = new long[size];
+        ascendsFromStart = new double[size];
+        descendsFromStart = new double[size];
+
+        int unmodified = previous != null ? max(0, min(firstModifiedIndex, min(previous.size(), size))) : 0;
+        if (unmodified > 0) {
+            arraycopy(previous.longitudes, 0, longitudes, 0, unmodified);
+            arraycopy(previous.latitudes, 0, latitudes, 0, unmodified);
+            arraycopy(previous.elevations, 0, elevations, 0, unmodified);
+            arraycopy(previous.times, 0, times, 0, unmodified);
+            arraycopy(previous.speeds, 0, speeds, 0, unmodified);
+            arraycopy(previous.distancesFromStart, 0, distancesFromStart, 0, unmodified);
+            arraycopy(previous.timesFromStart, 0, timesFromStart, 0, unmodified);
+            arraycopy(previous.ascendsFromStart, 0, ascendsFromStart, 0, unmodified);
+            arraycopy(previous.descendsFromStart, 0, descendsFromStart, 0, unmodified);
+        }
+
+        for (int i = unmodified; i < size; i++) {
+            BaseNavigationPosition position = positions.get(i);
+            Double longitude = position.getLongitude();
+            Double latitude = position.getLatitude();
+            boolean hasCoordinates = longitude != null && latitude != null;
+            longitudes[i] = hasCoordinates ? longitude : NaN;
+            latitudes[i] = hasCoordinates ? latitude : NaN;
+            Double elevation = position.getElevation();
+            elevations[i] = elevation != null ? elevation : NaN;
+            CompactCalendar time = position.getTime();
+            times[i] = time != null ? time.getTimeInMillis() : NO_TIME;
+            Double speed = position.getSpeed();
+            speeds[i] = speed != null ? speed.floatValue() : Float.NaN;
+            sumUp(i);
+        }
+    }
+
+    private void sumUp(int index) {
+        if (index == 0)
+            return;
+
+        double distance = calculateDistance(index - 1, index);
+        distancesFromStart[index] = distancesFromStart[index - 1] + (!isNaN(distance) ? distance : 0.0);
+
+        long time = hasTime(index - 1) && hasTime(index) ? times[index] - times[index - 1] : 0L;
+        timesFromStart[index] = timesFromStart[index - 1] + time;
+
+        double elevation = calculateElevation(index - 1, index);
+        ascendsFromStart[index] = ascendsFromStart[index - 1] + (elevation > 0 ? elevation : 0.0);
+        descendsFromStart[index] = descendsFromStart[index - 1] + (elevation < 0 ? abs(elevation) : 0.0);
+    }
+
+    public int getModificationStamp() {
+        return modificationStamp;
+    }
+
+    public int size() {
+        return longitudes.length;
+    }
+
+    public double getLongitude(int index) {
+        return longitudes[index];
+    }
+
+    public double getLatitude(int index) {
+        return latitudes[index];
+    }
+
+    public double getElevation(int index) {
+        return elevations[index];
+    }
+
+    public long getTime(int index) {
+        return times[index];
+    }
+
+    public float getSpeed(int index) {
+        return speeds[index];
+    }
+
+    public boolean hasCoordinates(int index) {
+        return !isNaN(longitudes[index]);
+    }
+
+    public boolean hasElevation(int index) {
+        return !isNaN(elevations[index]);
+    }
+
+    public boolean hasTime(int index) {
+        return times[index] != NO_TIME;
+    }
+
+    /**
+     * Calculates the distance like {@link BaseNavigationPosition#calculateDistance(double, double)}
+     *
+     * @return the distance in meters or {@link Double#NaN} if there are no coordinates
+     */
+    public double calculateDistance(int index, double longitude, double latitude) {
+        if (!hasCoordinates(index))
+            return NaN;
+        return calculateBearing(longitudes[index], latitudes[index], longitude, latitude).getDistance();
+    }
+
+    /**
+     * Calculates the distance like {@link BaseNavigationPosition#calculateDistance(slash.navigation.common.NavigationPosition)}
+     *
+     * @return the distance in meters or {@link Double#NaN} if one of the positions has no coordinates
+     */
+    public double calculateDistance(int fromIndex, int toIndex) {
+        if (!hasCoordinates(toIndex))
+            return NaN;
+        return calculateDistance(fromIndex, longitudes[toIndex], latitudes[toIndex]);
+    }
+
+    /**
+     * Calculates the elevation difference like {@link BaseNavigationPosition#calculateElevation}
+     *
+     * @return the elevation difference in meters or {@link Double#NaN} if one of the positions has no elevation
+     */
+    public double calculateElevation(int fromIndex, int toIndex) {
+        return elevations[toIndex] - elevations[fromIndex];
+    }
+
+    private PositionGrid getGrid() {
+        PositionGrid result = grid;
+        if (result == null) {
+            result = new PositionGrid(this);
+            grid = result;
+        }
+        return result;
+    }
+
+    public int[] getContainedPositions(BoundingBox boundingBox) {
+        if (size() >= MINIMUM_POSITIONS_FOR_GRID)
+            return getGrid().getContainedPositions(boundingBox);
+        return scanContainedPositions(boundingBox);
+    }
+
+    int[] scanContainedPositions(BoundingBox boundingBox) {
+        int[] result = new int[size()];
+        int count = 0;
+        for (int i = 0; i < size(); i++) {
+            if (hasCoordinates(i) && boundingBox.contains(longitudes[i], latitudes[i]))
+                result[count++] = i;
+        }
+        return copyOf(result, count);
+    }
+
+    public int getClosestPosition(double longitude, double latitude, double threshold) {
+        if (size() >= MINIMUM_POSITIONS_FOR_GRID)
+            return getGrid().getClosestPosition(longitude, latitude, threshold);
+        return scanClosestPosition(longitude, latitude, threshold);
+    }
+
+    int scanClosestPosition(double longitude, double latitude, double threshold) {
+        int closestIndex = -1;
+        double closestDistance = MAX_VALUE;
+        for (int i = 0; i < size(); ++i) {
+            double distance = calculateDistance(i, longitude, latitude);
+            if (distance < closestDistance && distance <= threshold) {
+                closestDistance = distance;
+                closestIndex = i;
+            }
+        }
+        return closestIndex;
+    }
+
+    private double[] getSignificances() {
+        double[] result = significances;
+        if (result == null) {
+            result = RouteCalculations.getSignificances(longitudes, latitudes);
+            significances = result;
+        }
+        return result;
+    }
+
+    public int[] getSignificantPositions(double threshold) {
+        return RouteCalculations.getSignificantPositions(getSignificances(), threshold);
+    }
+
+    public int[] getInsignificantPositions(double threshold) {
+        int[] significantPositions = getSignificantPositions(threshold);
+        int[] result = new int[size() - significantPositions.length];
+        int count = 0, next = 0;
+        for (int i = 0; i < size(); i++) {
+            if (next < significantPositions.length && significantPositions[next] == i)
+                next++;
+            else
+                result[count++] = i;
+        }
+        return result;
+    }
+
+    private int[] getTimeIndices() {
+        int[] result = timeIndices;
+        if (result == null) {
+            int[] indices = new int[size()];
+            int count = 0;
+            for (int i = 0; i < size(); i++) {
+                if (!hasTime(i))
+                    continue;
+                if (count > 0 && times[i] < times[indices[count - 1]]) {
+                    indices = OUT_OF_ORDER;
+                    break;
+                }
+                indices[count++] = i;
+            }
+            result = indices != OUT_OF_ORDER ? copyOf(indices, count) : OUT_OF_ORDER;
+            timeIndices = result;
+        }
+        return result;
+    }
+
+    /**
+     * @return the first index of the time indices whose time is not before the given time
+     */
+    private int findFirstNotBefore(int[] indices, long timeInMillis) {
+        int low = 0, high = indices.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (times[indices[middle]] < timeInMillis)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    }
+
+    public int getClosestPosition(long timeInMillis, long threshold) {
+        int[] indices = getTimeIndices();
+        if (indices == OUT_OF_ORDER)
+            return scanClosestPosition(timeInMillis, threshold);
+
+        int closestIndex = -1;
+        long closestDistance = Long.MAX_VALUE;
+        int after = findFirstNotBefore(indices, timeInMillis);
+        if (after > 0) {
+            // the first of the positions with the latest time before
+            long before = times[indices[after - 1]];
+            closestIndex = indices[findFirstNotBefore(indices, before)];
+            closestDistance = timeInMillis - before;
+        }
+        if (after < indices.length) {
+            long distance = times[indices[after]] - timeInMillis;
+            if (distance < closestDistance) {
+                closestIndex = indices[after];
+                closestDistance = distance;
+            }
+        }
+        return closestDistance <= threshold ? closestIndex : -1;
+    }
+
+    int scanClosestPosition(long timeInMillis, long threshold) {
+        int closestIndex = -1;
+        long closestDistance = Long.MAX_VALUE;
+        for (int i = 0; i < size(); ++i) {
+            if (!hasTime(i))
+                continue;
+
+            long distance = abs(times[i] - timeInMillis);
+            if (distance < closestDistance && distance <= threshold) {
+                closestDistance = distance;
+                closestIndex = i;
+            }
+        }
+        return closestIndex;
+    }
+
+    public long getTime() {
+        long minimum = NO_TIME, maximum = NO_TIME, previous = NO_TIME;
+        long totalTimeMilliSeconds = 0;
+        for (long time : times) {
+            if (time == NO_TIME)
+                continue;
+
+            if (previous != NO_TIME && time - previous > 0)
+                totalTimeMilliSeconds += time - previous;
+            if (minimum == NO_TIME || time < minimum)
+                minimum = time;
+            if (maximum == NO_TIME || time > maximum)
+                maximum = time;
+            previous = time;
+        }
+
+        long maxMinusMin = minimum != NO_TIME ? maximum - minimum : 0;
+        return max(maxMinusMin, totalTimeMilliSeconds);
+    }
+
+    public double getDistance(int startIndex, int endIndex) {
+        if (endIndex <= startIndex)
+            return 0.0;
+        return distancesFromStart[endIndex] - distancesFromStart[startIndex];
+    }
+
+    private void checkEndIndex(int endIndex) {
+        if (endIndex >= size())
+            throw new IndexOutOfBoundsException("Index: " + endIndex + ", Size: " + size());
+    }
+
+    public double[] getDistancesFromStart(int startIndex, int endIndex) {
+        checkEndIndex(endIndex);
+        return copyOfRange(distancesFromStart, startIndex, endIndex + 1);
+    }
+
+    public double[] getDistancesFromStart(int[] indices) {
+        double[] result = new double[indices.length];
+        sort(indices);
+        for (int i = 0; i < indices.length; i++) {
+            int index = indices[i];
+            if (index >= 0 && index < size())
+                result[i] = distancesFromStart[index];
+        }
+        return result;
+    }
+
+    public double getDistanceDifference(int index) {
+        if (index > 0 && index < size()) {
+            double distance = calculateDistance(index - 1, index);
+            if (!isNaN(distance))
+                return distance;
+        }
+        return 0;
+    }
+
+    public long[] getTimesFromStart(int startIndex, int endIndex) {
+        checkEndIndex(endIndex);
+        return copyOfRange(timesFromStart, startIndex, endIndex + 1);
+    }
+
+    public long[] getTimesFromStart(int[] indices) {
+        long[] result = new long[indices.length];
+        sort(indices);
+        for (int i = 0; i < indices.length; i++) {
+            int index = indices[i];
+            if (index >= 0 && index < size())
+                result[i] = timesFromStart[index];
+        }
+        return result;
+    }
+
+    public double getElevationAscend(int startIndex, int endIndex) {
+        if (endIndex <= startIndex)
+            return 0.0;
+        return ascendsFromStart[endIndex] - ascendsFromStart[startIndex];
+    }
+
+    public double getElevationDescend(int startIndex, int endIndex) {
+        if (endIndex <= startIndex)
+            return 0.0;
+        return descendsFromStart[endIndex] - descendsFromStart[startIndex];
+    }
+
+    public double getElevationDifference(int index) {
+        if (index > 0 && index < size()) {
+            double elevation = calculateElevation(index - 1, index);
+            if (!isNaN(elevation))
+                return elevation;
+        }
+        return 0;
+    }
+}
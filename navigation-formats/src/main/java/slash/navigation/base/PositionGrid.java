@@ -0,0 +1,183 @@
+/*
+    This file is part of RouteConverter.
+
+    RouteConverter is free software; you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation; either version 2 of the License, or
+    (at your option) any later version.
+
+    RouteConverter is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with RouteConverter; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+
+    Copyright (C) 2007 Christian Pesch. All Rights Reserved.
+*/
+
+package slash.navigation.base;
+
+import slash.navigation.common.BoundingBox;
+
+import static java.lang.Double.MAX_VALUE;
+import static java.lang.Double.isNaN;
+import static java.lang.Math.*;
+import static java.util.Arrays.copyOf;
+import static java.util.Arrays.sort;
+
+/**
+ * A uniform grid over the coordinates of {@link PositionColumns} that answers
+ * closest position and bounding box queries without visiting every position.
+ *
+ * The cells store the indices of their positions in ascending order and the queries
+ * check the candidates with the same distance calculation as the linear scan, thus
+ * the results are identical.
+ *
+ * @author Christian Pesch
+ */
+
+class PositionGrid {
+    private static final int POSITIONS_PER_CELL = 8;
+    /**
+     * Lower bounds for the meters per degree of latitude and of longitude at the equator
+     * on the WGS-84 ellipsoid, reduced a little for the millimeter rounding of the distance
+     */
+    private static final double MINIMUM_METERS_PER_DEGREE_LATITUDE = 110000.0;
+    private static final double MINIMUM_METERS_PER_DEGREE_LONGITUDE_AT_EQUATOR = 111000.0;
+    private static final double MAXIMUM_LATITUDE_FOR_GRID = 89.0;
+
+    private final PositionColumns columns;
+    private final double minimumLongitude, minimumLatitude, maximumLongitude, maximumLatitude, cellWidth, cellHeight;
+    private final int columnCount, rowCount;
+    private final int[] cellStarts, cellIndices;
+
+    PositionGrid(PositionColumns columns) {
+        this.columns = columns;
+
+        double minimumLongitude = MAX_VALUE, minimumLatitude = MAX_VALUE;
+        double maximumLongitude = -MAX_VALUE, maximumLatitude = -MAX_VALUE;
+        int count = 0;
+        for (int i = 0; i < columns.size(); i++) {
+            if (!columns.hasCoordinates(i))
+                continue;
+            minimumLongitude = min(minimumLongitude, columns.getLongitude(i));
+            maximumLongitude = max(maximumLongitude, columns.getLongitude(i));
+            minimumLatitude = min(minimumLatitude, columns.getLatitude(i));
+            maximumLatitude = max(maximumLatitude, columns.getLatitude(i));
+            count++;
+        }
+        this.minimumLongitude = minimumLongitude;
+        this.minimumLatitude = minimumLatitude;
+        this.maximumLongitude = maximumLongitude;
+        this.maximumLatitude = maximumLatitude;
+
+        int side = max(1, (int) sqrt(count / POSITIONS_PER_CELL));
+        this.columnCount = side;
+        this.rowCount = side;
+        this.cellWidth = count > 0 ? max((maximumLongitude - minimumLongitude) / side, Double.MIN_NORMAL) : 1.0;
+        this.cellHeight = count > 0 ? max((maximumLatitude - minimumLatitude) / side, Double.MIN_NORMAL) : 1.0;
+
+        // counting sort of the indices by cell keeps them ascending within each cell
+        int[] cells = new int[columns.size()];
+        cellStarts = new int[columnCount * rowCount + 1];
+        for (int i = 0; i < columns.size(); i++) {
+            if (!columns.hasCoordinates(i)) {
+                cells[i] = -1;
+                continue;
+            }
+            cells[i] = getCell(getColumn(columns.getLongitude(i)), getRow(columns.getLatitude(i)));
+            cellStarts[cells[i] + 1]++;
+        }
+        for (int i = 0; i < columnCount * rowCount; i++)
+            cellStarts[i + 1] += cellStarts[i];
+
+        cellIndices = new int[count];
+        int[] next = copyOf(cellStarts, cellStarts.length - 1);
+        for (int i = 0; i < columns.size(); i++) {
+            if (cells[i] != -1)
+                cellIndices[next[cells[i]]++] = i;
+        }
+    }
+
+    private int getColumn(double longitude) {
+        return max(0, min(columnCount - 1, (int) floor((longitude - minimumLongitude) / cellWidth)));
+    }
+
+    private int getRow(double latitude) {
+        return max(0, min(rowCount - 1, (int) floor((latitude - minimumLatitude) / cellHeight)));
+    }
+
+    private int getCell(int column, int row) {
+        return row * columnCount + column;
+    }
+
+    public int getClosestPosition(double longitude, double latitude, double threshold) {
+        // every path of the given length stays within these degrees of the position
+        double latitudeDelta = threshold / MINIMUM_METERS_PER_DEGREE_LATITUDE;
+        double poleward = abs(latitude) + latitudeDelta;
+        if (isNaN(latitudeDelta) || poleward >= MAXIMUM_LATITUDE_FOR_GRID)
+            return columns.scanClosestPosition(longitude, latitude, threshold);
+        double longitudeDelta = threshold / (MINIMUM_METERS_PER_DEGREE_LONGITUDE_AT_EQUATOR * cos(toRadians(poleward)));
+        if (longitude - longitudeDelta < -180.0 || longitude + longitudeDelta > 180.0)
+            return columns.scanClosestPosition(longitude, latitude, threshold);
+
+        int closestIndex = -1;
+        double closestDistance = MAX_VALUE;
+        int[] range = getCellRange(longitude - longitudeDelta, latitude - latitudeDelta,
+                longitude + longitudeDelta, latitude + latitudeDelta);
+        if (range == null)
+            return closestIndex;
+
+        for (int row = range[1]; row <= range[3]; row++) {
+            for (int column = range[0]; column <= range[2]; column++) {
+                int cell = getCell(column, row);
+                for (int i = cellStarts[cell]; i < cellStarts[cell + 1]; i++) {
+                    int index = cellIndices[i];
+                    double distance = columns.calculateDistance(index, longitude, latitude);
+                    // the linear scan prefers the first of equally distant positions
+                    if (distance <= threshold && (distance < closestDistance ||
+                            distance == closestDistance && index < closestIndex)) {
+                        closestDistance = distance;
+                        closestIndex = index;
+                    }
+                }
+            }
+        }
+        return closestIndex;
+    }
+
+    public int[] getContainedPositions(BoundingBox boundingBox) {
+        int[] range = getCellRange(boundingBox.getSouthWest().getLongitude(), boundingBox.getSouthWest().getLatitude(),
+                boundingBox.getNorthEast().getLongitude(), boundingBox.getNorthEast().getLatitude());
+        if (range == null)
+            return new int[0];
+
+        int[] result = new int[cellIndices.length];
+        int count = 0;
+        for (int row = range[1]; row <= range[3]; row++) {
+            for (int column = range[0]; column <= range[2]; column++) {
+                int cell = getCell(column, row);
+                for (int i = cellStarts[cell]; i < cellStarts[cell + 1]; i++) {
+                    int index = cellIndices[i];
+                    if (boundingBox.contains(columns.getLongitude(index), columns.getLatitude(index)))
+                        result[count++] = index;
+                }
+            }
+        }
+        result = copyOf(result, count);
+        sort(result);
+        return result;
+    }
+
+    private int[] getCellRange(double westLongitude, double southLatitude, double eastLongitude, double northLatitude) {
+        if (cellIndices.length == 0 || !(westLongitude <= eastLongitude) || !(southLatitude <= northLatitude))
+            return null;
+        if (eastLongitude < minimumLongitude || westLongitude > maximumLongitude ||
+                northLatitude < minimumLatitude || southLatitude > maximumLatitude)
+            return null;
+        return new int[]{getColumn(westLongitude), getRow(southLatitude), getColumn(eastLongitude), getRow(northLatitude)};
+    }
+}
@@ -21,14 +21,21 @@
 package slash.navigation.base;
 
 import slash.common.type.CompactCalendar;
+import slash.navigation.common.Bearing;
 import slash.navigation.common.NavigationPosition;
 
 import java.util.List;
 
-import static java.lang.Math.abs;
-import static java.lang.System.arraycopy;
+import static java.lang.Double.NEGATIVE_INFINITY;
+import static java.lang.Double.NaN;
+import static java.lang.Double.POSITIVE_INFINITY;
+import static java.lang.Double.isNaN;
+import static java.lang.Math.*;
+import static java.util.Arrays.copyOf;
 import static slash.common.io.Transfer.isEmpty;
 import static slash.common.type.CompactCalendar.fromMillis;
+import static slash.navigation.common.Bearing.EARTH_RADIUS;
+import static slash.navigation.common.Bearing.calculateBearing;
 
 /**
  * Provides {@link NavigationPosition} calculation functionality.
@@ -37,38 +44,75 @@ import static slash.common.type.CompactCalendar.fromMillis;
  */
 
 public class RouteCalculations {
-    private static int[] douglasPeuckerSimplify(List<? extends NavigationPosition> positions, int from, int to, double threshold) {
+    private static double calculateOrthogonalDistance(double longitude, double latitude,
+                                                      double longitudeA, double latitudeA, double courseAtoB) {
+        Bearing bearingAD = calculateBearing(longitudeA, latitudeA, longitude, latitude);
+        double distanceAtoD = bearingAD.getDistance();
+        double courseAtoD = toRadians(bearingAD.getAngle());
+        return asin(sin(distanceAtoD / EARTH_RADIUS) * sin(courseAtoD - courseAtoB)) * EARTH_RADIUS;
+    }
+
+    private static double calculateCourse(double[] longitudes, double[] latitudes, int from, int to) {
+        return toRadians(calculateBearing(longitudes[from], latitudes[from], longitudes[to], latitudes[to]).getAngle());
+    }
+
+    private static int findMaximumDistanceIndex(double[] longitudes, double[] latitudes, int from, int to, double threshold) {
+        if (isNaN(longitudes[from]) || isNaN(latitudes[from]) || isNaN(longitudes[to]) || isNaN(latitudes[to]))
+            return -1;
+
         // find the point with the maximum distance
-        NavigationPosition pointA = positions.get(from);
-        NavigationPosition pointB = positions.get(to);
+        double courseAtoB = calculateCourse(longitudes, latitudes, from, to);
         int maximumDistanceIndex = -1;
         double maximumDistance = 0.0;
         for (int i = from + 1; i < to; i++) {
-            NavigationPosition position = positions.get(i);
-            if (position.hasCoordinates()) {
-                Double distance = position.calculateOrthogonalDistance(pointA, pointB);
-                if (distance == null)
-                    continue;
-
-                double absDistance = abs(distance);
-                if (absDistance > maximumDistance) {
-                    maximumDistance = absDistance;
-                    maximumDistanceIndex = i;
-                }
+            if (isNaN(longitudes[i]) || isNaN(latitudes[i]))
+                continue;
+
+            double distance = abs(calculateOrthogonalDistance(longitudes[i], latitudes[i], longitudes[from], latitudes[from], courseAtoB));
+            if (distance > maximumDistance) {
+                maximumDistance = distance;
+                maximumDistanceIndex = i;
             }
         }
+        return maximumDistance > threshold ? maximumDistanceIndex : -1;
+    }
+
+    private static int[] douglasPeuckerSimplify(double[] longitudes, double[] latitudes, double threshold) {
+        int count = longitudes.length;
+        boolean[] significant = new boolean[count];
+        significant[0] = true;
+        significant[count - 1] = true;
+        int significantCount = 2;
+
+        // an explicit stack of from and to indices instead of recursion, which overflows
+        // the call stack for long tracks that are split into very uneven parts
+        int[] stack = new int[64];
+        int top = 0;
+        stack[top++] = 0;
+        stack[top++] = count - 1;
+        while (top > 0) {
+            int to = stack[--top];
+            int from = stack[--top];
+            int index = findMaximumDistanceIndex(longitudes, latitudes, from, to, threshold);
+            if (index == -1)
+                continue;
+
+            significant[index] = true;
+            significantCount++;
+            if (top + 4 > stack.length)
+                stack = copyOf(stack, stack.length * 2);
+            stack[top++] = index;
+            stack[top++] = to;
+            stack[top++] = from;
+            stack[top++] = index;
+        }
 
-        // if maximum distance is greater than threshold, recursively simplify
-        if ((maximumDistanceIndex != -1) && (maximumDistance > threshold)) {
-            int[] res1 = douglasPeuckerSimplify(positions, from, maximumDistanceIndex, threshold);
-            int[] res2 = douglasPeuckerSimplify(positions, maximumDistanceIndex, to, threshold);
-
-            int[] result = new int[res1.length - 1 + res2.length];
-            arraycopy(res1, 0, result, 0, res1.length - 1);
-            arraycopy(res2, 0, result, res1.length - 1, res2.length);
-            return result;
-        } else
-            return new int[]{from, to};
+        int[] result = new int[significantCount];
+        int index = 0;
+        for (int i = 0; i < count; i++)
+            if (significant[i])
+                result[index++] = i;
+        return result;
     }
 
     /**
@@ -76,17 +120,102 @@ public class RouteCalculations {
      *
      * http://de.wikipedia.org/wiki/Douglas-Peucker-Algorithmus
      *
-     * @param positions the original list of positions
+     * @param longitudes the longitudes of the positions, {@link Double#NaN} for positions without coordinates
+     * @param latitudes the latitudes of the positions, {@link Double#NaN} for positions without coordinates
      * @param threshold determines the threshold for significance in meter
-     * @return an array of indices to the original list of positions with the significant positions
+     * @return an ascending array of indices of the significant positions
      */
-    public static int[] getSignificantPositions(List<? extends NavigationPosition> positions, double threshold) {
-        if (positions.size() == 0)
+    public static int[] getSignificantPositions(double[] longitudes, double[] latitudes, double threshold) {
+        if (longitudes.length == 0)
             return new int[0];
-        else if (positions.size() == 1)
+        else if (longitudes.length == 1)
             return new int[]{0};
         else
-            return douglasPeuckerSimplify(positions, 0, positions.size() - 1, threshold);
+            return douglasPeuckerSimplify(longitudes, latitudes, threshold);
+    }
+
+    /**
+     * Search the significant positions with the Douglas-Peucker-Algorithm.
+     *
+     * http://de.wikipedia.org/wiki/Douglas-Peucker-Algorithmus
+     *
+     * @param positions the original list of positions
+     * @param threshold determines the threshold for significance in meter
+     * @return an array of indices to the original list of positions with the significant positions
+     */
+    public static int[] getSignificantPositions(List<? extends NavigationPosition> positions, double threshold) {
+        double[] longitudes = new double[positions.size()];
+        double[] latitudes = new double[positions.size()];
+        int index = 0;
+        for (NavigationPosition position : positions) {
+            boolean hasCoordinates = position.hasCoordinates();
+            longitudes[index] = hasCoordinates ? position.getLongitude() : NaN;
+            latitudes[index] = hasCoordinates ? position.getLatitude() : NaN;
+            index++;
+        }
+        return getSignificantPositions(longitudes, latitudes, threshold);
+    }
+
+    /**
+     * Calculate the significance of the positions with the Douglas-Peucker-Algorithm: a position
+     * is significant for all thresholds that are smaller than its significance. This replaces the
+     * search for the significant positions for many thresholds with a filter.
+     *
+     * @param longitudes the longitudes of the positions, {@link Double#NaN} for positions without coordinates
+     * @param latitudes the latitudes of the positions, {@link Double#NaN} for positions without coordinates
+     * @return the significance of the positions in meter, infinite for the first and the last position
+     * and 0.0 for positions that are never significant
+     */
+    public static double[] getSignificances(double[] longitudes, double[] latitudes) {
+        int count = longitudes.length;
+        double[] significances = new double[count];
+        if (count == 0)
+            return significances;
+        significances[0] = POSITIVE_INFINITY;
+        significances[count - 1] = POSITIVE_INFINITY;
+
+        int[] stack = new int[64];
+        int top = 0;
+        stack[top++] = 0;
+        stack[top++] = count - 1;
+        while (top > 0) {
+            int to = stack[--top];
+            int from = stack[--top];
+            int index = findMaximumDistanceIndex(longitudes, latitudes, from, to, NEGATIVE_INFINITY);
+            if (index == -1)
+                continue;
+
+            double courseAtoB = calculateCourse(longitudes, latitudes, from, to);
+            double distance = abs(calculateOrthogonalDistance(longitudes[index], latitudes[index], longitudes[from], latitudes[from], courseAtoB));
+            // a threshold only reaches this segment if it is smaller than the significance of the
+            // split position that created it, which is the smaller one of the two end positions
+            significances[index] = min(distance, min(significances[from], significances[to]));
+
+            if (top + 4 > stack.length)
+                stack = copyOf(stack, stack.length * 2);
+            stack[top++] = index;
+            stack[top++] = to;
+            stack[top++] = from;
+            stack[top++] = index;
+        }
+        return significances;
+    }
+
+    /**
+     * Filter the significant positions by their significance.
+     *
+     * @param significances the significances from {@link #getSignificances(double[], double[])}
+     * @param threshold determines the threshold for significance in meter
+     * @return the same ascending array of indices as {@link #getSignificantPositions(double[], double[], double)}
+     */
+    public static int[] getSignificantPositions(double[] significances, double threshold) {
+        int[] result = new int[significances.length];
+        int count = 0;
+        for (int i = 0; i < significances.length; i++)
+            // the first and the last position are significant even for an infinite threshold
+            if (significances[i] > threshold || i == 0 || i == significances.length - 1)
+                result[count++] = i;
+        return copyOf(result, count);
     }
 
     @SuppressWarnings("unused")
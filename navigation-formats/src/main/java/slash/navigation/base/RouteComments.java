@@ -103,7 +103,8 @@ public abstract class RouteComments {
     }
 
     private static final String POSITION = "Position";
-    private static final Pattern POSITION_PATTERN = Pattern.compile("(.*)(" + POSITION + "|Waypoint).*(\\d+)(.*)");
+    private static final String WAYPOINT = "Waypoint";
+    private static final Pattern POSITION_PATTERN = Pattern.compile("(.*)(" + POSITION + "|" + WAYPOINT + ").*(\\d+)(.*)");
 
     private static String getPositionDescription(int index) {
         return POSITION + " " + (index + 1);
@@ -122,7 +123,7 @@ public abstract class RouteComments {
     private static String getPositionDescription(NavigationPosition position, int index) {
         if (position.getDescription() == null || "(null)".equals(position.getDescription())) {
             return getPositionDescription(index);
-        } else {
+        } else if (containsPositionDescription(position.getDescription())) {
             Matcher matcher = POSITION_PATTERN.matcher(position.getDescription());
             if (matcher.matches()) {
                 String prefix = trim(matcher.group(1));
@@ -133,7 +134,13 @@ public abstract class RouteComments {
         return position.getDescription();
     }
 
+    private static boolean containsPositionDescription(String description) {
+        return description.contains(POSITION) || description.contains(WAYPOINT);
+    }
+
     public static boolean isPositionDescription(String description) {
+        if (!containsPositionDescription(description))
+            return false;
         Matcher matcher = POSITION_PATTERN.matcher(description);
         return matcher.matches();
     }
@@ -249,6 +256,8 @@ public abstract class RouteComments {
 
         for (BaseRoute<BaseNavigationPosition, BaseNavigationFormat> route : routes) {
             commentPositions(route.getPositions());
+            // the descriptions may set times and elevations, too
+            route.modified();
         }
     }
 
@@ -262,6 +271,7 @@ public abstract class RouteComments {
             "Abstand \\d+|Dist. \\d+|Distanz \\d+|Km " + DOUBLE + "|" +
             "Course \\d+|Cape \\d+|Kurs \\d+|Richtung \\d+|" +
             "Waypoint|Wpt|Punkt|Pause";
+    private static final String TRIPMASTER_REASON_INITIALS = "DAKCRWP";
 
     private static final Pattern TRIPMASTER_HEADING_PATTERN = Pattern.compile("(Course|Cape|Kurs|Richtung) (\\d+)");
     private static final Pattern TRIPMASTER_14_PATTERN = Pattern.compile("(" + TRIPMASTER_REASONS + ") - (" + TIME + ") - (" + DOUBLE + ") m - (.+)");
@@ -337,14 +347,33 @@ public abstract class RouteComments {
         return parseTripmaster14Time(string);
     }
 
+    private static Matcher match(Pattern pattern, String comment, boolean possible) {
+        if (!possible)
+            return null;
+        Matcher matcher = pattern.matcher(comment);
+        return matcher.matches() ? matcher : null;
+    }
+
     private static Double parseDouble(String string) {
         Double aDouble = Transfer.parseDouble(string);
         return !isEmpty(aDouble) ? aDouble : null;
     }
 
     public static void parseDescription(NavigationPosition position, String comment) {
-        Matcher matcher = TRIPMASTER_14_PATTERN.matcher(comment);
-        if (matcher.matches()) {
+        parseDescription(position, comment, true);
+    }
+
+    static void parseDescription(NavigationPosition position, String comment, boolean prefilter) {
+        // cheap checks for what the patterns require to avoid matching most of them
+        char first = comment.length() > 0 ? comment.charAt(0) : 0;
+        boolean startsWithDigit = !prefilter || first >= '0' && first <= '9';
+        boolean startsWithTripmasterReason = !prefilter || TRIPMASTER_REASON_INITIALS.indexOf(first) != -1;
+        boolean startsWithStartOrEnd = !prefilter || first == 'S' || first == 'E' || first == 'F';
+        boolean containsMeters = !prefilter || comment.contains(" m");
+        boolean containsDegrees = !prefilter || comment.contains(" deg");
+
+        Matcher matcher = match(TRIPMASTER_14_PATTERN, comment, startsWithTripmasterReason && containsMeters);
+        if (matcher != null) {
             position.setTime(parseTripmaster14Time(matcher.group(2)));
             position.setElevation(parseDouble(matcher.group(3)));
 
@@ -363,8 +392,8 @@ public abstract class RouteComments {
             }
         }
 
-        matcher = TRIPMASTER_18_SHORT_STARTEND_PATTERN.matcher(comment);
-        if (matcher.matches()) {
+        matcher = match(TRIPMASTER_18_SHORT_STARTEND_PATTERN, comment, startsWithStartOrEnd && containsMeters);
+        if (matcher != null) {
             String dateStr = trim(matcher.group(4));
             String timeStr = trim(matcher.group(5));
             position.setTime(parseTripmaster18Date(dateStr + " " + timeStr));
@@ -384,8 +413,8 @@ public abstract class RouteComments {
             }
         }
 
-        matcher = TRIPMASTER_18_SHORT_WAYPOINT_PATTERN.matcher(comment);
-        if (matcher.matches()) {
+        matcher = match(TRIPMASTER_18_SHORT_WAYPOINT_PATTERN, comment, startsWithDigit && containsMeters);
+        if (matcher != null) {
             position.setTime(parseTripmaster14Time(matcher.group(1)));
             position.setElevation(parseDouble(matcher.group(2)));
 
@@ -397,8 +426,8 @@ public abstract class RouteComments {
 
         }
 
-        matcher = TRIPMASTER_25_SHORT_WAYPOINT_PATTERN.matcher(comment);
-        if (matcher.matches()) {
+        matcher = match(TRIPMASTER_25_SHORT_WAYPOINT_PATTERN, comment, startsWithDigit && containsMeters);
+        if (matcher != null) {
             position.setTime(parseTripmaster14Time(trim(matcher.group(1))));
             position.setElevation(parseDouble(matcher.group(3)));
 
@@ -417,8 +446,8 @@ public abstract class RouteComments {
             }
         }
 
-        matcher = TRIPMASTER_25_SHORT_STARTEND_PATTERN.matcher(comment);
-        if (matcher.matches()) {
+        matcher = match(TRIPMASTER_25_SHORT_STARTEND_PATTERN, comment, startsWithDigit && containsMeters);
+        if (matcher != null) {
             String dateStr = trim(matcher.group(4));
             String timeStr = trim(matcher.group(5));
             position.setTime(parseTripmaster18Date(dateStr + " " + timeStr));
@@ -432,8 +461,8 @@ public abstract class RouteComments {
             }
         }
 
-        matcher = TRIPMASTER_31_SHORT_STARTEND_PATTERN.matcher(comment);
-        if (matcher.matches()) {
+        matcher = match(TRIPMASTER_31_SHORT_STARTEND_PATTERN, comment, startsWithDigit && containsMeters);
+        if (matcher != null) {
             String dateStr = trim(matcher.group(4));
             String timeStr = trim(matcher.group(5));
             position.setTime(parseTripmaster18Date(dateStr + " " + timeStr));
@@ -447,8 +476,8 @@ public abstract class RouteComments {
             }
         }
 
-        matcher = TRIPMASTER_MIDDLE_PATTERN.matcher(comment);
-        if (matcher.matches()) {
+        matcher = match(TRIPMASTER_MIDDLE_PATTERN, comment, startsWithDigit && containsMeters);
+        if (matcher != null) {
             position.setTime(parseTripmaster14Time(trim(matcher.group(1))));
             position.setElevation(parseDouble(matcher.group(4)));
 
@@ -465,8 +494,8 @@ public abstract class RouteComments {
             }
         }
 
-        matcher = TRIPMASTER_LONG_NO_REASON_PATTERN.matcher(comment);
-        if (matcher.matches()) {
+        matcher = match(TRIPMASTER_LONG_NO_REASON_PATTERN, comment, startsWithDigit && containsMeters);
+        if (matcher != null) {
             position.setTime(parseTripmaster14Time(trim(matcher.group(1))));
             position.setSpeed(parseDouble(matcher.group(6)));
             position.setElevation(parseDouble(matcher.group(3)));
@@ -481,8 +510,8 @@ public abstract class RouteComments {
             }
         }
 
-        matcher = TRIPMASTER_LONG_PATTERN.matcher(comment);
-        if (matcher.matches()) {
+        matcher = match(TRIPMASTER_LONG_PATTERN, comment, startsWithDigit && containsMeters);
+        if (matcher != null) {
             position.setTime(parseTripmaster18Date(matcher.group(3)));
             if (!position.hasTime())
                 position.setTime(parseTripmaster14Time(matcher.group(1)));
@@ -502,8 +531,8 @@ public abstract class RouteComments {
             }
         }
 
-        matcher = LOGPOS_2_PATTERN.matcher(comment);
-        if (matcher.matches()) {
+        matcher = match(LOGPOS_2_PATTERN, comment, startsWithDigit);
+        if (matcher != null) {
             position.setTime(parseLogposDate(matcher.group(1)));
             position.setSpeed(parseDouble(matcher.group(5)));
 
@@ -515,8 +544,8 @@ public abstract class RouteComments {
             }
         }
 
-        matcher = LOGPOS_1_PATTERN.matcher(comment);
-        if (matcher.matches()) {
+        matcher = match(LOGPOS_1_PATTERN, comment, startsWithDigit);
+        if (matcher != null) {
             position.setTime(parseLogposDate(matcher.group(1)));
             Double elevation;
             try {
@@ -535,8 +564,8 @@ public abstract class RouteComments {
             }
         }
 
-        matcher = TTTRACKLOG_PATTERN.matcher(comment);
-        if (matcher.matches()) {
+        matcher = match(TTTRACKLOG_PATTERN, comment, startsWithDigit);
+        if (matcher != null) {
             position.setTime(parseTTTracklogTime(matcher.group(1)));
             position.setSpeed(parseDouble(matcher.group(5)));
             Double elevation = parseDouble(matcher.group(6));
@@ -549,8 +578,8 @@ public abstract class RouteComments {
             }
         }
 
-        matcher = ROUTECONVERTER_STARTEND_PATTERN.matcher(comment);
-        if (matcher.matches()) {
+        matcher = match(ROUTECONVERTER_STARTEND_PATTERN, comment, startsWithStartOrEnd && containsDegrees);
+        if (matcher != null) {
             String dateStr = trim(matcher.group(4));
             String timeStr = trim(matcher.group(5));
             position.setTime(parseTripmaster18Date(dateStr + " " + timeStr));
@@ -567,8 +596,8 @@ public abstract class RouteComments {
             }
         }
 
-        matcher = ROUTECONVERTER_INTERMEDIATE_PATTERN.matcher(comment);
-        if (matcher.matches()) {
+        matcher = match(ROUTECONVERTER_INTERMEDIATE_PATTERN, comment, containsDegrees);
+        if (matcher != null) {
             String timeStr = trim(matcher.group(2));
             position.setTime(parseTripmaster14Time(timeStr));
             position.setElevation(parseDouble(matcher.group(3)));
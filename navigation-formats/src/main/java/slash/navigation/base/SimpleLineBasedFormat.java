@@ -21,9 +21,14 @@ package slash.navigation.base;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.PrintWriter;
+import java.io.Reader;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import static java.lang.String.format;
 import static slash.navigation.base.RouteCharacteristics.Waypoints;
@@ -35,6 +40,8 @@ import static slash.navigation.base.RouteCharacteristics.Waypoints;
  */
 
 public abstract class SimpleLineBasedFormat<R extends SimpleRoute> extends SimpleFormat<R> {
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final ThreadLocal<LineMatches> lineMatches = ThreadLocal.withInitial(LineMatches::new);
 
     public int getMaximumPositionCount() {
         return UNLIMITED_MAXIMUM_POSITION_COUNT;
@@ -45,6 +52,12 @@ public abstract class SimpleLineBasedFormat<R extends SimpleRoute> extends Simpl
         return (R)new Wgs84Route(this, characteristics, positions);
     }
 
+    protected void read(InputStream source, String encoding, ParserContext<R> context) throws IOException {
+        try (Reader reader = new InputStreamReader(source, encoding)) {
+            read(new BufferedReader(reader, READ_BUFFER_SIZE), encoding, context);
+        }
+    }
+
     public void read(BufferedReader reader, String encoding, ParserContext<R> context) throws IOException {
         List<Wgs84Position> positions = new ArrayList<>();
 
@@ -56,7 +69,7 @@ public abstract class SimpleLineBasedFormat<R extends SimpleRoute> extends Simpl
             if (line.length() == 0)
                 continue;
 
-            if (isValidLine(line)) {
+            if (isValidFirstCharacter(line.charAt(0)) && isValidLine(line)) {
                 if (isPosition(line)) {
                     Wgs84Position position = parsePosition(line, context);
                     positions.add(position);
@@ -79,6 +92,18 @@ public abstract class SimpleLineBasedFormat<R extends SimpleRoute> extends Simpl
         return Waypoints;
     }
 
+    /**
+     * Rejects a line by its first character before any pattern is matched.
+     * Must not reject lines for which {@link #isValidLine(String)} returns true.
+     */
+    protected boolean isValidFirstCharacter(char first) {
+        return true;
+    }
+
+    protected static boolean isNumberOrWhiteSpace(char c) {
+        return c <= ' ' || c == '-' || c == '.' || c >= '0' && c <= '9';
+    }
+
     protected boolean isValidLine(String line) {
         return isPosition(line);
     }
@@ -104,4 +129,42 @@ public abstract class SimpleLineBasedFormat<R extends SimpleRoute> extends Simpl
 
     protected void writeFooter(PrintWriter writer, int positionCount) {
     }
+
+    /**
+     * Returns the {@link Matcher} if the pattern matches the whole line and null otherwise.
+     * The results for the last line are kept per thread so that validating and parsing
+     * a line matches each pattern only once.
+     */
+    protected static Matcher match(Pattern pattern, String line) {
+        return lineMatches.get().match(pattern, line);
+    }
+
+    private static class LineMatches {
+        private static final int MAXIMUM_PATTERNS = 4;
+
+        private final Pattern[] patterns = new Pattern[MAXIMUM_PATTERNS];
+        private final Matcher[] matchers = new Matcher[MAXIMUM_PATTERNS];
+        private String line;
+        private int count;
+
+        Matcher match(Pattern pattern, String line) {
+            if (this.line != line) {
+                this.line = line;
+                count = 0;
+            }
+            for (int i = 0; i < count; i++) {
+                if (patterns[i] == pattern)
+                    return matchers[i];
+            }
+
+            Matcher matcher = pattern.matcher(line);
+            if (!matcher.matches())
+                matcher = null;
+            if (count < MAXIMUM_PATTERNS) {
+                patterns[count] = pattern;
+                matchers[count++] = matcher;
+            }
+            return matcher;
+        }
+    }
 }
@@ -98,6 +98,7 @@ public abstract class SimpleRoute<P extends BaseNavigationPosition, F extends Ba
 
     public void add(int index, P position) {
         positions.add(index, position);
+        modified(index);
     }
 
     protected BcrRoute asBcrFormat(BcrFormat format) {
@@ -156,6 +156,7 @@ public class BcrRoute extends BaseRoute<BcrPosition, BcrFormat> {
 
     public void add(int index, BcrPosition position) {
         positions.add(index, position);
+        modified(index);
     }
 
     public BcrPosition createPosition(Double longitude, Double latitude, Double elevation, Double speed, CompactCalendar time, String description) {
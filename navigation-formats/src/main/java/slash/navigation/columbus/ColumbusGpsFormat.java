@@ -71,8 +71,8 @@ public abstract class ColumbusGpsFormat extends SimpleLineBasedFormat<SimpleRout
     protected abstract Pattern getLinePattern();
 
     protected boolean isPosition(String line) {
-        Matcher matcher = getLinePattern().matcher(line);
-        return matcher.matches() && hasValidFix(line, matcher);
+        Matcher matcher = match(getLinePattern(), line);
+        return matcher != null && hasValidFix(line, matcher);
     }
 
     protected abstract boolean hasValidFix(String line, Matcher matcher);
@@ -80,8 +80,7 @@ public abstract class ColumbusGpsFormat extends SimpleLineBasedFormat<SimpleRout
     protected abstract Pattern getHeaderPattern();
 
     protected boolean isHeader(String line) {
-        Matcher matcher = getHeaderPattern().matcher(line);
-        return matcher.matches();
+        return match(getHeaderPattern(), line) != null;
     }
 
     protected abstract String getHeader();
@@ -113,8 +113,8 @@ public class ColumbusGpsType1Format extends ColumbusGpsFormat {
     }
 
     protected Wgs84Position parsePosition(String line, ParserContext context) {
-        Matcher lineMatcher = LINE_PATTERN.matcher(line);
-        if (!lineMatcher.matches())
+        Matcher lineMatcher = match(LINE_PATTERN, line);
+        if (lineMatcher == null)
             throw new IllegalArgumentException("'" + line + "' does not match");
         WaypointType waypointType = parseTag(trim(lineMatcher.group(2)));
         String date = lineMatcher.group(3);
@@ -98,8 +98,8 @@ public class ColumbusGpsType2Format extends ColumbusGpsFormat {
     }
 
     protected Wgs84Position parsePosition(String line, ParserContext context) {
-        Matcher lineMatcher = LINE_PATTERN.matcher(line);
-        if (!lineMatcher.matches())
+        Matcher lineMatcher = match(LINE_PATTERN, line);
+        if (lineMatcher == null)
             throw new IllegalArgumentException("'" + line + "' does not match");
         WaypointType waypointType = parseTag(trim(lineMatcher.group(2)));
         String date = lineMatcher.group(3);
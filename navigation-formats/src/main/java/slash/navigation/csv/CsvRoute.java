@@ -93,6 +93,7 @@ public class CsvRoute extends BaseRoute<CsvPosition, CsvFormat> {
 
     public void add(int index, CsvPosition position) {
         positions.add(index, position);
+        modified(index);
     }
 
     public CsvPosition createPosition(Double longitude, Double latitude, Double elevation, Double speed, CompactCalendar time, String description) {
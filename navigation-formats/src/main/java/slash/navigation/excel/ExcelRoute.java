@@ -181,6 +181,7 @@ public class ExcelRoute extends BaseRoute<ExcelPosition, ExcelFormat> {
         sheet.shiftRows(sourceRowIndex, sourceRowIndex, rowForIndex - sourceRowIndex);
 
         positions.add(index, position);
+        modified(index);
     }
 
     public ExcelPosition remove(int index) {
@@ -99,6 +99,7 @@ public class GarminFlightPlanRoute extends BaseRoute<GarminFlightPlanPosition, G
 
     public void add(int index, GarminFlightPlanPosition position) {
         positions.add(index, position);
+        modified(index);
     }
 
     public GarminFlightPlanPosition createPosition(Double longitude, Double latitude, Double elevation, Double speed, CompactCalendar time, String description) {
@@ -105,6 +105,7 @@ public class GoPalRoute extends BaseRoute<GoPalPosition, GoPalRouteFormat> {
 
     public void add(int index, GoPalPosition position) {
         positions.add(index, position);
+        modified(index);
     }
 
     public GoPalPosition createPosition(Double longitude, Double latitude, Double elevation, Double speed, CompactCalendar time, String description) {
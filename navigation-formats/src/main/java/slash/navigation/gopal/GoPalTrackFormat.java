@@ -86,13 +86,12 @@ public class GoPalTrackFormat extends SimpleLineBasedFormat<SimpleRoute> {
     }
 
     protected boolean isValidLine(String line) {
-        Matcher matcher = LINE_PATTERN.matcher(line);
-        return matcher.matches();
+        return match(LINE_PATTERN, line) != null;
     }
 
     protected boolean isPosition(String line) {
-        Matcher matcher = LINE_PATTERN.matcher(line);
-        if (!matcher.matches())
+        Matcher matcher = match(LINE_PATTERN, line);
+        if (matcher == null)
             return false;
         Integer satellites = parseInteger(matcher.group(7));
         return satellites != null && satellites > 0;
@@ -108,8 +107,8 @@ public class GoPalTrackFormat extends SimpleLineBasedFormat<SimpleRoute> {
     }
 
     protected Wgs84Position parsePosition(String line, ParserContext context) {
-        Matcher lineMatcher = LINE_PATTERN.matcher(line);
-        if (!lineMatcher.matches())
+        Matcher lineMatcher = match(LINE_PATTERN, line);
+        if (lineMatcher == null)
             throw new IllegalArgumentException("'" + line + "' does not match");
         String time = lineMatcher.group(1);
         String longitude = lineMatcher.group(2);
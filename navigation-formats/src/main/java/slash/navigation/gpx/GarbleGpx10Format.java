@@ -22,12 +22,11 @@ package slash.navigation.gpx;
 
 import slash.navigation.base.GarbleNavigationFormat;
 import slash.navigation.base.ParserContext;
-import slash.navigation.gpx.binding10.Gpx;
 
 import java.io.InputStream;
 import java.io.InputStreamReader;
 
-import static slash.navigation.gpx.GpxUtil.unmarshal10;
+import static slash.navigation.gpx.GpxStreamReader.createXMLStreamReader;
 
 /**
  * Reads garbled GPS Exchange Format 1.0 (.gpx) files.
@@ -46,8 +45,7 @@ public class GarbleGpx10Format extends Gpx10Format implements GarbleNavigationFo
 
     public void read(InputStream source, ParserContext<GpxRoute> context) throws Exception {
         try (InputStreamReader reader = new InputStreamReader(source)) {
-            Gpx gpx = unmarshal10(reader);
-            process(gpx, context);
+            read(createXMLStreamReader(reader), context);
         }
     }
 }
\ No newline at end of file
@@ -22,12 +22,11 @@ package slash.navigation.gpx;
 
 import slash.navigation.base.GarbleNavigationFormat;
 import slash.navigation.base.ParserContext;
-import slash.navigation.gpx.binding11.GpxType;
 
 import java.io.InputStream;
 import java.io.InputStreamReader;
 
-import static slash.navigation.gpx.GpxUtil.unmarshal11;
+import static slash.navigation.gpx.GpxStreamReader.createXMLStreamReader;
 
 /**
  * Reads garbled GPS Exchange Format 1.1 (.gpx) files.
@@ -47,8 +46,7 @@ public class GarbleGpx11Format extends Gpx11Format implements GarbleNavigationFo
 
     public void read(InputStream source, ParserContext<GpxRoute> context) throws Exception {
         try (InputStreamReader reader = new InputStreamReader(source)) {
-            GpxType gpxType = unmarshal11(reader);
-            process(gpxType, context);
+            read(createXMLStreamReader(reader), context);
         }
     }
 }
\ No newline at end of file
@@ -26,6 +26,8 @@ import slash.navigation.gpx.binding10.Gpx;
 import slash.navigation.gpx.binding10.ObjectFactory;
 
 import javax.xml.bind.JAXBException;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -39,8 +41,10 @@ import static slash.common.io.Transfer.*;
 import static slash.navigation.base.RouteCharacteristics.*;
 import static slash.navigation.common.NavigationConversion.*;
 import static slash.navigation.common.UnitConversion.kmhToMs;
+import static slash.navigation.gpx.GpxStreamReader.createXMLStreamReader;
+import static slash.navigation.gpx.GpxUtil.GPX_10_NAMESPACE_URI;
 import static slash.navigation.gpx.GpxUtil.marshal10;
-import static slash.navigation.gpx.GpxUtil.unmarshal10;
+import static slash.navigation.gpx.GpxUtil.newContext10;
 
 /**
  * Reads and writes GPS Exchange Format 1.0 (.gpx) files.
@@ -65,23 +69,41 @@ public class Gpx10Format extends GpxFormat {
         return "GPS Exchange Format " + VERSION + " (*" + getExtension() + ")";
     }
 
-    void process(Gpx gpx, ParserContext<GpxRoute> context) {
+    private static boolean hasSpeedInKiloMeterPerHourInsteadOfMeterPerSecond(String creator) {
+        return creator != null &&
+                ("Mobile Action http://www.mobileaction.com/".equals(creator) ||
+                 "Holux Utility".equals(creator));
+    }
+
+    void process(Gpx gpx, GpxStreamReader reader, ParserContext<GpxRoute> context) {
         if (gpx == null || !VERSION.equals(gpx.getVersion()))
             return;
 
-        boolean hasSpeedInKiloMeterPerHourInsteadOfMeterPerSecond = gpx.getCreator() != null &&
-                ("Mobile Action http://www.mobileaction.com/".equals(gpx.getCreator()) ||
-                 "Holux Utility".equals(gpx.getCreator()));
-        GpxRoute wayPointsAsRoute = extractWayPoints(gpx, hasSpeedInKiloMeterPerHourInsteadOfMeterPerSecond);
+        GpxRoute wayPointsAsRoute = extractWayPoints(gpx, reader.getWayPoints());
         if (wayPointsAsRoute != null)
             context.appendRoute(wayPointsAsRoute);
-        context.appendRoutes(extractRoutes(gpx, hasSpeedInKiloMeterPerHourInsteadOfMeterPerSecond));
-        context.appendRoutes(extractTracks(gpx, hasSpeedInKiloMeterPerHourInsteadOfMeterPerSecond));
+        context.appendRoutes(extractRoutes(gpx, hasSpeedInKiloMeterPerHourInsteadOfMeterPerSecond(gpx.getCreator())));
+        context.appendRoutes(extractTracks(gpx, reader));
+    }
+
+    void read(XMLStreamReader source, ParserContext<GpxRoute> context) throws JAXBException, XMLStreamException {
+        GpxStreamReader reader = new GpxStreamReader(source, newContext10(), GPX_10_NAMESPACE_URI,
+                Gpx.Wpt.class, this::createStreamedWayPoint, Gpx.Trk.Trkseg.Trkpt.class, this::createStreamedTrackPoint);
+        try {
+            Gpx gpx;
+            try {
+                gpx = (Gpx) reader.unmarshal();
+            } catch (ClassCastException e) {
+                throw new JAXBException("Parse error: " + e);
+            }
+            process(gpx, reader, context);
+        } finally {
+            reader.close();
+        }
     }
 
     public void read(InputStream source, ParserContext<GpxRoute> context) throws Exception {
-        Gpx gpx = unmarshal10(source);
-        process(gpx, context);
+        read(createXMLStreamReader(source), context);
     }
 
     private List<GpxRoute> extractRoutes(Gpx gpx, boolean hasSpeedInKiloMeterPerHourInsteadOfMeterPerSecond) {
@@ -98,10 +120,9 @@ public class Gpx10Format extends GpxFormat {
         return result;
     }
 
-    private GpxRoute extractWayPoints(Gpx gpx, boolean hasSpeedInKiloMeterPerHourInsteadOfMeterPerSecond) {
+    private GpxRoute extractWayPoints(Gpx gpx, List<GpxPosition> positions) {
         String name = gpx.getName();
         List<String> descriptions = asDescription(gpx.getDesc());
-        List<GpxPosition> positions = extractWayPoints(gpx.getWpt(), hasSpeedInKiloMeterPerHourInsteadOfMeterPerSecond);
         return positions.size() == 0 ? null : new GpxRoute(this, isTripmasterTrack(positions) ? Track : Waypoints, name, descriptions, positions, gpx);
     }
 
@@ -113,13 +134,15 @@ public class Gpx10Format extends GpxFormat {
         return true;
     }
 
-    private List<GpxRoute> extractTracks(Gpx gpx, boolean hasSpeedInKiloMeterPerHourInsteadOfMeterPerSecond) {
+    private List<GpxRoute> extractTracks(Gpx gpx, GpxStreamReader reader) {
         List<GpxRoute> result = new ArrayList<>();
-        for (Gpx.Trk trk : gpx.getTrk()) {
+        List<Gpx.Trk> trks = gpx.getTrk();
+        for (int i = 0; i < trks.size(); i++) {
+            Gpx.Trk trk = trks.get(i);
             String name = trk.getName();
             String desc = trk.getDesc();
             List<String> descriptions = asDescription(desc);
-            List<GpxPosition> positions = extractTrack(trk, hasSpeedInKiloMeterPerHourInsteadOfMeterPerSecond);
+            List<GpxPosition> positions = reader.getTrackPoints(i);
             if (positions.size() > 0)
                 result.add(new GpxRoute(this, Track, name, descriptions, positions, gpx, trk));
         }
@@ -136,24 +159,36 @@ public class Gpx10Format extends GpxFormat {
         return positions;
     }
 
-    private List<GpxPosition> extractWayPoints(List<Gpx.Wpt> wpts, boolean hasSpeedInKiloMeterPerHourInsteadOfMeterPerSecond) {
-        List<GpxPosition> positions = new ArrayList<>();
-        for (Gpx.Wpt wpt : wpts) {
-            positions.add(new GpxPosition(wpt.getLon(), wpt.getLat(), wpt.getEle(), getSpeed(wpt.getSpeed(), wpt.getCmt(), hasSpeedInKiloMeterPerHourInsteadOfMeterPerSecond), formatDouble(wpt.getCourse()), parseXMLTime(wpt.getTime()), asWayPointDescription(wpt.getName(), wpt.getDesc()), wpt.getHdop(), wpt.getPdop(), wpt.getVdop(), wpt.getSat(), wpt));
-        }
-        return positions;
+    private boolean hasOnlyPositionData(Gpx.Wpt wpt) {
+        return wpt.getCmt() == null && wpt.getDesc() == null && wpt.getSrc() == null && wpt.getUrl() == null &&
+                wpt.getUrlname() == null && wpt.getSym() == null && wpt.getType() == null && wpt.getFix() == null &&
+                wpt.getMagvar() == null && wpt.getGeoidheight() == null && wpt.getAgeofdgpsdata() == null &&
+                wpt.getDgpsid() == null && wpt.getAny().isEmpty();
     }
 
-    private List<GpxPosition> extractTrack(Gpx.Trk trk, boolean hasSpeedInKiloMeterPerHourInsteadOfMeterPerSecond) {
-        List<GpxPosition> positions = new ArrayList<>();
-        if (trk != null) {
-            for (Gpx.Trk.Trkseg trkSeg : trk.getTrkseg()) {
-                for (Gpx.Trk.Trkseg.Trkpt trkPt : trkSeg.getTrkpt()) {
-                    positions.add(new GpxPosition(trkPt.getLon(), trkPt.getLat(), trkPt.getEle(), getSpeed(trkPt.getSpeed(), trkPt.getCmt(), hasSpeedInKiloMeterPerHourInsteadOfMeterPerSecond), formatDouble(trkPt.getCourse()), parseXMLTime(trkPt.getTime()), asDescription(trkPt.getName(), trkPt.getDesc()), trkPt.getHdop(), trkPt.getPdop(), trkPt.getVdop(), trkPt.getSat(), trkPt));
-                }
-            }
-        }
-        return positions;
+    private boolean hasOnlyPositionData(Gpx.Trk.Trkseg.Trkpt trkPt) {
+        return trkPt.getCmt() == null && trkPt.getDesc() == null && trkPt.getSrc() == null && trkPt.getUrl() == null &&
+                trkPt.getUrlname() == null && trkPt.getSym() == null && trkPt.getType() == null && trkPt.getFix() == null &&
+                trkPt.getMagvar() == null && trkPt.getGeoidheight() == null && trkPt.getAgeofdgpsdata() == null &&
+                trkPt.getDgpsid() == null && trkPt.getAny().isEmpty();
+    }
+
+    private GpxPosition createStreamedWayPoint(Object point, String creator) {
+        Gpx.Wpt wpt = (Gpx.Wpt) point;
+        GpxPosition position = new GpxPosition(wpt.getLon(), wpt.getLat(), wpt.getEle(), getSpeed(wpt.getSpeed(), wpt.getCmt(), hasSpeedInKiloMeterPerHourInsteadOfMeterPerSecond(creator)), formatDouble(wpt.getCourse()), parseXMLTime(wpt.getTime()), asWayPointDescription(wpt.getName(), wpt.getDesc()), wpt.getHdop(), wpt.getPdop(), wpt.getVdop(), wpt.getSat(), wpt);
+        // createWayPoints() writes such a position the same without its origin
+        if (hasOnlyPositionData(wpt))
+            position.setOrigin(null);
+        return position;
+    }
+
+    private GpxPosition createStreamedTrackPoint(Object point, String creator) {
+        Gpx.Trk.Trkseg.Trkpt trkPt = (Gpx.Trk.Trkseg.Trkpt) point;
+        GpxPosition position = new GpxPosition(trkPt.getLon(), trkPt.getLat(), trkPt.getEle(), getSpeed(trkPt.getSpeed(), trkPt.getCmt(), hasSpeedInKiloMeterPerHourInsteadOfMeterPerSecond(creator)), formatDouble(trkPt.getCourse()), parseXMLTime(trkPt.getTime()), asDescription(trkPt.getName(), trkPt.getDesc()), trkPt.getHdop(), trkPt.getPdop(), trkPt.getVdop(), trkPt.getSat(), trkPt);
+        // createTrack() writes such a position the same without its origin
+        if (hasOnlyPositionData(trkPt))
+            position.setOrigin(null);
+        return position;
     }
 
     private Double getSpeed(BigDecimal speed, String description, boolean hasSpeedInKiloMeterPerHourInsteadOfMeterPerSecond) {
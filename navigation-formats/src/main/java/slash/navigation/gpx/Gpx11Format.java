@@ -30,6 +30,8 @@ import slash.navigation.gpx.trip1.ViaPointExtensionT;
 
 import javax.xml.bind.JAXBElement;
 import javax.xml.bind.JAXBException;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -41,8 +43,10 @@ import java.util.List;
 import static slash.common.io.Transfer.*;
 import static slash.navigation.base.RouteCharacteristics.*;
 import static slash.navigation.common.NavigationConversion.*;
+import static slash.navigation.gpx.GpxStreamReader.createXMLStreamReader;
+import static slash.navigation.gpx.GpxUtil.GPX_11_NAMESPACE_URI;
 import static slash.navigation.gpx.GpxUtil.marshal11;
-import static slash.navigation.gpx.GpxUtil.unmarshal11;
+import static slash.navigation.gpx.GpxUtil.newContext11;
 
 /**
  * Reads and writes GPS Exchange Format 1.1 (.gpx) files.
@@ -57,20 +61,35 @@ public class Gpx11Format extends GpxFormat {
         return "GPS Exchange Format " + VERSION + " (*" + getExtension() + ")";
     }
 
-    void process(GpxType gpxType, ParserContext<GpxRoute> context) {
+    void process(GpxType gpxType, GpxStreamReader reader, ParserContext<GpxRoute> context) {
         if (gpxType == null || !VERSION.equals(gpxType.getVersion()))
             return;
 
-        GpxRoute wayPointsAsRoute = extractWayPoints(gpxType);
+        GpxRoute wayPointsAsRoute = extractWayPoints(gpxType, reader.getWayPoints());
         if (wayPointsAsRoute != null)
             context.appendRoute(wayPointsAsRoute);
         context.appendRoutes(extractRoutes(gpxType));
-        context.appendRoutes(extractTracks(gpxType));
+        context.appendRoutes(extractTracks(gpxType, reader));
+    }
+
+    void read(XMLStreamReader source, ParserContext<GpxRoute> context) throws JAXBException, XMLStreamException {
+        GpxStreamReader reader = new GpxStreamReader(source, newContext11(), GPX_11_NAMESPACE_URI,
+                WptType.class, this::createStreamedPosition, WptType.class, this::createStreamedPosition);
+        try {
+            GpxType gpxType;
+            try {
+                gpxType = (GpxType) ((JAXBElement) reader.unmarshal()).getValue();
+            } catch (ClassCastException e) {
+                throw new JAXBException("Parse error: " + e);
+            }
+            process(gpxType, reader, context);
+        } finally {
+            reader.close();
+        }
     }
 
     public void read(InputStream source, ParserContext<GpxRoute> context) throws Exception {
-        GpxType gpxType = unmarshal11(source);
-        process(gpxType, context);
+        read(createXMLStreamReader(source), context);
     }
 
     private List<GpxRoute> extractRoutes(GpxType gpxType) {
@@ -93,33 +112,57 @@ public class Gpx11Format extends GpxFormat {
         return result;
     }
 
-    private GpxRoute extractWayPoints(GpxType gpxType) {
+    private GpxRoute extractWayPoints(GpxType gpxType, List<GpxPosition> positions) {
         String name = gpxType.getMetadata() != null ? gpxType.getMetadata().getName() : null;
         String desc = gpxType.getMetadata() != null ? gpxType.getMetadata().getDesc() : null;
         List<String> descriptions = asDescription(desc);
-        List<GpxPosition> positions = extractWayPoints(gpxType.getWpt());
         return positions.size() == 0 ? null : new GpxRoute(this, Waypoints, name, descriptions, positions, gpxType);
     }
 
-    private List<GpxRoute> extractTracks(GpxType gpxType) {
+    private List<GpxRoute> extractTracks(GpxType gpxType, GpxStreamReader reader) {
         List<GpxRoute> result = new ArrayList<>();
 
-        for (TrkType trkType : gpxType.getTrk()) {
+        List<TrkType> trkTypes = gpxType.getTrk();
+        for (int i = 0; i < trkTypes.size(); i++) {
+            TrkType trkType = trkTypes.get(i);
             String name = trkType.getName();
             String desc = trkType.getDesc();
             List<String> descriptions = asDescription(desc);
-            List<GpxPosition> positions = extractTrack(trkType);
+            List<GpxPosition> positions = reader.getTrackPoints(i);
             result.add(new GpxRoute(this, Track, name, descriptions, positions, gpxType, trkType));
         }
 
         return result;
     }
 
+    private GpxPosition createPosition(WptType wptType) {
+        return new GpxPosition(wptType.getLon(), wptType.getLat(), wptType.getEle(), new GpxPositionExtension(wptType), parseXMLTime(wptType.getTime()), asDescription(wptType.getName(), wptType.getDesc()), wptType.getHdop(), wptType.getPdop(), wptType.getVdop(), wptType.getSat(), wptType);
+    }
+
+    private boolean hasOnlyPositionData(WptType wptType) {
+        return wptType.getExtensions() == null && wptType.getCmt() == null && wptType.getDesc() == null &&
+                wptType.getSrc() == null && wptType.getLink().isEmpty() && wptType.getSym() == null &&
+                wptType.getType() == null && wptType.getFix() == null && wptType.getMagvar() == null &&
+                wptType.getGeoidheight() == null && wptType.getAgeofdgpsdata() == null && wptType.getDgpsid() == null;
+    }
+
+    private GpxPosition createStreamedPosition(Object point, String creator) {
+        WptType wptType = (WptType) point;
+        GpxPosition position = createPosition(wptType);
+        // createWptType() writes such a position the same without its origin, thus keep only
+        // an empty extension which holds changes to heading, speed and temperature
+        if (hasOnlyPositionData(wptType)) {
+            position.setPositionExtension(new GpxPositionExtension(new WptType()));
+            position.setOrigin(null);
+        }
+        return position;
+    }
+
     private List<GpxPosition> extractRoute(RteType rteType) {
         List<GpxPosition> positions = new ArrayList<>();
         if (rteType != null) {
             for (WptType wptType : rteType.getRtept()) {
-                positions.add(new GpxPosition(wptType.getLon(), wptType.getLat(), wptType.getEle(), new GpxPositionExtension(wptType), parseXMLTime(wptType.getTime()), asDescription(wptType.getName(), wptType.getDesc()), wptType.getHdop(), wptType.getPdop(), wptType.getVdop(), wptType.getSat(), wptType));
+                positions.add(createPosition(wptType));
             }
         }
         return positions;
@@ -129,7 +172,7 @@ public class Gpx11Format extends GpxFormat {
         List<GpxPosition> positions = new ArrayList<>();
         if (rteType != null) {
             for (WptType wptType : rteType.getRtept()) {
-                positions.add(new GpxPosition(wptType.getLon(), wptType.getLat(), wptType.getEle(), new GpxPositionExtension(wptType), parseXMLTime(wptType.getTime()), asDescription(wptType.getName(), wptType.getDesc()), wptType.getHdop(), wptType.getPdop(), wptType.getVdop(), wptType.getSat(), wptType));
+                positions.add(createPosition(wptType));
 
                 ExtensionsType extensions = wptType.getExtensions();
                 if (extensions != null) {
@@ -150,26 +193,6 @@ public class Gpx11Format extends GpxFormat {
         return positions;
     }
 
-    private List<GpxPosition> extractWayPoints(List<WptType> wptTypes) {
-        List<GpxPosition> positions = new ArrayList<>();
-        for (WptType wptType : wptTypes) {
-            positions.add(new GpxPosition(wptType.getLon(), wptType.getLat(), wptType.getEle(), new GpxPositionExtension(wptType), parseXMLTime(wptType.getTime()), asDescription(wptType.getName(), wptType.getDesc()), wptType.getHdop(), wptType.getPdop(), wptType.getVdop(), wptType.getSat(), wptType));
-        }
-        return positions;
-    }
-
-    private List<GpxPosition> extractTrack(TrkType trkType) {
-        List<GpxPosition> positions = new ArrayList<>();
-        if (trkType != null) {
-            for (TrksegType trkSegType : trkType.getTrkseg()) {
-                for (WptType wptType : trkSegType.getTrkpt()) {
-                    positions.add(new GpxPosition(wptType.getLon(), wptType.getLat(), wptType.getEle(), new GpxPositionExtension(wptType), parseXMLTime(wptType.getTime()), asDescription(wptType.getName(), wptType.getDesc()), wptType.getHdop(), wptType.getPdop(), wptType.getVdop(), wptType.getSat(), wptType));
-                }
-            }
-        }
-        return positions;
-    }
-
     private void setExtension(WptType wptType, String extensionNameToRemove, String extensionNameToAdd, Object extensionToAdd) {
         if (wptType.getExtensions() == null)
             wptType.setExtensions(new ObjectFactory().createExtensionsType());
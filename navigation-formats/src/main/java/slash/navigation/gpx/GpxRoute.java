@@ -126,6 +126,7 @@ public class GpxRoute extends BaseRoute<GpxPosition, GpxFormat> {
 
     public void add(int index, GpxPosition position) {
         positions.add(index, position);
+        modified(index);
     }
 
     public GpxPosition createPosition(Double longitude, Double latitude, Double elevation, Double speed, CompactCalendar time, String description) {
@@ -0,0 +1,175 @@
+/*
+    This file is part of RouteConverter.
+
+    RouteConverter is free software; you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation; either version 2 of the License, or
+    (at your option) any later version.
+
+    RouteConverter is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with RouteConverter; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+
+    Copyright (C) 2007 Christian Pesch. All Rights Reserved.
+*/
+
+package slash.navigation.gpx;
+
+import slash.common.helpers.JAXBHelper;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.util.StreamReaderDelegate;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Collections.emptyList;
+import static javax.xml.stream.XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES;
+
+/**
+ * Streams the way points and track points of a GPS Exchange Format (.gpx) file
+ * while JAXB unmarshals the rest of the document.
+ *
+ * The wpt and trkpt elements are hidden from the document {@link Unmarshaller}: each
+ * of them is unmarshalled on its own, converted to a {@link GpxPosition} and released.
+ * Thus the heap grows with the positions and not with the object tree of the file.
+ *
+ * @author Christian Pesch
+ */
+
+class GpxStreamReader extends StreamReaderDelegate {
+    interface PositionFactory {
+        GpxPosition createPosition(Object point, String creator);
+    }
+
+    private final JAXBContext context;
+    private final String namespaceUri;
+    private final Class<?> wayPointClass, trackPointClass;
+    private final PositionFactory wayPointFactory, trackPointFactory;
+    private final List<String> path = new ArrayList<>();
+    private final List<GpxPosition> wayPoints = new ArrayList<>();
+    private final List<List<GpxPosition>> tracks = new ArrayList<>();
+    private String creator;
+
+    GpxStreamReader(XMLStreamReader reader, JAXBContext context, String namespaceUri,
+                    Class<?> wayPointClass, PositionFactory wayPointFactory,
+                    Class<?> trackPointClass, PositionFactory trackPointFactory) {
+        super(reader);
+        this.context = context;
+        this.namespaceUri = namespaceUri;
+        this.wayPointClass = wayPointClass;
+        this.wayPointFactory = wayPointFactory;
+        this.trackPointClass = trackPointClass;
+        this.trackPointFactory = trackPointFactory;
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    static XMLStreamReader createXMLStreamReader(InputStream source) throws XMLStreamException {
+        return createInputFactory().createXMLStreamReader(source);
+    }
+
+    static XMLStreamReader createXMLStreamReader(Reader source) throws XMLStreamException {
+        return createInputFactory().createXMLStreamReader(source);
+    }
+
+    Object unmarshal() throws JAXBException {
+        return JAXBHelper.unmarshal(context, unmarshaller -> unmarshaller.unmarshal(this));
+    }
+
+    String getCreator() {
+        return creator;
+    }
+
+    List<GpxPosition> getWayPoints() {
+        return wayPoints;
+    }
+
+    List<GpxPosition> getTrackPoints(int trackIndex) {
+        return trackIndex < tracks.size() ? tracks.get(trackIndex) : emptyList();
+    }
+
+    private boolean isInNamespace() {
+        return namespaceUri.equals(getParent().getNamespaceURI());
+    }
+
+    private boolean isWayPoint() {
+        return path.size() == 1 && "wpt".equals(getParent().getLocalName());
+    }
+
+    private boolean isTrackPoint() {
+        return path.size() == 3 && "trk".equals(path.get(1)) && "trkseg".equals(path.get(2)) &&
+                "trkpt".equals(getParent().getLocalName());
+    }
+
+    private boolean isPointStart(int event) {
+        return event == START_ELEMENT && isInNamespace() && (isWayPoint() || isTrackPoint());
+    }
+
+    private boolean isPointEnd(int event) {
+        return event == END_ELEMENT && isInNamespace() && (isWayPoint() || isTrackPoint());
+    }
+
+    private void readPoint() throws XMLStreamException {
+        boolean wayPoint = isWayPoint();
+        Object point;
+        try {
+            Class<?> pointClass = wayPoint ? wayPointClass : trackPointClass;
+            point = JAXBHelper.unmarshal(context, unmarshaller -> unmarshaller.unmarshal(getParent(), pointClass).getValue());
+        } catch (JAXBException e) {
+            throw new XMLStreamException("Cannot unmarshal point: " + e, getLocation(), e);
+        }
+
+        if (wayPoint)
+            wayPoints.add(wayPointFactory.createPosition(point, creator));
+        else
+            tracks.get(tracks.size() - 1).add(trackPointFactory.createPosition(point, creator));
+    }
+
+    public int next() throws XMLStreamException {
+        int event = super.next();
+        while (isPointStart(event)) {
+            readPoint();
+
+            // depending on the JAXB implementation the reader stays on the end of the point or moves beyond
+            event = getParent().getEventType();
+            if (isPointEnd(event))
+                event = super.next();
+        }
+
+        if (event == START_ELEMENT) {
+            if (path.isEmpty())
+                creator = getAttributeValue(null, "creator");
+            else if (path.size() == 1 && isInNamespace() && "trk".equals(getLocalName()))
+                tracks.add(new ArrayList<GpxPosition>());
+            path.add(getLocalName());
+        } else if (event == END_ELEMENT)
+            path.remove(path.size() - 1);
+        return event;
+    }
+
+    public int nextTag() throws XMLStreamException {
+        int event = next();
+        while (event == CHARACTERS && isWhiteSpace() || event == CDATA && isWhiteSpace() ||
+                event == SPACE || event == PROCESSING_INSTRUCTION || event == COMMENT)
+            event = next();
+        if (event != START_ELEMENT && event != END_ELEMENT)
+            throw new XMLStreamException("Expected start or end tag", getLocation());
+        return event;
+    }
+}
@@ -96,6 +96,7 @@ public class TomTomRoute extends BaseRoute<TomTomPosition, TomTomRouteFormat> {
 
     public void add(int index, TomTomPosition position) {
         positions.add(index, position);
+        modified(index);
     }
 
     public TomTomPosition createPosition(Double longitude, Double latitude, Double elevation, Double speed, CompactCalendar time, String description) {
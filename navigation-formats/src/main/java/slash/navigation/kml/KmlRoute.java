@@ -93,6 +93,7 @@ public class KmlRoute extends BaseRoute<KmlPosition, BaseKmlFormat> {
 
     public void add(int index, KmlPosition position) {
         positions.add(index, position);
+        modified(index);
     }
 
     public KmlPosition createPosition(Double longitude, Double latitude, Double elevation, Double speed, CompactCalendar time, String description) {
@@ -112,6 +112,7 @@ public class NokiaLandmarkExchangeRoute extends BaseRoute<Wgs84Position, NokiaLa
 
     public void add(int index, Wgs84Position position) {
         positions.add(index, position);
+        modified(index);
     }
 
     public Wgs84Position createPosition(Double longitude, Double latitude, Double elevation, Double speed, CompactCalendar time, String description) {
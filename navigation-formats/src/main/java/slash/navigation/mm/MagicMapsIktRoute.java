@@ -103,6 +103,7 @@ public class MagicMapsIktRoute extends BaseRoute<Wgs84Position, MagicMapsIktForm
 
     public void add(int index, Wgs84Position position) {
         positions.add(index, position);
+        modified(index);
     }
 
     public Wgs84Position createPosition(Double longitude, Double latitude, Double elevation, Double speed, CompactCalendar time, String description) {
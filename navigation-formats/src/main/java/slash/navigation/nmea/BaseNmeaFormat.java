@@ -32,13 +32,10 @@ import java.text.DecimalFormat;
 import java.text.NumberFormat;
 import java.text.ParseException;
 import java.util.ArrayList;
-import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
 import java.util.logging.Logger;
 import java.util.prefs.Preferences;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import static java.lang.String.format;
 import static java.util.Locale.US;
@@ -63,8 +60,6 @@ public abstract class BaseNmeaFormat extends SimpleFormat<NmeaRoute> {
     static final String BEGIN_OF_LINE = "^\\$G[NP]";
     static final String END_OF_LINE = "\\*[0-9A-Fa-f][0-9A-Fa-f]$";
 
-    private static final Pattern LINE_PATTERN = Pattern.compile("(^@.*|^\\$.*|" + BEGIN_OF_LINE + ".*" + END_OF_LINE + ")");
-
     private static final String DATE_AND_PRECISE_TIME_FORMAT = "ddMMyy HHmmss.SSS";
     private static final String PRECISE_DATE_AND_TIME_FORMAT = "ddMMyyyy HHmmss";
     private static final String DATE_AND_TIME_FORMAT = "ddMMyy HHmmss";
@@ -118,8 +113,8 @@ public abstract class BaseNmeaFormat extends SimpleFormat<NmeaRoute> {
                 continue;
 
             if (isValidLine(line)) {
-                if (isPosition(line)) {
-                    NmeaPosition position = parsePosition(line);
+                NmeaPosition position = parseValidPosition(line);
+                if (position != null) {
                     boolean validStartDate = isValidStartDate(position.getTime());
                     if (validStartDate)
                         startDate = position.getTime();
@@ -179,7 +174,7 @@ public abstract class BaseNmeaFormat extends SimpleFormat<NmeaRoute> {
             position.setLongitudeAsValueAndOrientation(toBeMergedInto.getLongitudeAsValueAndOrientation());
         if (toBeMergedInto.hasTime() &&
                 (!position.hasTime() || isStartDateEqual(position.getTime(), originalStartDate) ||
-                        position.getTime().getCalendar().before(toBeMergedInto.getTime().getCalendar())))
+                        position.getTime().before(toBeMergedInto.getTime())))
             position.setTime(toBeMergedInto.getTime());
         if (isEmpty(position.getHdop()) && !isEmpty(toBeMergedInto.getHdop()))
             position.setHdop(toBeMergedInto.getHdop());
@@ -194,16 +189,19 @@ public abstract class BaseNmeaFormat extends SimpleFormat<NmeaRoute> {
     private boolean isStartDateEqual(CompactCalendar compactCalendar1, CompactCalendar compactCalendar2) {
         if (compactCalendar1 == null || compactCalendar2 == null)
             return false;
-        Calendar calendar1 = compactCalendar1.getCalendar();
-        Calendar calendar2 = compactCalendar2.getCalendar();
-        return calendar1.get(Calendar.YEAR) == calendar2.get(Calendar.YEAR) &&
-                calendar1.get(Calendar.MONTH) == calendar2.get(Calendar.MONTH) &&
-                calendar1.get(Calendar.DAY_OF_MONTH) == calendar2.get(Calendar.DAY_OF_MONTH);
+        return compactCalendar1.hasSameDate(compactCalendar2);
     }
 
     protected boolean isValidLine(String line) {
-        Matcher matcher = LINE_PATTERN.matcher(line);
-        return matcher.matches();
+        if (line.length() == 0 || line.charAt(0) != '@' && line.charAt(0) != '$')
+            return false;
+        // what the . of a regular expression does not match
+        for (int i = 1; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029')
+                return false;
+        }
+        return true;
     }
 
     private byte computeChecksum(String line) {
@@ -239,13 +237,17 @@ public abstract class BaseNmeaFormat extends SimpleFormat<NmeaRoute> {
 
     protected abstract NmeaPosition parsePosition(String line);
 
+    protected NmeaPosition parseValidPosition(String line) {
+        return isPosition(line) ? parsePosition(line) : null;
+    }
+
     protected CompactCalendar parseTime(String time) {
         time = trim(time);
         if (time == null)
             return null;
         // 130441.89
         try {
-            Date parsed = createDateFormat(PRECISE_TIME_FORMAT).parse(time);
+            Date parsed = getDateFormat(PRECISE_TIME_FORMAT).parse(time);
             return fromDate(parsed);
         } catch (ParseException e) {
             // intentionally left empty
@@ -265,14 +267,14 @@ public abstract class BaseNmeaFormat extends SimpleFormat<NmeaRoute> {
         String dateAndTime = date + " " + time;
         // date: 160607 time: 130441.89
         try {
-            Date parsed = createDateFormat(DATE_AND_PRECISE_TIME_FORMAT).parse(dateAndTime);
+            Date parsed = getDateFormat(DATE_AND_PRECISE_TIME_FORMAT).parse(dateAndTime);
             return fromDate(parsed);
         } catch (ParseException e) {
             // intentionally left empty
         }
         // date: 160607 time: 130441
         try {
-            Date parsed = createDateFormat(DATE_AND_TIME_FORMAT).parse(dateAndTime);
+            Date parsed = getDateFormat(DATE_AND_TIME_FORMAT).parse(dateAndTime);
             return fromDate(parsed);
         } catch (ParseException e) {
             // intentionally left empty
@@ -285,13 +287,13 @@ public abstract class BaseNmeaFormat extends SimpleFormat<NmeaRoute> {
     protected String formatTime(CompactCalendar time) {
         if (time == null)
             return "";
-        return createDateFormat(PRECISE_TIME_FORMAT).format(time.getTime());
+        return getDateFormat(PRECISE_TIME_FORMAT).format(time.getTime());
     }
 
     protected String formatDate(CompactCalendar date) {
         if (date == null)
             return "";
-        return createDateFormat(DATE_FORMAT).format(date.getTime());
+        return getDateFormat(DATE_FORMAT).format(date.getTime());
     }
 
     protected String formatLongitude(Double longitude) {
@@ -35,9 +35,10 @@ import java.util.regex.Pattern;
 
 import static java.util.Locale.US;
 import static slash.common.io.Transfer.*;
-import static slash.common.type.CompactCalendar.createDateFormat;
+import static slash.common.type.CompactCalendar.getDateFormat;
 import static slash.navigation.common.UnitConversion.kiloMeterToNauticMiles;
 import static slash.navigation.common.UnitConversion.nauticMilesToKiloMeter;
+import static slash.navigation.nmea.NmeaTokenizer.NOT_TOKENIZED;
 
 /**
  * Reads and writes NMEA 0183 Sentences (.nmea) files.
@@ -188,6 +189,8 @@ public class NmeaFormat extends BaseNmeaFormat {
                     "([\\d\\.]*)" +              // VDOP
                     END_OF_LINE);
 
+    private final NmeaTokenizer tokenizer = new NmeaTokenizer(this);
+
     public String getExtension() {
         return ".nmea";
     }
@@ -234,6 +237,11 @@ public class NmeaFormat extends BaseNmeaFormat {
         return gsaMatcher.matches() && hasValidChecksum(line) && hasValidFix(line, gsaMatcher.group(1), "1");
     }
 
+    protected NmeaPosition parseValidPosition(String line) {
+        NmeaPosition position = tokenizer.parsePosition(line);
+        return position != NOT_TOKENIZED ? position : super.parseValidPosition(line);
+    }
+
     protected NmeaPosition parsePosition(String line) {
         Matcher rmcMatcher = RMC_PATTERN.matcher(line);
         if (rmcMatcher.matches()) {
@@ -353,19 +361,19 @@ public class NmeaFormat extends BaseNmeaFormat {
     private String formatDay(CompactCalendar date) {
         if (date == null)
             return "";
-        return createDateFormat(DAY_FORMAT).format(date.getTime());
+        return getDateFormat(DAY_FORMAT).format(date.getTime());
     }
 
     private String formatMonth(CompactCalendar date) {
         if (date == null)
             return "";
-        return createDateFormat(MONTH_FORMAT).format(date.getTime());
+        return getDateFormat(MONTH_FORMAT).format(date.getTime());
     }
 
     private String formatYear(CompactCalendar date) {
         if (date == null)
             return "";
-        return createDateFormat(YEAR_FORMAT).format(date.getTime());
+        return getDateFormat(YEAR_FORMAT).format(date.getTime());
     }
 
     private String formatAltitude(Double altitude) {
@@ -0,0 +1,513 @@
+/*
+    This file is part of RouteConverter.
+
+    RouteConverter is free software; you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation; either version 2 of the License, or
+    (at your option) any later version.
+
+    RouteConverter is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with RouteConverter; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+
+    Copyright (C) 2007 Christian Pesch. All Rights Reserved.
+*/
+
+package slash.navigation.nmea;
+
+import slash.common.type.CompactCalendar;
+
+import java.util.Calendar;
+
+import static java.lang.Double.NEGATIVE_INFINITY;
+import static java.lang.Double.NaN;
+import static java.lang.Double.isNaN;
+import static java.lang.Math.abs;
+import static java.lang.Math.min;
+import static java.util.Calendar.YEAR;
+import static slash.common.io.Transfer.trim;
+import static slash.common.type.CompactCalendar.fromMillis;
+import static slash.navigation.common.UnitConversion.nauticMilesToKiloMeter;
+import static slash.navigation.nmea.BaseNmeaFormat.SEPARATOR;
+
+/**
+ * Tokenizes the GGA, RMC, GSA, VTG, ZDA and WPL sentences of the {@link NmeaFormat}
+ * without regular expressions and intermediate strings.
+ *
+ * Only the strict form of the sentences that the patterns of the {@link NmeaFormat}
+ * match, too, is tokenized; everything else is left to the patterns.
+ *
+ * @author Christian Pesch
+ */
+
+final class NmeaTokenizer {
+    static final NmeaPosition NOT_TOKENIZED = new NmeaPosition(null, null, null, null, null, null);
+
+    private static final int FIRST_FIELD = 7;
+    private static final int MAXIMUM_EXACT_DIGITS = 15;
+    private static final double[] POWERS_OF_TEN = new double[]{
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15
+    };
+    private static final double MALFORMED_NUMBER = NEGATIVE_INFINITY;
+    private static final long NO_TIME = -1;
+    private static final long MALFORMED_TIME = -2;
+    private static final long MILLISECONDS_OF_A_DAY = 24 * 60 * 60 * 1000L;
+    // the start of the century in which SimpleDateFormat places two digit years
+    private static final int TWO_DIGIT_YEAR_START = Calendar.getInstance().get(YEAR) - 80;
+
+    private final BaseNmeaFormat format;
+
+    NmeaTokenizer(BaseNmeaFormat format) {
+        this.format = format;
+    }
+
+    NmeaPosition parsePosition(String line) {
+        int length = line.length();
+        if (length <= FIRST_FIELD || line.charAt(0) != '$' || line.charAt(1) != 'G' ||
+                (line.charAt(2) != 'N' && line.charAt(2) != 'P') || line.charAt(FIRST_FIELD - 1) != SEPARATOR)
+            return NOT_TOKENIZED;
+
+        boolean hasChecksum = length >= FIRST_FIELD + 3 && line.charAt(length - 3) == '*' &&
+                hexValue(line.charAt(length - 2)) != -1 && hexValue(line.charAt(length - 1)) != -1;
+        int end = hasChecksum ? length - 3 : length;
+        int checksum = 0;
+        int fields = 1;
+        for (int i = 1; i < end; i++) {
+            char c = line.charAt(i);
+            if (c < ' ' || c > '~' || c == '*')
+                return NOT_TOKENIZED;
+            if (c == SEPARATOR && i >= FIRST_FIELD)
+                fields++;
+            checksum ^= c;
+        }
+        boolean validChecksum = hasChecksum &&
+                checksum == (hexValue(line.charAt(length - 2)) << 4 | hexValue(line.charAt(length - 1)));
+
+        if (isSentence(line, "WPL"))
+            return fields >= 5 ? parseWPL(line, end, !hasChecksum || validChecksum) : NOT_TOKENIZED;
+        if (!hasChecksum)
+            return NOT_TOKENIZED;
+        if (isSentence(line, "RMC"))
+            return fields >= 10 ? parseRMC(line, end, validChecksum) : NOT_TOKENIZED;
+        if (isSentence(line, "GGA"))
+            return fields >= 13 ? parseGGA(line, end, validChecksum) : NOT_TOKENIZED;
+        if (isSentence(line, "ZDA"))
+            return fields == 6 ? parseZDA(line, end, validChecksum) : NOT_TOKENIZED;
+        if (isSentence(line, "VTG"))
+            return fields == 9 ? parseVTG(line, end, validChecksum) : NOT_TOKENIZED;
+        if (isSentence(line, "GSA"))
+            return fields == 17 ? parseGSA(line, end, validChecksum) : NOT_TOKENIZED;
+        return NOT_TOKENIZED;
+    }
+
+    // $GPRMC,180114,A,4808.9490,N,00928.9610,E,000.0,000.0,160607,,,A*76
+    private NmeaPosition parseRMC(String line, int end, boolean validChecksum) {
+        int from = FIRST_FIELD, to = fieldEnd(line, from, end);
+        long time = parseTime(line, from, to);
+        from = to + 1; to = fieldEnd(line, from, end);
+        char status = parseCharacter(line, from, to, "AV");
+        from = to + 1; to = fieldEnd(line, from, end);
+        double latitude = parseNumber(line, from, to, false);
+        from = to + 1; to = fieldEnd(line, from, end);
+        char northOrSouth = parseCharacter(line, from, to, "NS");
+        from = to + 1; to = fieldEnd(line, from, end);
+        double longitude = parseNumber(line, from, to, false);
+        from = to + 1; to = fieldEnd(line, from, end);
+        char eastOrWest = parseCharacter(line, from, to, "EW");
+        from = to + 1; to = fieldEnd(line, from, end);
+        double speed = parseNumber(line, from, to, false);
+        from = to + 1; to = fieldEnd(line, from, end);
+        double heading = parseNumber(line, from, to, false);
+        from = to + 1; to = fieldEnd(line, from, end);
+        long date = parseDate(line, from, to);
+        int signalIntegrity = parseRMCSignalIntegrity(line, to, end);
+        if (time == MALFORMED_TIME || status == 0 || !isPresent(latitude) || northOrSouth == 0 ||
+                !isPresent(longitude) || eastOrWest == 0 || speed == MALFORMED_NUMBER || heading == MALFORMED_NUMBER ||
+                date == MALFORMED_TIME || date != NO_TIME && time == NO_TIME || signalIntegrity == -1)
+            return NOT_TOKENIZED;
+
+        if (!isValid(line, validChecksum) || !hasFix(line, signalIntegrity == 'N', "N"))
+            return null;
+        return new NmeaPosition(longitude, orientation(eastOrWest), latitude, orientation(northOrSouth), null,
+                isNaN(speed) ? null : nauticMilesToKiloMeter(speed), toDouble(heading),
+                toCalendar(date != NO_TIME ? date : 0, time), null);
+    }
+
+    // ,[\d.]*,[\d.]*,?[ADEW]?,?([ADEMNSV])? with the groups of a greedy match
+    private static int parseRMCSignalIntegrity(String line, int from, int end) {
+        int i = from;
+        for (int field = 0; field < 2; field++) {
+            if (i >= end || line.charAt(i++) != SEPARATOR)
+                return -1;
+            while (i < end && isDigitOrDot(line.charAt(i)))
+                i++;
+        }
+
+        for (int separator1 = 1; separator1 >= 0; separator1--) {
+            for (int direction = 1; direction >= 0; direction--) {
+                for (int separator2 = 1; separator2 >= 0; separator2--) {
+                    for (int signalIntegrity = 1; signalIntegrity >= 0; signalIntegrity--) {
+                        if (i + separator1 + direction + separator2 + signalIntegrity != end)
+                            continue;
+                        int j = i;
+                        if (separator1 == 1 && line.charAt(j++) != SEPARATOR)
+                            continue;
+                        if (direction == 1 && "ADEW".indexOf(line.charAt(j++)) == -1)
+                            continue;
+                        if (separator2 == 1 && line.charAt(j++) != SEPARATOR)
+                            continue;
+                        if (signalIntegrity == 1 && "ADEMNSV".indexOf(line.charAt(j)) == -1)
+                            continue;
+                        return signalIntegrity == 1 ? line.charAt(j) : 0;
+                    }
+                }
+            }
+        }
+        return -1;
+    }
+
+    // $GPGGA,130441.89,5239.3154,N,00907.7011,E,1,08,1.25,16.76,M,46.79,M,,*6D
+    private NmeaPosition parseGGA(String line, int end, boolean validChecksum) {
+        int from = FIRST_FIELD, to = fieldEnd(line, from, end);
+        long time = parseTime(line, from, to);
+        from = to + 1; to = fieldEnd(line, from, end);
+        double latitude = parseNumber(line, from, to, false);
+        from = to + 1; to = fieldEnd(line, from, end);
+        char northOrSouth = parseCharacter(line, from, to, "NS");
+        from = to + 1; to = fieldEnd(line, from, end);
+        double longitude = parseNumber(line, from, to, false);
+        from = to + 1; to = fieldEnd(line, from, end);
+        char eastOrWest = parseCharacter(line, from, to, "WE");
+        from = to + 1; to = fieldEnd(line, from, end);
+        char fix = parseCharacter(line, from, to, "0123456789+");
+        from = to + 1; to = fieldEnd(line, from, end);
+        int satellites = from == to ? -1 : to - from <= 9 && isDigits(line, from, to) ? parseDigits(line, from, to) : -2;
+        from = to + 1; to = fieldEnd(line, from, end);
+        boolean hdop = isCharacters(line, from, to, "0123456789.");
+        from = to + 1; to = fieldEnd(line, from, end);
+        double altitude = parseNumber(line, from, to, true);
+        from = to + 1; to = fieldEnd(line, from, end);
+        char altitudeUnit = parseCharacter(line, from, to, "M");
+        from = to + 1; to = fieldEnd(line, from, end);
+        boolean geoidSeparation = isCharacters(line, from, to, "-?0123456789.");
+        from = to + 1; to = fieldEnd(line, from, end);
+        boolean geoidSeparationUnit = from == to || parseCharacter(line, from, to, "M") != 0;
+        if (time == MALFORMED_TIME || !isPresent(latitude) || northOrSouth == 0 || !isPresent(longitude) ||
+                eastOrWest == 0 || fix == 0 || satellites == -2 || !hdop || altitude == MALFORMED_NUMBER ||
+                altitudeUnit == 0 || !geoidSeparation || !geoidSeparationUnit)
+            return NOT_TOKENIZED;
+
+        if (!isValid(line, validChecksum) || !hasFix(line, fix == '0', "0"))
+            return null;
+        NmeaPosition position = new NmeaPosition(longitude, orientation(eastOrWest), latitude, orientation(northOrSouth),
+                toDouble(altitude), null, null, toCalendar(0, time), null);
+        position.setSatellites(satellites != -1 ? satellites : null);
+        return position;
+    }
+
+    // $GPZDA,032910.542,07,08,2004,00,00*48
+    private NmeaPosition parseZDA(String line, int end, boolean validChecksum) {
+        int from = FIRST_FIELD, to = fieldEnd(line, from, end);
+        long time = parseTime(line, from, to);
+        int dayFrom = to + 1, dayTo = fieldEnd(line, dayFrom, end);
+        int monthFrom = dayTo + 1, monthTo = fieldEnd(line, monthFrom, end);
+        int yearFrom = monthTo + 1, yearTo = fieldEnd(line, yearFrom, end);
+        from = yearTo + 1; to = fieldEnd(line, from, end);
+        boolean localZoneHours = isDigits(line, from, to);
+        boolean localZoneMinutes = isDigits(line, to + 1, end);
+        long date = NO_TIME;
+        if (dayTo - dayFrom == 2 && monthTo - monthFrom == 2 && yearTo - yearFrom == 4 &&
+                isDigits(line, dayFrom, dayTo) && isDigits(line, monthFrom, monthTo) && isDigits(line, yearFrom, yearTo))
+            date = toDays(parseDigits(line, yearFrom, yearTo), parseDigits(line, monthFrom, monthTo),
+                    parseDigits(line, dayFrom, dayTo));
+        else if (dayFrom != dayTo || monthFrom != monthTo || yearFrom != yearTo)
+            date = MALFORMED_TIME;
+        if (time == MALFORMED_TIME || date == MALFORMED_TIME || date != NO_TIME && time == NO_TIME ||
+                !localZoneHours || !localZoneMinutes)
+            return NOT_TOKENIZED;
+
+        if (!isValid(line, validChecksum))
+            return null;
+        return new NmeaPosition(null, null, null, null, null, null, null,
+                toCalendar(date != NO_TIME ? date : 0, time), null);
+    }
+
+    // $GPVTG,138.7,T,,M,014.2,N,026.3,K,A*00
+    private NmeaPosition parseVTG(String line, int end, boolean validChecksum) {
+        int from = FIRST_FIELD, to = fieldEnd(line, from, end);
+        double heading = parseNumber(line, from, to, false);
+        from = to + 1; to = fieldEnd(line, from, end);
+        char trueCourse = parseCharacter(line, from, to, "T");
+        from = to + 1; to = fieldEnd(line, from, end);
+        boolean magneticCourse = isCharacters(line, from, to, "0123456789.");
+        from = to + 1; to = fieldEnd(line, from, end);
+        char magnetic = parseCharacter(line, from, to, "M");
+        from = to + 1; to = fieldEnd(line, from, end);
+        double knots = parseNumber(line, from, to, false);
+        from = to + 1; to = fieldEnd(line, from, end);
+        char nauticMiles = parseCharacter(line, from, to, "N");
+        from = to + 1; to = fieldEnd(line, from, end);
+        double kiloMetersPerHour = parseNumber(line, from, to, false);
+        from = to + 1; to = fieldEnd(line, from, end);
+        char kiloMeters = parseCharacter(line, from, to, "K");
+        from = to + 1; to = fieldEnd(line, from, end);
+        char mode = parseCharacter(line, from, to, "ADEN");
+        if (heading == MALFORMED_NUMBER || trueCourse == 0 || !magneticCourse || magnetic == 0 ||
+                knots == MALFORMED_NUMBER || nauticMiles == 0 || kiloMetersPerHour == MALFORMED_NUMBER ||
+                kiloMeters == 0 || mode == 0)
+            return NOT_TOKENIZED;
+
+        if (!isValid(line, validChecksum) || !hasFix(line, mode == 'N', "N"))
+            return null;
+        Double speed = !isNaN(kiloMetersPerHour) ? Double.valueOf(kiloMetersPerHour) :
+                !isNaN(knots) ? Double.valueOf(nauticMilesToKiloMeter(knots)) : null;
+        return new NmeaPosition(null, null, null, null, null, speed, toDouble(heading), null, null);
+    }
+
+    // $GPGSA,A,3,,,,15,17,18,23,,,,,,4.7,4.4,1.5*3F
+    private NmeaPosition parseGSA(String line, int end, boolean validChecksum) {
+        int from = FIRST_FIELD, to = fieldEnd(line, from, end);
+        char selection = parseCharacter(line, from, to, "AM");
+        from = to + 1; to = fieldEnd(line, from, end);
+        char fix = parseCharacter(line, from, to, "123");
+        boolean satellites = true;
+        for (int i = 0; i < 12; i++) {
+            from = to + 1; to = fieldEnd(line, from, end);
+            satellites &= isDigits(line, from, to);
+        }
+        from = to + 1; to = fieldEnd(line, from, end);
+        double pdop = parseNumber(line, from, to, false);
+        from = to + 1; to = fieldEnd(line, from, end);
+        double hdop = parseNumber(line, from, to, false);
+        from = to + 1; to = fieldEnd(line, from, end);
+        double vdop = parseNumber(line, from, to, false);
+        if (selection == 0 || fix == 0 || !satellites || pdop == MALFORMED_NUMBER || hdop == MALFORMED_NUMBER ||
+                vdop == MALFORMED_NUMBER)
+            return NOT_TOKENIZED;
+
+        if (!isValid(line, validChecksum) || !hasFix(line, fix == '1', "1"))
+            return null;
+        NmeaPosition position = new NmeaPosition(null, null, null, null, null, null, null, null, null);
+        position.setPdop(toDouble(pdop));
+        position.setHdop(toDouble(hdop));
+        position.setVdop(toDouble(vdop));
+        return position;
+    }
+
+    // $GPWPL,5334.169,N,01001.920,E,STATN1*22
+    private NmeaPosition parseWPL(String line, int end, boolean validChecksum) {
+        int from = FIRST_FIELD, to = fieldEnd(line, from, end);
+        double latitude = parseNumber(line, from, to, false);
+        from = to + 1; to = fieldEnd(line, from, end);
+        char northOrSouth = parseCharacter(line, from, to, "NS");
+        from = to + 1; to = fieldEnd(line, from, end);
+        double longitude = parseNumber(line, from, to, false);
+        from = to + 1; to = fieldEnd(line, from, end);
+        char eastOrWest = parseCharacter(line, from, to, "WE");
+        if (!isPresent(latitude) || northOrSouth == 0 || !isPresent(longitude) || eastOrWest == 0)
+            return NOT_TOKENIZED;
+
+        if (!isValid(line, validChecksum))
+            return null;
+        return new NmeaPosition(longitude, orientation(eastOrWest), latitude, orientation(northOrSouth),
+                null, null, null, null, trim(line.substring(to + 1, end)));
+    }
+
+    private boolean isValid(String line, boolean validChecksum) {
+        return validChecksum || format.hasValidChecksum(line);
+    }
+
+    private boolean hasFix(String line, boolean noFix, String valueThatIndicatesNoFix) {
+        return !noFix || format.hasValidFix(line, valueThatIndicatesNoFix, valueThatIndicatesNoFix);
+    }
+
+    private static boolean isSentence(String line, String sentence) {
+        return line.startsWith(sentence, 3);
+    }
+
+    private static int fieldEnd(String line, int from, int end) {
+        int i = from;
+        while (i < end && line.charAt(i) != SEPARATOR)
+            i++;
+        return i;
+    }
+
+    private static int hexValue(char c) {
+        if (c >= '0' && c <= '9')
+            return c - '0';
+        if (c >= 'A' && c <= 'F')
+            return c - 'A' + 10;
+        if (c >= 'a' && c <= 'f')
+            return c - 'a' + 10;
+        return -1;
+    }
+
+    private static boolean isDigitOrDot(char c) {
+        return c >= '0' && c <= '9' || c == '.';
+    }
+
+    private static boolean isDigits(String line, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = line.charAt(i);
+            if (c < '0' || c > '9')
+                return false;
+        }
+        return true;
+    }
+
+    private static boolean isCharacters(String line, int from, int to, String characters) {
+        for (int i = from; i < to; i++) {
+            if (characters.indexOf(line.charAt(i)) == -1)
+                return false;
+        }
+        return true;
+    }
+
+    private static int parseDigits(String line, int from, int to) {
+        int result = 0;
+        for (int i = from; i < to; i++)
+            result = result * 10 + line.charAt(i) - '0';
+        return result;
+    }
+
+    private static char parseCharacter(String line, int from, int to, String characters) {
+        if (to - from != 1)
+            return 0;
+        char c = line.charAt(from);
+        return characters.indexOf(c) != -1 ? c : 0;
+    }
+
+    private static String orientation(char c) {
+        switch (c) {
+            case 'N':
+                return "N";
+            case 'S':
+                return "S";
+            case 'E':
+                return "E";
+            default:
+                return "W";
+        }
+    }
+
+    // NaN for an empty field, the exact result of Double.parseDouble() for a number and MALFORMED_NUMBER else
+    static double parseNumber(String line, int from, int to, boolean signed) {
+        if (from == to)
+            return NaN;
+        boolean negative = signed && line.charAt(from) == '-';
+        long mantissa = 0;
+        int digits = 0, fractionDigits = 0;
+        boolean fraction = false;
+        for (int i = negative ? from + 1 : from; i < to; i++) {
+            char c = line.charAt(i);
+            if (c == '.') {
+                if (fraction)
+                    return MALFORMED_NUMBER;
+                fraction = true;
+            } else if (c >= '0' && c <= '9') {
+                mantissa = mantissa * 10 + c - '0';
+                digits++;
+                if (fraction)
+                    fractionDigits++;
+            } else
+                return MALFORMED_NUMBER;
+        }
+        if (digits == 0)
+            return MALFORMED_NUMBER;
+        if (digits > MAXIMUM_EXACT_DIGITS)
+            return Double.parseDouble(line.substring(from, to));
+        // both are exact as doubles and the division rounds only once
+        double value = mantissa / POWERS_OF_TEN[fractionDigits];
+        return negative ? -value : value;
+    }
+
+    private static boolean isPresent(double number) {
+        return !isNaN(number) && number != MALFORMED_NUMBER;
+    }
+
+    private static Double toDouble(double number) {
+        return isNaN(number) ? null : number;
+    }
+
+    // HHmmss with an optional fraction that SimpleDateFormat counts in milliseconds: .89 are 89 milliseconds
+    static long parseTime(String line, int from, int to) {
+        if (from == to)
+            return NO_TIME;
+        if (to - from < 6 || !isDigits(line, from, from + 6))
+            return MALFORMED_TIME;
+        int hours = parseDigits(line, from, from + 2);
+        int minutes = parseDigits(line, from + 2, from + 4);
+        int seconds = parseDigits(line, from + 4, from + 6);
+        if (hours > 23 || minutes > 59 || seconds > 59)
+            return MALFORMED_TIME;
+
+        int milliseconds = 0;
+        if (to - from > 6) {
+            int fractionFrom = from + 7;
+            if (line.charAt(from + 6) != '.' || to - fractionFrom < 1 || to - fractionFrom > 3 ||
+                    !isDigits(line, fractionFrom, to))
+                return MALFORMED_TIME;
+            milliseconds = parseDigits(line, fractionFrom, to);
+        }
+        return ((hours * 60L + minutes) * 60 + seconds) * 1000 + milliseconds;
+    }
+
+    // ddMMyy in days since the epoch
+    static long parseDate(String line, int from, int to) {
+        if (from == to)
+            return NO_TIME;
+        if (to - from != 6 || !isDigits(line, from, to))
+            return MALFORMED_TIME;
+        int year = toYear(parseDigits(line, from + 4, to));
+        if (year == -1)
+            return MALFORMED_TIME;
+        return toDays(year, parseDigits(line, from + 2, from + 4), parseDigits(line, from, from + 2));
+    }
+
+    // -1 if the two digit year is that close to the century start that SimpleDateFormat had to look at the date
+    private static int toYear(int twoDigitYear) {
+        int distance = abs(twoDigitYear - TWO_DIGIT_YEAR_START % 100);
+        if (min(distance, 100 - distance) <= 2)
+            return -1;
+        return TWO_DIGIT_YEAR_START / 100 * 100 + twoDigitYear + (twoDigitYear < TWO_DIGIT_YEAR_START % 100 ? 100 : 0);
+    }
+
+    private static long toDays(int year, int month, int day) {
+        if (year < 1900 || month < 1 || month > 12 || day < 1 || day > getDaysOfMonth(year, month))
+            return MALFORMED_TIME;
+        // count in years that start with March to have the leap day at their end
+        int marchYear = month > 2 ? year : year - 1;
+        int dayOfMarchYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        // the first of January is the 306th day of a year that starts with March
+        return getDaysOfMarchYears(marchYear) - getDaysOfMarchYears(1969) + dayOfMarchYear - 306;
+    }
+
+    private static long getDaysOfMarchYears(int marchYear) {
+        return 365L * marchYear + marchYear / 4 - marchYear / 100 + marchYear / 400;
+    }
+
+    private static int getDaysOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return year % 4 == 0 && (year % 100 != 0 || year % 400 == 0) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    private static CompactCalendar toCalendar(long days, long time) {
+        if (time == NO_TIME)
+            return null;
+        return fromMillis(days * MILLISECONDS_OF_A_DAY + time);
+    }
+}
@@ -62,18 +62,21 @@ public class NavigatingPoiWarnerFormat extends SimpleLineBasedFormat<SimpleRoute
         return new Wgs84Route(this, characteristics, (List<Wgs84Position>) positions);
     }
 
+    protected boolean isValidFirstCharacter(char first) {
+        return first == ';' || isNumberOrWhiteSpace(first);
+    }
+
     protected boolean isValidLine(String line) {
         return isPosition(line) || line.trim().startsWith(";");
     }
 
     protected boolean isPosition(String line) {
-        Matcher matcher = LINE_PATTERN.matcher(line);
-        return matcher.matches();
+        return match(LINE_PATTERN, line) != null;
     }
 
     protected Wgs84Position parsePosition(String line, ParserContext context) {
-        Matcher lineMatcher = LINE_PATTERN.matcher(line);
-        if (!lineMatcher.matches())
+        Matcher lineMatcher = match(LINE_PATTERN, line);
+        if (lineMatcher == null)
             throw new IllegalArgumentException("'" + line + "' does not match");
         String longitude = lineMatcher.group(1);
         String latitude = lineMatcher.group(2);
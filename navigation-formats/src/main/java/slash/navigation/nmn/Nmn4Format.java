@@ -66,8 +66,7 @@ public class Nmn4Format extends NmnFormat {
     }
 
     protected boolean isPosition(String line) {
-        Matcher matcher = LINE_PATTERN.matcher(line);
-        return matcher.matches();
+        return match(LINE_PATTERN, line) != null;
     }
 
     private static String parseForNmn4(String string) {
@@ -81,8 +80,8 @@ public class Nmn4Format extends NmnFormat {
     }
 
     protected NmnPosition parsePosition(String line, ParserContext context) {
-        Matcher lineMatcher = LINE_PATTERN.matcher(line);
-        if (!lineMatcher.matches())
+        Matcher lineMatcher = match(LINE_PATTERN, line);
+        if (lineMatcher == null)
             throw new IllegalArgumentException("'" + line + "' does not match");
 
         String zip = parseForNmn4(lineMatcher.group(1));
@@ -57,8 +57,7 @@ public class Nmn5Format extends NmnFormat {
 
 
     protected boolean isPosition(String line) {
-        Matcher matcher = LINE_PATTERN.matcher(line);
-        return matcher.matches();
+        return match(LINE_PATTERN, line) != null;
     }
 
     private static String parseForNmn5(String string) {
@@ -71,8 +70,8 @@ public class Nmn5Format extends NmnFormat {
     }
 
     protected NmnPosition parsePosition(String line, ParserContext context) {
-        Matcher lineMatcher = LINE_PATTERN.matcher(line);
-        if (!lineMatcher.matches())
+        Matcher lineMatcher = match(LINE_PATTERN, line);
+        if (lineMatcher == null)
             throw new IllegalArgumentException("'" + line + "' does not match");
 
         String city = parseForNmn5(lineMatcher.group(1));
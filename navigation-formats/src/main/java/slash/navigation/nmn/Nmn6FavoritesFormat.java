@@ -64,14 +64,17 @@ public class Nmn6FavoritesFormat extends NmnFormat {
         return "Navigon Mobile Navigator 6 Favorites (*" + getExtension() + ")";
     }
 
+    protected boolean isValidFirstCharacter(char first) {
+        return first == LEFT_BRACE;
+    }
+
     protected boolean isPosition(String line) {
-        Matcher matcher = POSITION_PATTERN.matcher(line);
-        return matcher.matches();
+        return match(POSITION_PATTERN, line) != null;
     }
 
     protected NmnPosition parsePosition(String line, ParserContext context) {
-        Matcher lineMatcher = POSITION_PATTERN.matcher(line);
-        if (!lineMatcher.matches())
+        Matcher lineMatcher = match(POSITION_PATTERN, line);
+        if (lineMatcher == null)
             throw new IllegalArgumentException("'" + line + "' does not match");
         String city = trim(lineMatcher.group(1));
         String longitude = lineMatcher.group(2);
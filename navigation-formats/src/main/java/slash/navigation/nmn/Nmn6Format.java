@@ -58,19 +58,21 @@ public class Nmn6Format extends NmnFormat {
         return "Navigon Mobile Navigator 6 (*" + getExtension() + ")";
     }
 
+    protected boolean isValidFirstCharacter(char first) {
+        return first == LEFT_BRACE;
+    }
+
     protected boolean isValidLine(String line) {
-        Matcher matcher = LINE_PATTERN.matcher(line);
-        return matcher.matches() || isPosition(line);
+        return match(LINE_PATTERN, line) != null || isPosition(line);
     }
 
     protected boolean isPosition(String line) {
-        Matcher matcher = POSITION_PATTERN.matcher(line);
-        return matcher.matches();
+        return match(POSITION_PATTERN, line) != null;
     }
 
     protected NmnPosition parsePosition(String line, ParserContext context) {
-        Matcher lineMatcher = POSITION_PATTERN.matcher(line);
-        if (!lineMatcher.matches())
+        Matcher lineMatcher = match(POSITION_PATTERN, line);
+        if (lineMatcher == null)
             throw new IllegalArgumentException("'" + line + "' does not match");
         String description = lineMatcher.group(1);
         String longitude = lineMatcher.group(2);
@@ -120,6 +120,7 @@ public class OvlRoute extends BaseRoute<Wgs84Position, OvlFormat> {
 
     public void add(int index, Wgs84Position position) {
         positions.add(index, position);
+        modified(index);
     }
 
     public Wgs84Position createPosition(Double longitude, Double latitude, Double elevation, Double speed, CompactCalendar time, String description) {
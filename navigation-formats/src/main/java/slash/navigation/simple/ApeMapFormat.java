@@ -95,13 +95,11 @@ public class ApeMapFormat extends SimpleLineBasedFormat<SimpleRoute> {
     }
 
     protected boolean isPosition(String line) {
-        Matcher matcher = LINE_PATTERN.matcher(line);
-        return matcher.matches();
+        return match(LINE_PATTERN, line) != null;
     }
 
     private boolean isStartPosition(String line) {
-        Matcher matcher = START_POSITION_PATTERN.matcher(line);
-        return matcher.matches();
+        return match(START_POSITION_PATTERN, line) != null;
     }
 
     private CompactCalendar parseTime(String time) {
@@ -112,8 +110,8 @@ public class ApeMapFormat extends SimpleLineBasedFormat<SimpleRoute> {
     }
 
     protected Wgs84Position parsePosition(String line, ParserContext context) {
-        Matcher lineMatcher = LINE_PATTERN.matcher(line);
-        if (!lineMatcher.matches())
+        Matcher lineMatcher = match(LINE_PATTERN, line);
+        if (lineMatcher == null)
             throw new IllegalArgumentException("'" + line + "' does not match");
         String latitude = lineMatcher.group(1);
         String longitude = lineMatcher.group(2);
@@ -73,25 +73,28 @@ public class GlopusFormat extends SimpleLineBasedFormat<SimpleRoute> {
         return new Wgs84Route(this, characteristics, (List<Wgs84Position>) positions);
     }
 
+    protected boolean isValidFirstCharacter(char first) {
+        return isNumberOrWhiteSpace(first);
+    }
+
     protected boolean isPosition(String line) {
-        Matcher commentMatcher = COMMENT_LINE_PATTERN.matcher(line);
-        if (commentMatcher.matches())
+        Matcher commentMatcher = match(COMMENT_LINE_PATTERN, line);
+        if (commentMatcher != null)
             return true;
-        Matcher simpleMatcher = SIMPLE_LINE_PATTERN.matcher(line);
-        return simpleMatcher.matches();
+        return match(SIMPLE_LINE_PATTERN, line) != null;
     }
 
     protected Wgs84Position parsePosition(String line, ParserContext context) {
-        Matcher commentMatcher = COMMENT_LINE_PATTERN.matcher(line);
-        if (commentMatcher.matches()) {
+        Matcher commentMatcher = match(COMMENT_LINE_PATTERN, line);
+        if (commentMatcher != null) {
             String latitude = commentMatcher.group(1);
             String longitude = commentMatcher.group(2);
             String description = commentMatcher.group(3);
             return new Wgs84Position(parseDouble(longitude), parseDouble(latitude), null, null, null, trim(description));
         }
 
-        Matcher simpleMatcher = SIMPLE_LINE_PATTERN.matcher(line);
-        if (simpleMatcher.matches()) {
+        Matcher simpleMatcher = match(SIMPLE_LINE_PATTERN, line);
+        if (simpleMatcher != null) {
             String latitude = simpleMatcher.group(1);
             String longitude = simpleMatcher.group(2);
             return new Wgs84Position(parseDouble(longitude), parseDouble(latitude), null, null, null, null);
@@ -116,8 +116,7 @@ public class HaicomLoggerFormat extends SimpleLineBasedFormat<SimpleRoute> {
     }
 
     protected boolean isPosition(String line) {
-        Matcher matcher = LINE_PATTERN.matcher(line);
-        return matcher.matches();
+        return match(LINE_PATTERN, line) != null;
     }
 
     private CompactCalendar parseDateAndTime(String date, String time) {
@@ -130,8 +129,8 @@ public class HaicomLoggerFormat extends SimpleLineBasedFormat<SimpleRoute> {
     }
 
     protected Wgs84Position parsePosition(String line, ParserContext context) {
-        Matcher matcher = LINE_PATTERN.matcher(line);
-        if (matcher.matches()) {
+        Matcher matcher = match(LINE_PATTERN, line);
+        if (matcher != null) {
             String date = matcher.group(1);
             String time = matcher.group(2);
             Double latitude = parseDouble(matcher.group(3));
@@ -65,14 +65,17 @@ public class KompassFormat extends SimpleLineBasedFormat<SimpleRoute> {
         return new Wgs84Route(this, characteristics, (List<Wgs84Position>) positions);
     }
 
+    protected boolean isValidFirstCharacter(char first) {
+        return isNumberOrWhiteSpace(first);
+    }
+
     protected boolean isPosition(String line) {
-        Matcher matcher = LINE_PATTERN.matcher(line);
-        return matcher.matches();
+        return match(LINE_PATTERN, line) != null;
     }
 
     protected Wgs84Position parsePosition(String line, ParserContext context) {
-        Matcher lineMatcher = LINE_PATTERN.matcher(line);
-        if (!lineMatcher.matches())
+        Matcher lineMatcher = match(LINE_PATTERN, line);
+        if (lineMatcher == null)
             throw new IllegalArgumentException("'" + line + "' does not match");
         String latitude = lineMatcher.group(1);
         String longitude = lineMatcher.group(2);
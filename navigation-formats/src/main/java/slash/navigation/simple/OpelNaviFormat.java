@@ -80,14 +80,17 @@ public class OpelNaviFormat extends SimpleLineBasedFormat<SimpleRoute> {
         return new Wgs84Route(this, characteristics, (List<Wgs84Position>) positions);
     }
 
+    protected boolean isValidFirstCharacter(char first) {
+        return first == BYTE_ORDER_MARK || isNumberOrWhiteSpace(first);
+    }
+
     protected boolean isPosition(String line) {
-        Matcher matcher = LINE_PATTERN.matcher(line);
-        return matcher.matches();
+        return match(LINE_PATTERN, line) != null;
     }
 
     protected Wgs84Position parsePosition(String line, ParserContext context) {
-        Matcher lineMatcher = LINE_PATTERN.matcher(line);
-        if (!lineMatcher.matches())
+        Matcher lineMatcher = match(LINE_PATTERN, line);
+        if (lineMatcher == null)
             throw new IllegalArgumentException("'" + line + "' does not match");
         Double longitude = parseDouble(lineMatcher.group(1));
         Double latitude = parseDouble(lineMatcher.group(2));
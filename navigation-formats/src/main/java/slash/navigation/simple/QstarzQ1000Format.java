@@ -95,13 +95,12 @@ public class QstarzQ1000Format extends SimpleLineBasedFormat<SimpleRoute> {
     }
 
     protected boolean isValidLine(String line) {
-        Matcher matcher = LINE_PATTERN.matcher(line);
-        return matcher.matches() || line.startsWith(HEADER_LINE);
+        return match(LINE_PATTERN, line) != null || line.startsWith(HEADER_LINE);
     }
 
     protected boolean isPosition(String line) {
-        Matcher matcher = LINE_PATTERN.matcher(line);
-        if(!matcher.matches())
+        Matcher matcher = match(LINE_PATTERN, line);
+        if(matcher == null)
             return false;
         String fix = matcher.group(5);
         return "SPS".equals(fix);
@@ -117,8 +116,8 @@ public class QstarzQ1000Format extends SimpleLineBasedFormat<SimpleRoute> {
     }
 
     protected Wgs84Position parsePosition(String line, ParserContext context) {
-        Matcher lineMatcher = LINE_PATTERN.matcher(line);
-        if (!lineMatcher.matches())
+        Matcher lineMatcher = match(LINE_PATTERN, line);
+        if (lineMatcher == null)
             throw new IllegalArgumentException("'" + line + "' does not match");
         String date = lineMatcher.group(3);
         String time = lineMatcher.group(4);
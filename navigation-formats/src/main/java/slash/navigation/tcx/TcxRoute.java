@@ -95,6 +95,7 @@ public class TcxRoute extends BaseRoute<Wgs84Position, TcxFormat> {
 
     public void add(int index, Wgs84Position position) {
         positions.add(index, position);
+        modified(index);
     }
 
     public Wgs84Position createPosition(Double longitude, Double latitude, Double elevation, Double speed, CompactCalendar time, String description) {
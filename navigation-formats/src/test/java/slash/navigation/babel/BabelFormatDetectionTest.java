@@ -0,0 +1,102 @@
+/*
+    This file is part of RouteConverter.
+
+    RouteConverter is free software; you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation; either version 2 of the License, or
+    (at your option) any later version.
+
+    RouteConverter is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with RouteConverter; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+
+    Copyright (C) 2007 Christian Pesch. All Rights Reserved.
+*/
+package slash.navigation.babel;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import slash.navigation.base.NavigationFormatParser;
+import slash.navigation.base.NavigationFormatRegistry;
+import slash.navigation.base.ParserResult;
+import slash.navigation.nmea.NmeaFormat;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+import static java.io.File.createTempFile;
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeFalse;
+import static slash.common.io.Files.recursiveDelete;
+import static slash.common.system.Platform.isWindows;
+import static slash.navigation.babel.BabelFormat.getBabelPathPreference;
+import static slash.navigation.babel.BabelFormat.setBabelPathPreference;
+
+public class BabelFormatDetectionTest {
+    private NavigationFormatParser parser = new NavigationFormatParser(new NavigationFormatRegistry());
+    private String babelPathPreference;
+    private File directory, invocations;
+
+    private File writeFile(String name, String content) throws IOException {
+        File file = new File(directory, name);
+        try (Writer writer = new FileWriter(file)) {
+            writer.write(content);
+        }
+        return file;
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        assumeFalse(isWindows());
+
+        directory = createTempFile("babel", ".test");
+        assertTrue(directory.delete() && directory.mkdir());
+        invocations = new File(directory, "invocations");
+        File babel = writeFile("gpsbabel", "#!/bin/sh\necho $@ >> " + invocations.getAbsolutePath() + "\nexit 1\n");
+        assertTrue(babel.setExecutable(true));
+
+        babelPathPreference = getBabelPathPreference();
+        setBabelPathPreference(babel.getAbsolutePath());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        if (isWindows())
+            return;
+        setBabelPathPreference(babelPathPreference);
+        recursiveDelete(directory);
+    }
+
+    @Test
+    public void testNoProcessForNativeFormat() throws IOException {
+        File source = writeFile("track.nmea",
+                "$GPGGA,180114,4808.9490,N,00928.9610,E,1,05,12.6,00616.6,M,048.0,M,,*49\n" +
+                "$GPRMC,180114,A,4808.9490,N,00928.9610,E,000.0,000.0,160607,,,A*76\n");
+        ParserResult result = parser.read(source);
+        assertTrue(result.isSuccessful());
+        assertEquals(NmeaFormat.class, result.getFormat().getClass());
+        assertFalse(invocations.exists());
+    }
+
+    @Test
+    public void testNoProcessForUnknownExtension() throws IOException {
+        File source = writeFile("garbage.zzz", "no navigation data\n");
+        parser.read(source);
+        assertFalse(invocations.exists());
+    }
+
+    @Test
+    public void testProcessForMatchingExtension() throws IOException {
+        File source = writeFile("garbage.ov2", "no navigation data\n");
+        parser.read(source);
+        assertTrue(invocations.exists());
+    }
+}
@@ -0,0 +1,118 @@
+/*
+    This file is part of RouteConverter.
+
+    RouteConverter is free software; you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation; either version 2 of the License, or
+    (at your option) any later version.
+
+    RouteConverter is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with RouteConverter; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+
+    Copyright (C) 2007 Christian Pesch. All Rights Reserved.
+*/
+package slash.navigation.base;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ConcurrentParsingTest {
+    private static final int FILE_COUNT = 200;
+    private static final int THREAD_COUNT = 8;
+
+    private static String createGpx10(int index) {
+        return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                "<gpx xmlns=\"http://www.topografix.com/GPX/1/0\" version=\"1.0\" creator=\"Test\">\n" +
+                "<wpt lat=\"53." + index + "\" lon=\"10." + index + "\"><name>Wpt " + index + "</name></wpt>\n" +
+                "<trk><name>Track " + index + "</name><trkseg>" +
+                "<trkpt lat=\"53.1\" lon=\"10." + index + "\"><ele>" + index + "</ele></trkpt>" +
+                "<trkpt lat=\"53.2\" lon=\"10." + index + "\"/></trkseg></trk>\n" +
+                "</gpx>";
+    }
+
+    private static String createGpx11(int index) {
+        return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                "<gpx xmlns=\"http://www.topografix.com/GPX/1/1\" version=\"1.1\" creator=\"Test\">\n" +
+                "<rte><name>Route " + index + "</name>" +
+                "<rtept lat=\"53." + index + "\" lon=\"10.1\"><name>A</name></rtept>" +
+                "<rtept lat=\"53." + index + "\" lon=\"10.2\"><name>B</name></rtept></rte>\n" +
+                "</gpx>";
+    }
+
+    private static String createKml22(int index) {
+        return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                "<kml xmlns=\"http://www.opengis.net/kml/2.2\"><Document><name>Kml " + index + "</name>\n" +
+                "<Placemark><name>Placemark " + index + "</name><LineString><coordinates>" +
+                "10." + index + ",53.1,1 10." + index + ",53.2,2 10." + index + ",53.3,3" +
+                "</coordinates></LineString></Placemark>\n" +
+                "</Document></kml>";
+    }
+
+    private static String createFile(int index) {
+        switch (index % 3) {
+            case 0:
+                return createGpx10(index);
+            case 1:
+                return createGpx11(index);
+            default:
+                return createKml22(index);
+        }
+    }
+
+    private static String parse(String file) throws IOException {
+        NavigationFormatParser parser = new NavigationFormatParser(new NavigationFormatRegistry());
+        ParserResult result = parser.read(new ByteArrayInputStream(file.getBytes(UTF_8)));
+        assertTrue(result.isSuccessful());
+
+        StringBuilder buffer = new StringBuilder(result.getFormat().getName());
+        for (BaseRoute route : result.getAllRoutes()) {
+            buffer.append('|').append(route.getCharacteristics()).append(':').append(route.getName());
+            for (Object object : route.getPositions()) {
+                BaseNavigationPosition position = (BaseNavigationPosition) object;
+                buffer.append(';').append(position.getLongitude()).append(',').append(position.getLatitude()).
+                        append(',').append(position.getElevation()).append(',').append(position.getDescription());
+            }
+        }
+        return buffer.toString();
+    }
+
+    @Test
+    public void testParallelParsingMatchesSequentialParsing() throws Exception {
+        List<String> files = new ArrayList<>();
+        for (int i = 0; i < FILE_COUNT; i++)
+            files.add(createFile(i));
+
+        List<String> expected = new ArrayList<>();
+        for (String file : files)
+            expected.add(parse(file));
+
+        ExecutorService executor = newFixedThreadPool(THREAD_COUNT);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (final String file : files)
+                futures.add(executor.submit(() -> parse(file)));
+
+            for (int i = 0; i < FILE_COUNT; i++)
+                assertEquals("File " + i, expected.get(i), futures.get(i).get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
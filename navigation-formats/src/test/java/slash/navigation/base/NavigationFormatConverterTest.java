@@ -0,0 +1,83 @@
+/*
+    This file is part of RouteConverter.
+
+    RouteConverter is free software; you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation; either version 2 of the License, or
+    (at your option) any later version.
+
+    RouteConverter is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with RouteConverter; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+
+    Copyright (C) 2007 Christian Pesch. All Rights Reserved.
+*/
+package slash.navigation.base;
+
+import org.junit.Test;
+import slash.navigation.common.NavigationPosition;
+import slash.navigation.gpx.GarbleGpx10Format;
+import slash.navigation.gpx.Gpx10Format;
+import slash.navigation.gpx.GpxPosition;
+import slash.navigation.gpx.GpxRoute;
+import slash.navigation.nmea.NmeaFormat;
+import slash.navigation.nmea.NmeaPosition;
+import slash.navigation.simple.GlopusFormat;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static slash.navigation.base.NavigationFormatConverter.asFormat;
+import static slash.navigation.base.NavigationFormatConverter.convertPositions;
+import static slash.navigation.base.RouteCharacteristics.Track;
+
+public class NavigationFormatConverterTest {
+    private List<NavigationPosition> createPositions() {
+        List<NavigationPosition> positions = new ArrayList<>();
+        for (int i = 0; i < 100; i++)
+            positions.add(new Wgs84Position(10.0 + i / 100.0, 53.0, (double) i, null, null, "Position " + i));
+        return positions;
+    }
+
+    private void assertPositions(List<NavigationPosition> expected, List<BaseNavigationPosition> actual, Class<?> positionClass) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertTrue(positionClass.isInstance(actual.get(i)));
+            assertEquals(expected.get(i).getLongitude(), actual.get(i).getLongitude());
+            assertEquals(expected.get(i).getLatitude(), actual.get(i).getLatitude());
+            assertEquals(expected.get(i).getDescription(), actual.get(i).getDescription());
+        }
+    }
+
+    @Test
+    public void testConvertPositions() throws IOException {
+        List<NavigationPosition> positions = createPositions();
+        assertPositions(positions, convertPositions(positions, new Gpx10Format()), GpxPosition.class);
+        assertPositions(positions, convertPositions(positions, new GarbleGpx10Format()), GpxPosition.class);
+        assertPositions(positions, convertPositions(positions, new NmeaFormat()), NmeaPosition.class);
+        // again from the cached conversions
+        assertPositions(positions, convertPositions(positions, new Gpx10Format()), GpxPosition.class);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testConvertRoute() throws IOException {
+        List<Wgs84Position> positions = new ArrayList<>();
+        for (NavigationPosition position : createPositions())
+            positions.add((Wgs84Position) position);
+        Wgs84Route route = new Wgs84Route(new GlopusFormat(), Track, positions);
+
+        BaseRoute converted = asFormat(route, new Gpx10Format());
+        assertTrue(converted instanceof GpxRoute);
+        assertEquals(positions.size(), converted.getPositionCount());
+        assertEquals(route.getName(), converted.getName());
+    }
+}
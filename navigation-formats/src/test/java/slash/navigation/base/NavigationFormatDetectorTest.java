@@ -0,0 +1,232 @@
+/*
+    This file is part of RouteConverter.
+
+    RouteConverter is free software; you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation; either version 2 of the License, or
+    (at your option) any later version.
+
+    RouteConverter is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with RouteConverter; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+
+    Copyright (C) 2007 Christian Pesch. All Rights Reserved.
+*/
+package slash.navigation.base;
+
+import org.junit.Test;
+import slash.navigation.babel.BabelFormat;
+import slash.navigation.babel.GarminMapSource6Format;
+import slash.navigation.babel.OziExplorerTrackFormat;
+import slash.navigation.babel.TomTomPoiFormat;
+import slash.navigation.csv.CsvCommaFormat;
+import slash.navigation.excel.MicrosoftExcel2008Format;
+import slash.navigation.gpx.GarbleGpx11Format;
+import slash.navigation.gpx.Gpx10Format;
+import slash.navigation.gpx.Gpx11Format;
+import slash.navigation.kml.Kml22Format;
+import slash.navigation.kml.Kmz22Format;
+import slash.navigation.nmea.GarbleNmeaFormat;
+import slash.navigation.nmea.NmeaFormat;
+import slash.navigation.tcx.Tcx2Format;
+import slash.navigation.zip.ZipFormat;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.*;
+import static slash.navigation.base.NavigationFormatDetector.Plausibility.*;
+
+public class NavigationFormatDetectorTest {
+    private NavigationFormatRegistry registry = new NavigationFormatRegistry();
+
+    private NavigationFormatDetector detect(byte[] bytes, String extension) {
+        return new NavigationFormatDetector(bytes, bytes.length, extension);
+    }
+
+    private NavigationFormatDetector detect(String string) {
+        return detect(string.getBytes(UTF_8), null);
+    }
+
+    @Test
+    public void testGpx11() {
+        NavigationFormatDetector detector = detect("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                "<gpx xmlns=\"http://www.topografix.com/GPX/1/1\" version=\"1.1\">\n<trk><trkseg>");
+        assertTrue(detector.isXml());
+        assertEquals("gpx", detector.getRootElement().getLocalPart());
+        assertEquals(Likely, detector.getPlausibility(new Gpx11Format()));
+        assertEquals(Possible, detector.getPlausibility(new Gpx10Format()));
+        assertEquals(Possible, detector.getPlausibility(new GarbleGpx11Format()));
+        assertEquals(Unlikely, detector.getPlausibility(new Kml22Format()));
+        assertEquals(Unlikely, detector.getPlausibility(new Tcx2Format()));
+        assertEquals(Unlikely, detector.getPlausibility(new Kmz22Format()));
+
+        List<NavigationFormat> formats = detector.sortByPlausibility(registry.getReadFormats());
+        assertTrue(formats.indexOf(new Gpx11Format()) < formats.indexOf(new Gpx10Format()));
+        assertTrue(formats.indexOf(new Kml22Format()) > formats.indexOf(new GarbleGpx11Format()));
+        assertTrue(formats.indexOf(new Tcx2Format()) > formats.indexOf(new GarbleGpx11Format()));
+    }
+
+    @Test
+    public void testGpx10WithByteOrderMark() {
+        NavigationFormatDetector detector = detect("\uFEFF  <gpx xmlns=\"http://www.topografix.com/GPX/1/0\" version=\"1.0\">");
+        assertTrue(detector.isXml());
+        assertEquals(Likely, detector.getPlausibility(new Gpx10Format()));
+        assertEquals(Possible, detector.getPlausibility(new Gpx11Format()));
+
+        List<NavigationFormat> formats = detector.sortByPlausibility(registry.getReadFormats());
+        assertTrue(formats.indexOf(new Gpx11Format()) < formats.indexOf(new Gpx10Format()));
+        assertTrue(formats.indexOf(new Kml22Format()) > formats.indexOf(new Gpx10Format()));
+    }
+
+    @Test
+    public void testNmea() {
+        NavigationFormatDetector detector = detect("$GPGGA,130441.89,5239.3154,N,00907.7011,E,1,08,1.25,16.76,M,46.79,M,,*6D\n");
+        assertFalse(detector.isXml());
+        assertEquals(Likely, detector.getPlausibility(new NmeaFormat()));
+        assertEquals(Unlikely, detector.getPlausibility(new Gpx11Format()));
+        assertEquals(Unlikely, detector.getPlausibility(new ZipFormat()));
+        assertEquals(Unlikely, detector.getPlausibility(new MicrosoftExcel2008Format()));
+
+        List<NavigationFormat> readFormats = registry.getReadFormats();
+        List<NavigationFormat> formats = detector.sortByPlausibility(readFormats);
+        assertEquals(NmeaFormat.class, formats.get(0).getClass());
+        assertEquals(readFormats.size(), formats.size());
+        assertTrue(formats.indexOf(new Kml22Format()) > formats.indexOf(new GarbleGpx11Format()));
+    }
+
+    @Test
+    public void testZipKeepsPreferredExtension() {
+        byte[] bytes = {'P', 'K', 3, 4, 20, 0, 0, 0};
+        List<NavigationFormat> formats = detect(bytes, ".kmz").sortByPlausibility(registry.getReadFormatsPreferredByExtension(".kmz"));
+        assertEquals(Kmz22Format.class, formats.get(0).getClass());
+        assertTrue(formats.indexOf(new Kml22Format()) > formats.indexOf(new ZipFormat()));
+        assertEquals(Likely, detect(bytes, ".kmz").getPlausibility(new ZipFormat()));
+    }
+
+    @Test
+    public void testEmptyKeepsOrder() {
+        List<NavigationFormat> readFormats = registry.getReadFormats();
+        List<NavigationFormat> nativeFormats = new ArrayList<>();
+        List<NavigationFormat> babelFormats = new ArrayList<>();
+        for (NavigationFormat format : readFormats) {
+            if (format instanceof BabelFormat)
+                babelFormats.add(format);
+            else
+                nativeFormats.add(format);
+        }
+
+        List<NavigationFormat> formats = detect(new byte[0], null).sortByPlausibility(readFormats);
+        assertEquals(nativeFormats, formats.subList(0, nativeFormats.size()));
+        assertEquals(babelFormats, formats.subList(nativeFormats.size(), formats.size()));
+    }
+
+    @Test
+    public void testBabelFormatsWithExtensionOnly() {
+        List<NavigationFormat> formats = detect("garbage".getBytes(UTF_8), ".ov2").sortByPlausibility(registry.getReadFormats());
+        List<NavigationFormat> babelFormats = new ArrayList<>();
+        for (NavigationFormat format : formats) {
+            if (format instanceof BabelFormat)
+                babelFormats.add(format);
+        }
+        assertEquals(singletonList(new TomTomPoiFormat()), babelFormats);
+    }
+
+    @Test
+    public void testBabelFormatsBySignature() {
+        NavigationFormatDetector detector = detect("OziExplorer Track Point File Version 2.1\r\nWGS 84\r\n".getBytes(UTF_8), ".txt");
+        assertTrue(detector.isBabelCandidate(new OziExplorerTrackFormat()));
+        assertFalse(detector.isBabelCandidate(new GarminMapSource6Format()));
+        assertFalse(detector.isBabelCandidate(new TomTomPoiFormat()));
+    }
+
+    @Test
+    public void testBabelFormatsWithSignatureBeforeCsvAndGarbleFormats() {
+        // an OziExplorer track is comma separated text that the CSV formats accept, too
+        String track = "OziExplorer Track Point File Version 2.1\r\nWGS 84\r\nAltitude is in Feet\r\nReserved 3\r\n" +
+                "0,2,255,ACTIVE LOG,0,0,2,8421376\r\n1\r\n" +
+                "53.5677,9.9915,0,0,39522.4655,24-Mar-08,11:10:18\r\n";
+        List<NavigationFormat> readFormats = registry.getReadFormats();
+        int oziInRegistry = readFormats.indexOf(new OziExplorerTrackFormat());
+        assertTrue(oziInRegistry < readFormats.indexOf(new CsvCommaFormat()));
+        assertTrue(oziInRegistry < readFormats.indexOf(new GarbleNmeaFormat()));
+
+        for (String extension : new String[]{null, ".plt", ".txt"}) {
+            List<NavigationFormat> formats = detect(track.getBytes(UTF_8), extension).sortByPlausibility(readFormats);
+            int ozi = formats.indexOf(new OziExplorerTrackFormat());
+            assertTrue(ozi < formats.indexOf(new CsvCommaFormat()));
+            assertTrue(ozi < formats.indexOf(new GarbleNmeaFormat()));
+        }
+    }
+
+    @Test
+    public void testBabelFormatsWithExtensionBeforeCsvAndGarbleFormats() {
+        List<NavigationFormat> formats = detect("garbage".getBytes(UTF_8), ".plt").sortByPlausibility(registry.getReadFormats());
+        int ozi = formats.indexOf(new OziExplorerTrackFormat());
+        assertTrue(ozi < formats.indexOf(new CsvCommaFormat()));
+        assertTrue(ozi < formats.indexOf(new GarbleNmeaFormat()));
+    }
+
+    @Test
+    public void testBabelFormatsWithoutMatchAfterCsvAndGarbleFormats() {
+        List<NavigationFormat> formats = detect("garbage".getBytes(UTF_8), null).sortByPlausibility(registry.getReadFormats());
+        int tomTomPoi = formats.indexOf(new TomTomPoiFormat());
+        assertTrue(tomTomPoi > formats.indexOf(new CsvCommaFormat()));
+        assertTrue(tomTomPoi > formats.indexOf(new GarbleNmeaFormat()));
+    }
+
+    @Test
+    public void testPreferredBabelFormatIsKept() {
+        List<NavigationFormat> readFormats = registry.getReadFormatsWithPreferredFormat(new GarminMapSource6Format());
+        List<NavigationFormat> formats = detect("garbage".getBytes(UTF_8), ".txt").sortByPlausibility(readFormats);
+        assertEquals(GarminMapSource6Format.class, formats.get(0).getClass());
+        assertFalse(formats.contains(new TomTomPoiFormat()));
+    }
+
+    @Test
+    public void testPreferredFormatStaysFirst() {
+        List<NavigationFormat> readFormats = registry.getReadFormatsWithPreferredFormat(new Kml22Format());
+        NavigationFormatDetector detector = detect("<gpx xmlns=\"http://www.topografix.com/GPX/1/1\" version=\"1.1\">");
+        assertEquals(Unlikely, detector.getPlausibility(new Kml22Format()));
+        assertEquals(Kml22Format.class, detector.sortByPlausibility(readFormats).get(0).getClass());
+    }
+
+    @Test
+    public void testPossibleFormatBeforeLikelyFormatKeepsOrder() throws IOException {
+        String nmea = "$GPGGA,180114,4808.9490,N,00928.9610,E,1,05,12.6,00616.6,M,048.0,M,,*49\n" +
+                "$GPRMC,180114,A,4808.9490,N,00928.9610,E,000.0,000.0,160607,,,A*76\n";
+        List<NavigationFormat> readFormats = asList(new Gpx11Format(), new GarbleNmeaFormat(), new NmeaFormat());
+        NavigationFormatDetector detector = detect(nmea);
+        assertEquals(Possible, detector.getPlausibility(new GarbleNmeaFormat()));
+        assertEquals(Likely, detector.getPlausibility(new NmeaFormat()));
+        assertEquals(readFormats, detector.sortByPlausibility(readFormats));
+
+        ParserResult result = new NavigationFormatParser(registry).read(new ByteArrayInputStream(nmea.getBytes(UTF_8)), readFormats);
+        assertTrue(result.isSuccessful());
+        assertEquals(GarbleNmeaFormat.class, result.getFormat().getClass());
+    }
+
+    @Test
+    public void testDetectResetsStream() throws IOException {
+        byte[] bytes = new byte[NavigationFormatDetector.HEADER_SIZE * 2];
+        InputStream buffer = new BufferedInputStream(new ByteArrayInputStream(bytes));
+        buffer.mark(bytes.length + 1);
+        NavigationFormatDetector.detect(buffer, null);
+        int count = 0;
+        while (buffer.read() != -1)
+            count++;
+        assertEquals(bytes.length, count);
+    }
+}
@@ -21,7 +21,6 @@
 package slash.navigation.base;
 
 import slash.common.TestCase;
-import slash.common.helpers.JAXBHelper;
 import slash.common.type.CompactCalendar;
 import slash.navigation.babel.*;
 import slash.navigation.bcr.BcrFormat;
@@ -81,10 +80,6 @@ public abstract class NavigationTestCase extends TestCase {
     public static final String TEST_PATH = ROUTE_PATH + "test" + separator;
     public static final String SAMPLE_PATH = ROUTE_PATH + "samples" + separator;
 
-    static {
-        JAXBHelper.setCacheContexts(true);
-    }
-
     public static void assertDescriptionEquals(List<String> expected, List<String> was) {
         List<String> wasFiltered = new ArrayList<>();
         if (was != null)
@@ -0,0 +1,228 @@
+/*
+    This file is part of RouteConverter.
+
+    RouteConverter is free software; you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation; either version 2 of the License, or
+    (at your option) any later version.
+
+    RouteConverter is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with RouteConverter; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+
+    Copyright (C) 2007 Christian Pesch. All Rights Reserved.
+*/
+package slash.navigation.base;
+
+import org.junit.Test;
+import slash.navigation.common.BoundingBox;
+import slash.navigation.simple.GlopusFormat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+import static slash.common.type.CompactCalendar.fromMillis;
+import static slash.navigation.base.RouteCharacteristics.Track;
+
+public class PositionColumnsTest {
+    private static final int POSITION_COUNT = 1000;
+    private static final double TOLERANCE = 0.000001;
+
+    private Wgs84Route createRoute() {
+        Random random = new Random(42);
+        List<Wgs84Position> positions = new ArrayList<>();
+        long time = 1000000000000L;
+        for (int i = 0; i < POSITION_COUNT; i++) {
+            boolean hasCoordinates = random.nextInt(20) != 0;
+            Double longitude = hasCoordinates ? 10.0 + random.nextDouble() / 10 : null;
+            Double latitude = hasCoordinates ? 53.0 + random.nextDouble() / 10 : null;
+            Double elevation = random.nextInt(10) != 0 ? random.nextDouble() * 100 : null;
+            Double speed = random.nextInt(10) != 0 ? random.nextDouble() * 50 : null;
+            time += random.nextInt(10000) - 1000;
+            positions.add(new Wgs84Position(longitude, latitude, elevation, speed,
+                    random.nextInt(10) != 0 ? fromMillis(time) : null, "Position " + i));
+        }
+        return new Wgs84Route(new GlopusFormat(), Track, positions);
+    }
+
+    private void assertAnalyticsEquals(Wgs84Route expected, Wgs84Route actual) {
+        int last = expected.getPositionCount() - 1;
+        assertEquals(expected.getTime(), actual.getTime());
+        assertEquals(expected.getDistance(), actual.getDistance(), 0.0);
+        assertEquals(expected.getDistance(100, 200), actual.getDistance(100, 200), TOLERANCE);
+        assertEquals(expected.getDistance(200, 100), actual.getDistance(200, 100), TOLERANCE);
+        assertArrayEquals(expected.getDistancesFromStart(10, last), actual.getDistancesFromStart(10, last), 0.0);
+        assertArrayEquals(expected.getDistancesFromStart(new int[]{500, 3, 0, last}),
+                actual.getDistancesFromStart(new int[]{500, 3, 0, last}), 0.0);
+        assertArrayEquals(expected.getTimesFromStart(10, last), actual.getTimesFromStart(10, last));
+        assertArrayEquals(expected.getTimesFromStart(new int[]{500, 3, 0, last}),
+                actual.getTimesFromStart(new int[]{500, 3, 0, last}));
+        assertEquals(expected.getElevationAscend(0, last), actual.getElevationAscend(0, last), 0.0);
+        assertEquals(expected.getElevationDescend(0, last), actual.getElevationDescend(0, last), 0.0);
+        assertEquals(expected.getElevationAscend(300, 700), actual.getElevationAscend(300, 700), TOLERANCE);
+        assertEquals(expected.getElevationDescend(300, 700), actual.getElevationDescend(300, 700), TOLERANCE);
+        for (int i = 0; i < expected.getPositionCount(); i += 7) {
+            assertEquals(expected.getDistanceDifference(i), actual.getDistanceDifference(i), 0.0);
+            assertEquals(expected.getElevationDifference(i), actual.getElevationDifference(i), 0.0);
+        }
+        assertEquals(expected.getClosestPosition(10.05, 53.05, 1000.0), actual.getClosestPosition(10.05, 53.05, 1000.0));
+        assertEquals(expected.getClosestPosition(10.05, 53.05, 1.0), actual.getClosestPosition(10.05, 53.05, 1.0));
+        assertEquals(expected.getClosestPosition(fromMillis(1000001000000L), 5000), actual.getClosestPosition(fromMillis(1000001000000L), 5000));
+        BoundingBox boundingBox = new BoundingBox(10.05, 53.05, 10.02, 53.02);
+        assertArrayEquals(expected.getContainedPositions(boundingBox), actual.getContainedPositions(boundingBox));
+    }
+
+    @Test
+    public void testAnalyticsMatchPositions() {
+        Wgs84Route positions = createRoute();
+        Wgs84Route columns = createRoute();
+        assertEquals(POSITION_COUNT, columns.getPositionColumns().size());
+        assertAnalyticsEquals(positions, columns);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testDistancesFromStartBeyondLastPosition() {
+        createRoute().getPositionColumns().getDistancesFromStart(10, POSITION_COUNT);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testTimesFromStartBeyondLastPosition() {
+        Wgs84Route route = createRoute();
+        route.getPositionColumns();
+        route.getTimesFromStart(10, POSITION_COUNT);
+    }
+
+    @Test
+    public void testRebuildAfterModification() {
+        Wgs84Route positions = createRoute();
+        Wgs84Route columns = createRoute();
+        PositionColumns view = columns.getPositionColumns();
+        assertSame(view, columns.getPositionColumns());
+
+        positions.getPosition(5).setLongitude(10.07);
+        columns.getPosition(5).setLongitude(10.07);
+        columns.modified();
+        assertNotSame(view, columns.getPositionColumns());
+        assertAnalyticsEquals(positions, columns);
+
+        positions.remove(17);
+        columns.remove(17);
+        assertAnalyticsEquals(positions, columns);
+
+        positions.revert();
+        columns.revert();
+        assertAnalyticsEquals(positions, columns);
+    }
+
+    @Test
+    public void testPatchFromFirstModifiedIndex() {
+        Wgs84Route positions = createRoute();
+        Wgs84Route columns = createRoute();
+        columns.getPositionColumns();
+
+        positions.getPosition(600).setElevation(1000.0);
+        columns.getPosition(600).setElevation(1000.0);
+        columns.modified(600);
+        positions.move(400, 800);
+        columns.move(400, 800);
+        assertAnalyticsEquals(positions, columns);
+
+        PositionColumns patched = columns.getPositionColumns();
+        PositionColumns built = new PositionColumns(columns.getPositions(), patched.getModificationStamp());
+        assertArrayEquals(built.getDistancesFromStart(0, POSITION_COUNT - 1), patched.getDistancesFromStart(0, POSITION_COUNT - 1), 0.0);
+        assertArrayEquals(built.getTimesFromStart(0, POSITION_COUNT - 1), patched.getTimesFromStart(0, POSITION_COUNT - 1));
+    }
+
+    private void assertClosestTimes(PositionColumns columns) {
+        long[] thresholds = new long[]{0L, 500L, 5000L, 60000L, Long.MAX_VALUE};
+        for (long time = 999999990000L; time < 1000010000000L; time += 77777L) {
+            for (long threshold : thresholds)
+                assertEquals("Time " + time + " with threshold " + threshold,
+                        columns.scanClosestPosition(time, threshold), columns.getClosestPosition(time, threshold));
+        }
+    }
+
+    @Test
+    public void testClosestTimeInOrder() {
+        Random random = new Random(7);
+        List<Wgs84Position> positions = new ArrayList<>();
+        long time = 1000000000000L;
+        for (int i = 0; i < 2000; i++) {
+            // repeated times and gaps
+            time += random.nextInt(3) == 0 ? 0 : random.nextInt(10000);
+            positions.add(new Wgs84Position(null, null, null, null,
+                    random.nextInt(10) != 0 ? fromMillis(time) : null, null));
+        }
+        assertClosestTimes(new PositionColumns(positions, 0));
+    }
+
+    @Test
+    public void testClosestTimeOutOfOrder() {
+        Wgs84Route route = createRoute();
+        assertClosestTimes(route.getPositionColumns());
+    }
+
+    @Test
+    public void testInsignificantPositions() {
+        Wgs84Route positions = createRoute();
+        Wgs84Route columns = createRoute();
+        columns.getPositionColumns();
+        for (double threshold : new double[]{0.0, 1.0, 10.0, 100.0, 1000.0})
+            assertArrayEquals(positions.getInsignificantPositions(threshold), columns.getInsignificantPositions(threshold));
+    }
+
+    @Test
+    public void testRebuildAfterAddingToPositions() {
+        Wgs84Route route = createRoute();
+        route.getPositionColumns();
+        route.getPositions().add(new Wgs84Position(10.1, 53.1, null, null, null, null));
+        assertEquals(POSITION_COUNT + 1, route.getPositionColumns().size());
+    }
+
+    @Test
+    public void testPatchAfterAddAndRemove() {
+        Wgs84Route positions = createRoute();
+        Wgs84Route columns = createRoute();
+        columns.getPositionColumns();
+
+        for (Wgs84Route route : new Wgs84Route[]{positions, columns}) {
+            route.add(2, new Wgs84Position(11.0, 54.0, 10.0, null, null, "Inserted"));
+            route.remove(10);
+        }
+        assertEquals(positions.getDistance(), columns.getDistance(), 0.0);
+        assertAnalyticsEquals(positions, columns);
+    }
+
+    @Test
+    public void testModifyWhileReadingFromAnotherThread() throws InterruptedException {
+        final Wgs84Route route = createRoute();
+        route.getPositionColumns();
+
+        Thread writer = new Thread(new Runnable() {
+            public void run() {
+                for (int i = 0; i < 20000; i++) {
+                    int index = i * 7 % POSITION_COUNT;
+                    route.getPosition(index).setElevation((double) i);
+                    route.modified(index);
+                }
+            }
+        });
+        writer.start();
+        while (writer.isAlive())
+            route.getPositionColumns();
+        writer.join();
+
+        PositionColumns patched = route.getPositionColumns();
+        PositionColumns built = new PositionColumns(route.getPositions(), patched.getModificationStamp());
+        for (int i = 0; i < POSITION_COUNT; i++)
+            assertEquals("Elevation " + i, built.getElevation(i), patched.getElevation(i), 0.0);
+        assertArrayEquals(built.getDistancesFromStart(0, POSITION_COUNT - 1), patched.getDistancesFromStart(0, POSITION_COUNT - 1), 0.0);
+    }
+}
@@ -0,0 +1,115 @@
+/*
+    This file is part of RouteConverter.
+
+    RouteConverter is free software; you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation; either version 2 of the License, or
+    (at your option) any later version.
+
+    RouteConverter is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with RouteConverter; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+
+    Copyright (C) 2007 Christian Pesch. All Rights Reserved.
+*/
+package slash.navigation.base;
+
+import org.junit.Test;
+import slash.navigation.common.BoundingBox;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class PositionGridTest {
+    private final Random random = new Random(4711);
+
+    private PositionColumns createColumns(int count, double longitude, double latitude, double extent) {
+        List<Wgs84Position> positions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            if (random.nextInt(50) == 0)
+                positions.add(new Wgs84Position(null, null, null, null, null, null));
+            else if (i > 0 && random.nextInt(20) == 0)
+                // equally distant duplicates
+                positions.add(positions.get(random.nextInt(i)));
+            else
+                positions.add(new Wgs84Position(longitude + random.nextDouble() * extent,
+                        latitude + random.nextDouble() * extent, null, null, null, null));
+        }
+        return new PositionColumns(positions, 0);
+    }
+
+    private void assertClosestPositions(PositionColumns columns, double longitude, double latitude, double extent) {
+        PositionGrid grid = new PositionGrid(columns);
+        double[] thresholds = new double[]{0.0, 1.0, 10.0, 100.0, 1000.0, 10000.0, 1000000.0, Double.MAX_VALUE};
+        for (int i = 0; i < 200; i++) {
+            double queryLongitude = longitude - extent / 2 + random.nextDouble() * extent * 2;
+            double queryLatitude = latitude - extent / 2 + random.nextDouble() * extent * 2;
+            for (double threshold : thresholds)
+                assertEquals("Query " + i + " with threshold " + threshold,
+                        columns.scanClosestPosition(queryLongitude, queryLatitude, threshold),
+                        grid.getClosestPosition(queryLongitude, queryLatitude, threshold));
+        }
+
+        for (int i = 0; i < columns.size(); i += 97) {
+            if (columns.hasCoordinates(i))
+                assertEquals(columns.scanClosestPosition(columns.getLongitude(i), columns.getLatitude(i), 0.0),
+                        grid.getClosestPosition(columns.getLongitude(i), columns.getLatitude(i), 0.0));
+        }
+    }
+
+    private void assertContainedPositions(PositionColumns columns, double longitude, double latitude, double extent) {
+        PositionGrid grid = new PositionGrid(columns);
+        for (int i = 0; i < 200; i++) {
+            double west = longitude - extent / 2 + random.nextDouble() * extent * 2;
+            double south = latitude - extent / 2 + random.nextDouble() * extent * 2;
+            double east = west + random.nextDouble() * extent;
+            double north = south + random.nextDouble() * extent;
+            BoundingBox boundingBox = new BoundingBox(east, north, west, south);
+            assertArrayEquals(columns.scanContainedPositions(boundingBox), grid.getContainedPositions(boundingBox));
+        }
+    }
+
+    @Test
+    public void testClosestPosition() {
+        PositionColumns columns = createColumns(10000, 10.0, 53.0, 0.5);
+        assertClosestPositions(columns, 10.0, 53.0, 0.5);
+    }
+
+    @Test
+    public void testClosestPositionNearAntimeridianAndPole() {
+        assertClosestPositions(createColumns(2000, 179.5, 10.0, 0.5), 179.5, 10.0, 0.5);
+        assertClosestPositions(createColumns(2000, 10.0, 88.5, 1.0), 10.0, 88.5, 1.0);
+    }
+
+    @Test
+    public void testClosestPositionOfIdenticalPositions() {
+        List<Wgs84Position> positions = new ArrayList<>();
+        for (int i = 0; i < 1000; i++)
+            positions.add(new Wgs84Position(10.0, 53.0, null, null, null, null));
+        PositionColumns columns = new PositionColumns(positions, 0);
+        assertEquals(0, new PositionGrid(columns).getClosestPosition(10.0, 53.0, 10.0));
+        assertEquals(-1, new PositionGrid(columns).getClosestPosition(11.0, 53.0, 10.0));
+    }
+
+    @Test
+    public void testContainedPositions() {
+        PositionColumns columns = createColumns(10000, 10.0, 53.0, 0.5);
+        assertContainedPositions(columns, 10.0, 53.0, 0.5);
+    }
+
+    @Test
+    public void testEmpty() {
+        PositionGrid grid = new PositionGrid(new PositionColumns(new ArrayList<Wgs84Position>(), 0));
+        assertEquals(-1, grid.getClosestPosition(10.0, 53.0, 1000.0));
+        assertArrayEquals(new int[0], grid.getContainedPositions(new BoundingBox(11.0, 54.0, 10.0, 53.0)));
+    }
+}
@@ -0,0 +1,163 @@
+/*
+    This file is part of RouteConverter.
+
+    RouteConverter is free software; you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation; either version 2 of the License, or
+    (at your option) any later version.
+
+    RouteConverter is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with RouteConverter; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+
+    Copyright (C) 2007 Christian Pesch. All Rights Reserved.
+*/
+package slash.navigation.base;
+
+import org.junit.Test;
+import slash.navigation.common.NavigationPosition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static java.lang.Math.PI;
+import static java.lang.Math.abs;
+import static java.lang.Math.sin;
+import static java.lang.System.arraycopy;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static slash.navigation.base.RouteCalculations.getSignificances;
+import static slash.navigation.base.RouteCalculations.getSignificantPositions;
+
+public class RouteCalculationsTest {
+    private static final double[] THRESHOLDS = new double[]{0.0, 0.5, 5.0, 50.0, 500.0, 5000.0};
+
+    // the former recursive implementation
+    private static int[] douglasPeuckerSimplify(List<? extends NavigationPosition> positions, int from, int to, double threshold) {
+        NavigationPosition pointA = positions.get(from);
+        NavigationPosition pointB = positions.get(to);
+        int maximumDistanceIndex = -1;
+        double maximumDistance = 0.0;
+        for (int i = from + 1; i < to; i++) {
+            NavigationPosition position = positions.get(i);
+            if (position.hasCoordinates()) {
+                Double distance = position.calculateOrthogonalDistance(pointA, pointB);
+                if (distance == null)
+                    continue;
+
+                double absDistance = abs(distance);
+                if (absDistance > maximumDistance) {
+                    maximumDistance = absDistance;
+                    maximumDistanceIndex = i;
+                }
+            }
+        }
+
+        if ((maximumDistanceIndex != -1) && (maximumDistance > threshold)) {
+            int[] res1 = douglasPeuckerSimplify(positions, from, maximumDistanceIndex, threshold);
+            int[] res2 = douglasPeuckerSimplify(positions, maximumDistanceIndex, to, threshold);
+
+            int[] result = new int[res1.length - 1 + res2.length];
+            arraycopy(res1, 0, result, 0, res1.length - 1);
+            arraycopy(res2, 0, result, res1.length - 1, res2.length);
+            return result;
+        } else
+            return new int[]{from, to};
+    }
+
+    private List<Wgs84Position> createPositions(Random random, int count) {
+        List<Wgs84Position> positions = new ArrayList<>();
+        double longitude = 10.0, latitude = 53.0;
+        for (int i = 0; i < count; i++) {
+            longitude += random.nextDouble() / 1000;
+            latitude += (random.nextDouble() - 0.5) / 1000;
+            if (random.nextInt(30) == 0)
+                positions.add(new Wgs84Position(null, null, null, null, null, null));
+            else if (random.nextInt(30) == 0)
+                positions.add(new Wgs84Position(longitude, null, null, null, null, null));
+            else if (i > 0 && random.nextInt(30) == 0)
+                positions.add(positions.get(i - 1));
+            else
+                positions.add(new Wgs84Position(longitude, latitude, null, null, null, null));
+        }
+        return positions;
+    }
+
+    @Test
+    public void testSignificantPositionsMatchRecursiveImplementation() {
+        Random random = new Random(11);
+        for (int count : new int[]{2, 3, 10, 100, 2000}) {
+            for (int run = 0; run < 5; run++) {
+                List<Wgs84Position> positions = createPositions(random, count);
+                for (double threshold : THRESHOLDS)
+                    assertArrayEquals("Count " + count + " with threshold " + threshold,
+                            douglasPeuckerSimplify(positions, 0, count - 1, threshold),
+                            getSignificantPositions(positions, threshold));
+            }
+        }
+    }
+
+    @Test
+    public void testSignificancesMatchSignificantPositions() {
+        Random random = new Random(17);
+        for (int count : new int[]{0, 1, 2, 3, 10, 100, 2000}) {
+            List<Wgs84Position> positions = createPositions(random, count);
+            double[] longitudes = new double[count];
+            double[] latitudes = new double[count];
+            for (int i = 0; i < count; i++) {
+                Wgs84Position position = positions.get(i);
+                longitudes[i] = position.hasCoordinates() ? position.getLongitude() : Double.NaN;
+                latitudes[i] = position.hasCoordinates() ? position.getLatitude() : Double.NaN;
+            }
+
+            double[] significances = getSignificances(longitudes, latitudes);
+            for (double threshold : THRESHOLDS)
+                assertArrayEquals("Count " + count + " with threshold " + threshold,
+                        getSignificantPositions(positions, threshold),
+                        getSignificantPositions(significances, threshold));
+            for (int i = 0; i < count; i++)
+                assertArrayEquals("Count " + count + " with significance of " + i,
+                        getSignificantPositions(positions, significances[i]),
+                        getSignificantPositions(significances, significances[i]));
+        }
+    }
+
+    @Test
+    public void testSignificantPositionsOfFewPositions() {
+        List<Wgs84Position> positions = new ArrayList<>();
+        assertArrayEquals(new int[0], getSignificantPositions(positions, 10.0));
+        positions.add(new Wgs84Position(10.0, 53.0, null, null, null, null));
+        assertArrayEquals(new int[]{0}, getSignificantPositions(positions, 10.0));
+    }
+
+    @Test
+    public void testSignificantPositionsWithoutCoordinatesAtTheEnds() {
+        List<Wgs84Position> positions = createPositions(new Random(13), 100);
+        positions.set(0, new Wgs84Position(null, null, null, null, null, null));
+        assertArrayEquals(new int[]{0, 99}, getSignificantPositions(positions, 0.0));
+    }
+
+    @Test
+    public void testSignificantPositionsOfMillionPositions() {
+        int count = 1000000;
+        double[] longitudes = new double[count];
+        double[] latitudes = new double[count];
+        for (int i = 0; i < count; i++) {
+            longitudes[i] = 10.0 + i / 100000.0;
+            // a wave with ten periods along an almost straight line
+            latitudes[i] = 53.0 + sin(i / (double) count * 20 * PI) / 100;
+        }
+        int[] significantPositions = getSignificantPositions(longitudes, latitudes, 100.0);
+        assertEquals(0, significantPositions[0]);
+        assertEquals(count - 1, significantPositions[significantPositions.length - 1]);
+        for (int i = 1; i < significantPositions.length; i++)
+            assertTrue(significantPositions[i - 1] < significantPositions[i]);
+    }
+}
@@ -24,6 +24,7 @@ import org.junit.Test;
 import slash.navigation.bcr.BcrPosition;
 import slash.navigation.bcr.BcrRoute;
 import slash.navigation.bcr.MTP0607Format;
+import slash.navigation.itn.TomTomPosition;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -159,4 +160,58 @@ public class RouteCommentsTest {
             assertEquals(formatIntAsString(i + 1, 2) + "description", positions.get(i).getDescription());
         }
     }
+
+    private static final String[] DESCRIPTIONS = new String[]{
+            "", "Hamburg/Uhlenhorst", "1 description", "Finkenau, Hamburg, Uhlenhorst (Hamburg)",
+            "Richtung 316 - 11:32:26 - 34 m - Bahrenfeld",
+            "Abstand 6 - 11:32:26 - 34 m - Bahrenfeld",
+            "Punkt - 12:01:38 - 10.9 m - Holm DE (Pinneberg)",
+            "09:02:43 - 47.5 m",
+            "15:01:20 - Start : 26/02/2010 15:01:20 - 10.2 m",
+            "15:05:00 - Kurs 173 - 10.4 m",
+            "15:08:43 - Dauer 0:07:33 - 23.5 m",
+            "16:22:22 - Ende : 26/02/2010 16:22:22 - 9.8 m",
+            "Start : Noyal-Sur-Vilaine - 23/11/2006 - 08:50:26 - 37.2 m - 0.4 Km",
+            "Ende : Herrenberg - 14:03:45 - 437.4 m - 25.5 km",
+            "13:39:33 - Distanz 2 : Weil Der Stadt - 408.3 m - 2.0 km - 39 km/h",
+            "09:01:31 - Cape 125: Cesson-Sevigne - 62.0 m - 7.1 Km",
+            "18:51:45 - Hohenfelde (Hamburg) - 42.0 m - 0.2 Km - 2 Km/h - 5",
+            "18:51:59 - Dur. 0:05:55 : Hohenfelde (Hamburg) - 41.0 m - 0.2 Km - 5 Km/h - 6",
+            "18:51:36 - Start : 21/07/2007 18:51:36 : Hohenfelde (Hamburg) - 1241.231 m - 0.2 Km - 12 Km/h - 6",
+            "10:05:16 - Start : 24/03/2012 10:05:16 - 19.3 m - 0.1 km",
+            "080530 08:11:44: + Neuhaus Im Solling (Holzminden); B497 In Der Fahrt; 3  (s=69 d=207)",
+            "080629 07:33:00: + Eschelbach (Rhein-Neckar-Kreis, Baden-Wuerttemberg); L612 @196.9m (s=66 d=91)",
+            "081012 19:00:47: * 17159970:-4176126 @?m (s=12 d=170)",
+            "090314 07:36:52: = 1000466:4889529 (@365.8m 090314 07:36:52 - 090314 08:02:04)",
+            "12:23:10 Start (#1)",
+            "13:31 v=54.5 alt=79 (#3634)",
+            "15:04 0.7 min Pause 48.2m (#1377)",
+            "Start : Los : 07/08/2004 03:29:10 - 47.4 m - 0.0 Km/h - 0.0 deg - 10 Km",
+            "Finish : Los : 07/08/2004 03:29:10 - 82.4 m - 61.3 Km/h - 248.9 deg - 1354 Km",
+            "Weiter : 03:29:10 - 47.4 m - 61.3 Km/h - 248.9 deg - 5 Km"
+    };
+
+    @Test
+    public void testParseDescriptionWithAndWithoutPrefilter() {
+        for (String description : DESCRIPTIONS) {
+            TomTomPosition filtered = new TomTomPosition((Integer) null, null, null);
+            parseDescription(filtered, description, true);
+            TomTomPosition unfiltered = new TomTomPosition((Integer) null, null, null);
+            parseDescription(unfiltered, description, false);
+            assertEquals(description, unfiltered.getTime(), filtered.getTime());
+            assertEquals(description, unfiltered.getElevation(), filtered.getElevation());
+            assertEquals(description, unfiltered.getSpeed(), filtered.getSpeed());
+            assertEquals(description, unfiltered.getHeading(), filtered.getHeading());
+            assertEquals(description, unfiltered.getReason(), filtered.getReason());
+            assertEquals(description, unfiltered.getCity(), filtered.getCity());
+
+            Wgs84Position filteredWgs84 = new Wgs84Position(null, null, null, null, null, null);
+            parseDescription(filteredWgs84, description, true);
+            Wgs84Position unfilteredWgs84 = new Wgs84Position(null, null, null, null, null, null);
+            parseDescription(unfilteredWgs84, description, false);
+            assertEquals(description, unfilteredWgs84.getTime(), filteredWgs84.getTime());
+            assertEquals(description, unfilteredWgs84.getElevation(), filteredWgs84.getElevation());
+            assertEquals(description, unfilteredWgs84.getSpeed(), filteredWgs84.getSpeed());
+        }
+    }
 }
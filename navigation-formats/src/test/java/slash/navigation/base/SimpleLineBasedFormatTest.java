@@ -0,0 +1,101 @@
+/*
+    This file is part of RouteConverter.
+
+    RouteConverter is free software; you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation; either version 2 of the License, or
+    (at your option) any later version.
+
+    RouteConverter is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with RouteConverter; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+
+    Copyright (C) 2007 Christian Pesch. All Rights Reserved.
+*/
+package slash.navigation.base;
+
+import org.junit.Test;
+import slash.navigation.simple.GlopusFormat;
+import slash.navigation.simple.KompassFormat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+import static slash.common.io.Transfer.ISO_LATIN1_ENCODING;
+import static slash.navigation.base.SimpleLineBasedFormat.isNumberOrWhiteSpace;
+import static slash.navigation.base.SimpleLineBasedFormat.match;
+
+public class SimpleLineBasedFormatTest {
+    private static final Pattern NUMBER_PATTERN = Pattern.compile("(\\d+)");
+    private static final Pattern WORD_PATTERN = Pattern.compile("(\\w+)");
+
+    @Test
+    public void testMatchReusesMatcherOfLine() {
+        String line = new String("4711");
+        Matcher matcher = match(NUMBER_PATTERN, line);
+        assertNotNull(matcher);
+        assertEquals("4711", matcher.group(1));
+        assertSame(matcher, match(NUMBER_PATTERN, line));
+
+        Matcher wordMatcher = match(WORD_PATTERN, line);
+        assertNotSame(matcher, wordMatcher);
+        assertSame(matcher, match(NUMBER_PATTERN, line));
+        assertSame(wordMatcher, match(WORD_PATTERN, line));
+
+        Matcher otherLine = match(NUMBER_PATTERN, new String("4711"));
+        assertNotSame(matcher, otherLine);
+        assertEquals("4711", otherLine.group(1));
+    }
+
+    @Test
+    public void testMatchRemembersMismatches() {
+        String line = new String("Word");
+        assertNull(match(NUMBER_PATTERN, line));
+        assertNull(match(NUMBER_PATTERN, line));
+        assertEquals("Word", match(WORD_PATTERN, line).group(1));
+    }
+
+    @Test
+    public void testIsNumberOrWhiteSpace() {
+        for (char c : " \t-.0123456789".toCharArray())
+            assertTrue(isNumberOrWhiteSpace(c));
+        for (char c : "#;\"[aZ+".toCharArray())
+            assertFalse(isNumberOrWhiteSpace(c));
+    }
+
+    @Test
+    public void testReadRejectsGarbleByFirstCharacter() throws Exception {
+        ParserContext<SimpleRoute> context = new ParserContextImpl<>();
+        new KompassFormat().read(new ByteArrayInputStream("51.0450383,7.0508300,124.5\n 51.0450384,7.0508301\n".
+                getBytes(ISO_LATIN1_ENCODING)), context);
+        assertEquals(1, context.getRoutes().size());
+        assertEquals(2, context.getRoutes().get(0).getPositionCount());
+
+        try {
+            new KompassFormat().read(new ByteArrayInputStream("51.0450383,7.0508300\n# Comment\n# Another comment\n".
+                    getBytes(ISO_LATIN1_ENCODING)), new ParserContextImpl<SimpleRoute>());
+            fail("IOException expected");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("Too much garble"));
+        }
+    }
+
+    @Test
+    public void testReadWithTwoPatternsPerLine() throws Exception {
+        ParserContext<SimpleRoute> context = new ParserContextImpl<>();
+        new GlopusFormat().read(new ByteArrayInputStream("51.0450383,7.0508300,Comment\n51.04504,7.05084\n".
+                getBytes(ISO_LATIN1_ENCODING)), context);
+        SimpleRoute route = context.getRoutes().get(0);
+        assertEquals(2, route.getPositionCount());
+        assertEquals("Comment", route.getPosition(0).getDescription());
+        assertNull(route.getPosition(1).getDescription());
+    }
+}
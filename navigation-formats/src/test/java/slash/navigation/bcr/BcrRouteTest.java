@@ -366,6 +366,32 @@ public class BcrRouteTest {
         assertPositions(c, a, c, b, a, c, a);
     }
 
+    @Test(timeout = 5000)
+    public void testRemoveDuplicatesOfStationaryStart() {
+        List<BcrPosition> positions = route.getPositions();
+        positions.clear();
+        for (int i = 0; i < 1000000; i++)
+            positions.add(i < 900000 ? a : i % 2 == 0 ? b : c);
+        route.removeDuplicates();
+        assertEquals(100001, route.getPositionCount());
+        assertEquals(a, route.getPosition(0));
+        assertEquals(b, route.getPosition(1));
+        assertEquals(c, route.getPosition(2));
+        assertEquals(c, route.getPosition(100000));
+    }
+
+    @Test(timeout = 5000)
+    public void testReverseManyPositions() {
+        List<BcrPosition> positions = route.getPositions();
+        positions.clear();
+        for (int i = 0; i < 1000000; i++)
+            positions.add(new BcrPosition(i, 1, 0, null));
+        route.revert();
+        assertEquals(1000000, route.getPositionCount());
+        assertEquals(999999, (long) route.getPosition(0).getX());
+        assertEquals(0, (long) route.getPosition(999999).getX());
+    }
+
     @Test
     public void testEnsureIncreasingTime() {
         List<BcrPosition> positions = route.getPositions();
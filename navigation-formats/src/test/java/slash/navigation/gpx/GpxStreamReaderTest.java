@@ -0,0 +1,107 @@
+/*
+    This file is part of RouteConverter.
+
+    RouteConverter is free software; you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation; either version 2 of the License, or
+    (at your option) any later version.
+
+    RouteConverter is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with RouteConverter; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+
+    Copyright (C) 2007 Christian Pesch. All Rights Reserved.
+*/
+package slash.navigation.gpx;
+
+import org.junit.Test;
+import slash.navigation.base.ParserContext;
+import slash.navigation.base.ParserContextImpl;
+import slash.navigation.gpx.binding10.Gpx;
+import slash.navigation.gpx.binding11.WptType;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.*;
+import static slash.common.TestCase.assertDoubleEquals;
+import static slash.navigation.base.RouteCharacteristics.*;
+
+public class GpxStreamReaderTest {
+
+    private List<GpxRoute> read(GpxFormat format, String string) throws Exception {
+        ParserContext<GpxRoute> context = new ParserContextImpl<>();
+        format.read(new ByteArrayInputStream(string.getBytes(UTF_8)), context);
+        return context.getRoutes();
+    }
+
+    @Test
+    public void testGpx11() throws Exception {
+        List<GpxRoute> routes = read(new Gpx11Format(), "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                "<gpx xmlns=\"http://www.topografix.com/GPX/1/1\" version=\"1.1\" creator=\"Test\">\n" +
+                "<wpt lat=\"53.1\" lon=\"10.1\"><name>A</name><cmt>Comment</cmt></wpt>\n" +
+                "<rte><name>Route</name><rtept lat=\"53.2\" lon=\"10.2\"/></rte>\n" +
+                "<trk><name>First</name><trkseg>\n" +
+                "<trkpt lat=\"53.3\" lon=\"10.3\"><ele>12.5</ele></trkpt><trkpt lat=\"53.4\" lon=\"10.4\"/>\n" +
+                "</trkseg><trkseg><trkpt lat=\"53.5\" lon=\"10.5\"/></trkseg></trk>\n" +
+                "<trk><name>Second</name><trkseg><trkpt lat=\"53.6\" lon=\"10.6\"/></trkseg></trk>\n" +
+                "</gpx>");
+        assertEquals(4, routes.size());
+
+        GpxRoute wayPoints = routes.get(0);
+        assertEquals(Waypoints, wayPoints.getCharacteristics());
+        assertEquals(1, wayPoints.getPositionCount());
+        GpxPosition wayPoint = wayPoints.getPosition(0);
+        assertEquals("A", wayPoint.getDescription());
+        assertNotNull(wayPoint.getOrigin(WptType.class));
+
+        GpxRoute route = routes.get(1);
+        assertEquals(Route, route.getCharacteristics());
+        assertEquals(1, route.getPositionCount());
+
+        GpxRoute first = routes.get(2);
+        assertEquals(Track, first.getCharacteristics());
+        assertEquals("First", first.getName());
+        assertEquals(3, first.getPositionCount());
+        GpxPosition trackPoint = first.getPosition(0);
+        assertDoubleEquals(10.3, trackPoint.getLongitude());
+        assertDoubleEquals(53.3, trackPoint.getLatitude());
+        assertDoubleEquals(12.5, trackPoint.getElevation());
+        assertNull(trackPoint.getOrigin());
+        assertNull(trackPoint.getSpeed());
+        trackPoint.setSpeed(25.0);
+        assertDoubleEquals(25.0, trackPoint.getSpeed());
+        assertDoubleEquals(10.5, first.getPosition(2).getLongitude());
+
+        GpxRoute second = routes.get(3);
+        assertEquals("Second", second.getName());
+        assertEquals(1, second.getPositionCount());
+        assertDoubleEquals(10.6, second.getPosition(0).getLongitude());
+    }
+
+    @Test
+    public void testGpx10() throws Exception {
+        List<GpxRoute> routes = read(new Gpx10Format(), "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                "<gpx xmlns=\"http://www.topografix.com/GPX/1/0\" version=\"1.0\" creator=\"Holux Utility\">\n" +
+                "<wpt lat=\"53.1\" lon=\"10.1\"><name>A</name><sym>Flag</sym></wpt>\n" +
+                "<trk><trkseg><trkpt lat=\"53.3\" lon=\"10.3\"><speed>36</speed></trkpt>" +
+                "<trkpt lat=\"53.4\" lon=\"10.4\"/></trkseg></trk>\n" +
+                "</gpx>");
+        assertEquals(2, routes.size());
+
+        GpxPosition wayPoint = routes.get(0).getPosition(0);
+        assertNotNull(wayPoint.getOrigin(Gpx.Wpt.class));
+
+        GpxRoute track = routes.get(1);
+        assertEquals(2, track.getPositionCount());
+        GpxPosition trackPoint = track.getPosition(0);
+        assertDoubleEquals(36.0, trackPoint.getSpeed());
+        assertNull(trackPoint.getOrigin());
+    }
+}
@@ -0,0 +1,184 @@
+/*
+    This file is part of RouteConverter.
+
+    RouteConverter is free software; you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation; either version 2 of the License, or
+    (at your option) any later version.
+
+    RouteConverter is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with RouteConverter; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+
+    Copyright (C) 2007 Christian Pesch. All Rights Reserved.
+*/
+
+package slash.navigation.nmea;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static java.lang.String.format;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static slash.common.type.HexadecimalNumber.encodeByte;
+import static slash.navigation.nmea.NmeaTokenizer.NOT_TOKENIZED;
+
+public class NmeaTokenizerTest {
+    private static final String[] LINES = new String[]{
+            "$GPGGA,130441.89,5239.3154,N,00907.7011,E,1,08,1.25,16.76,M,46.79,M,,*6D",
+            "$GPGGA,162611,3554.2367,N,10619.4966,W,1,03,06.7,02300.3,M,-022.4,M,,*7F",
+            "$GPGGA,132713,5509.7861,N,00140.5854,W,1,07,1.0,98.9,M,,M,,*7d",
+            "$GPGGA,171247,4737.266541,N,00814.066563,E,1,,,416,M,,,*00",
+            "$GPGGA,134012,4837.4374,N,903.4036,E,1,,,-48.0,M,,M,,*61",
+            "$GNGGA,162622.00,4857.29112,N,00850.57680,E,2,12,0.65,265.2,M,47.5,M,,0000*41",
+            "$GPGGA,060901.64,0000.0000,N,00000.0000,E,0,2,60.000,0,M,0,M,0,*65",
+            "$GPGGA,123613.957,,,,,0,00,,,M,0.0,M,,0000*59",
+            "$GPRMC,180114,A,4808.9490,N,00928.9610,E,000.0,000.0,160607,,,A*76",
+            "$GPRMC,132713,A,5509.7861,N,00140.5854,W,2.1,278.3,010110,,*e",
+            "$GPRMC,172103.38,V,4424.5358,N,06812.3754,W,0.000,0.000,101010,0,W,N*3A",
+            "$GNRMC,162622.00,A,4857.29112,N,00850.57680,E,0.813,251.19,160217,,,D,V*0D",
+            "$GPRMC,134012,A,4837.4374,N,903.4036,E,,,260707,,A*5A",
+            "$GPRMC,061013.64,A,5119.8979,N,01219.1497,E,0,0,160709,0,W,A*34",
+            "$GPRMC,060900.64,V,0000.0000,N,00000.0000,E,0,0,160709,0,W,N*25",
+            "$GPRMC,123613.957,V,,,,,,,170807,,*29",
+            "$GPGSA,A,3,05,09,12,14,22,,,,,,,,19.9,12.6,15.3*0B",
+            "$GPGSA,A,1,05,09,12,14,22,,,,,,,,19.9,12.6,15.3*09",
+            "$GNGSA,A,3,12,15,17,19,24,06,25,,,,,,1.24,0.65,1.06,1*0C",
+            "$GPVTG,0.00,T,,M,1.531,N,2.835,K,A*37",
+            "$GPVTG,138.7,T,,M,014.2,N,026.3,K,A*00",
+            "$GNVTG,251.19,T,,M,0.813,N,1.506,K,D*20",
+            "$GPVTG,000.0,T,,M,000.0,N,000.0,K,A*0D",
+            "$GPZDA,032910.542,07,08,2004,00,00*48",
+            "$GPZDA,032910,07,08,2004,00,00*48",
+            "$GNZDA,184113.00,23,02,2017,00,00*71",
+            "$GPWPL,5334.169,N,01001.920,E,STATN1*22",
+            "$GPWPL,4837.4374,N,903.4036,E,*4C",
+            "$GPWPL,1924.823,N,08728.572,W,P28298_240104_0715",
+            "$GPWPL,1924.823,N,08728.572,W,P28298_240104_0715*00",
+            "$GPWPL,3018.000,S,15309.000,E,Coffs Harbor (Sidney)",
+            "$GPGLL,4916.45,N,12311.12,W,220433.11,A*1A",
+            "$GNGNS,184113.00,5215.46773,N,01021.80963,E,AAAN,17,0.73,73.9,45.8,,,V*21",
+            "$PMGNTRK,4914.967,N,00651.208,E,000199,M,152224,A,KLLERTAL-RADWEG,210307*48"
+    };
+    private static final String MUTATIONS = ",.-*+ 0123456789ADEKMNSTVW";
+
+    private final NmeaFormat format = new NmeaFormat();
+    private final NmeaTokenizer tokenizer = new NmeaTokenizer(format);
+
+    private String withChecksum(String sentence) {
+        byte checksum = 0;
+        for (int i = 0; i < sentence.length(); i++)
+            checksum ^= sentence.charAt(i);
+        return "$" + sentence + "*" + encodeByte(checksum);
+    }
+
+    private String createLine(Random random) {
+        String latitude = format("%04d.%04d", random.nextInt(9000), random.nextInt(10000));
+        String longitude = format("%05d.%0" + (1 + random.nextInt(6)) + "d", random.nextInt(18000), random.nextInt(10));
+        String time = format("%02d%02d%02d", random.nextInt(24), random.nextInt(60), random.nextInt(60)) +
+                (random.nextBoolean() ? "." + random.nextInt(1000) : "");
+        String date = format("%02d%02d", 1 + random.nextInt(28), 1 + random.nextInt(12));
+        switch (random.nextInt(6)) {
+            case 0:
+                return withChecksum("GPGGA," + time + "," + latitude + ",N," + longitude + ",E," + random.nextInt(3) + "," +
+                        random.nextInt(13) + ",1.2," + (random.nextInt(2000) - 100) + "." + random.nextInt(10) + ",M,46.9,M,,");
+            case 1:
+                return withChecksum("GNRMC," + time + ",A," + latitude + ",S," + longitude + ",W," + random.nextInt(100) + "." +
+                        random.nextInt(1000) + "," + random.nextInt(360) + "," + date + format("%02d", random.nextInt(100)) +
+                        ",,," + (random.nextBoolean() ? "A" : "D,N"));
+            case 2:
+                return withChecksum("GPGSA,A," + (1 + random.nextInt(3)) + ",05,09,12,14,22,,,,,,,," +
+                        random.nextInt(30) + "." + random.nextInt(10) + "," + random.nextInt(30) + ".0," + random.nextInt(30));
+            case 3:
+                return withChecksum("GPVTG," + random.nextInt(360) + "." + random.nextInt(100) + ",T,,M," + random.nextInt(100) +
+                        ".5,N," + (random.nextBoolean() ? random.nextInt(200) + ".1" : "") + ",K," + (random.nextBoolean() ? "A" : "N"));
+            case 4:
+                return withChecksum("GPZDA," + time + "," + date.substring(0, 2) + "," + date.substring(2) + "," +
+                        (1990 + random.nextInt(40)) + ",00,00");
+            default:
+                return withChecksum("GPWPL," + latitude + ",N," + longitude + ",W, Waypoint " + random.nextInt(100));
+        }
+    }
+
+    private String mutate(Random random, String line) {
+        char[] chars = line.toCharArray();
+        chars[1 + random.nextInt(chars.length - 1)] = MUTATIONS.charAt(random.nextInt(MUTATIONS.length()));
+        String mutated = new String(chars);
+        int asterisk = mutated.lastIndexOf('*');
+        return random.nextBoolean() && asterisk > 0 ? withChecksum(mutated.substring(1, asterisk)) : mutated;
+    }
+
+    private void assertPositionEquals(NmeaPosition expected, NmeaPosition actual, String line) {
+        if (expected == null) {
+            assertNull(line, actual);
+            return;
+        }
+        assertEquals(line, expected.getLongitudeAsValueAndOrientation(), actual.getLongitudeAsValueAndOrientation());
+        assertEquals(line, expected.getLatitudeAsValueAndOrientation(), actual.getLatitudeAsValueAndOrientation());
+        assertEquals(line, expected.getElevation(), actual.getElevation());
+        assertEquals(line, expected.getSpeed(), actual.getSpeed());
+        assertEquals(line, expected.getHeading(), actual.getHeading());
+        assertEquals(line, expected.getTime(), actual.getTime());
+        assertEquals(line, expected.getDescription(), actual.getDescription());
+        assertEquals(line, expected.getSatellites(), actual.getSatellites());
+        assertEquals(line, expected.getPdop(), actual.getPdop());
+        assertEquals(line, expected.getHdop(), actual.getHdop());
+        assertEquals(line, expected.getVdop(), actual.getVdop());
+    }
+
+    private boolean assertTokenizedLikePatterns(String line) {
+        NmeaPosition actual = tokenizer.parsePosition(line);
+        if (actual == NOT_TOKENIZED)
+            return false;
+        NmeaPosition expected = format.isPosition(line) ? format.parsePosition(line) : null;
+        assertPositionEquals(expected, actual, line);
+        return true;
+    }
+
+    @Test
+    public void testTokenizeLikePatterns() {
+        for (String line : LINES)
+            assertTokenizedLikePatterns(line);
+    }
+
+    @Test
+    public void testTokenizeStrictSentences() {
+        assertNotSame(NOT_TOKENIZED, tokenizer.parsePosition("$GPGGA,130441.89,5239.3154,N,00907.7011,E,1,08,1.25,16.76,M,46.79,M,,*6D"));
+        assertNotSame(NOT_TOKENIZED, tokenizer.parsePosition("$GNRMC,162622.00,A,4857.29112,N,00850.57680,E,0.813,251.19,160217,,,D,V*0D"));
+        assertNotSame(NOT_TOKENIZED, tokenizer.parsePosition("$GPGSA,A,3,05,09,12,14,22,,,,,,,,19.9,12.6,15.3*0B"));
+        assertNotSame(NOT_TOKENIZED, tokenizer.parsePosition("$GNVTG,251.19,T,,M,0.813,N,1.506,K,D*20"));
+        assertNotSame(NOT_TOKENIZED, tokenizer.parsePosition("$GNZDA,184113.00,23,02,2017,00,00*71"));
+        assertNotSame(NOT_TOKENIZED, tokenizer.parsePosition("$GPWPL,3018.000,S,15309.000,E,Coffs Harbor (Sidney)"));
+    }
+
+    @Test
+    public void testLeaveOtherSentencesToPatterns() {
+        assertSame(NOT_TOKENIZED, tokenizer.parsePosition("$GPGLL,4916.45,N,12311.12,W,220433.11,A*1A"));
+        assertSame(NOT_TOKENIZED, tokenizer.parsePosition("$GNGNS,184113.00,5215.46773,N,01021.80963,E,AAAN,17,0.73,73.9,45.8,,,V*21"));
+        assertSame(NOT_TOKENIZED, tokenizer.parsePosition("$PMGNTRK,4914.967,N,00651.208,E,000199,M,152224,A,KLLERTAL-RADWEG,210307*48"));
+        assertSame(NOT_TOKENIZED, tokenizer.parsePosition("$GPRMC,140403.000,A,4837.5194,N,00903.4022,E,15.00,0.00,260707,,  *3E"));
+    }
+
+    @Test
+    public void testTokenizeRandomLikePatterns() {
+        Random random = new Random(42);
+        int tokenized = 0;
+        for (int i = 0; i < 20000; i++) {
+            String line = createLine(random);
+            if (assertTokenizedLikePatterns(line))
+                tokenized++;
+            assertTokenizedLikePatterns(mutate(random, line));
+        }
+        assertTrue(tokenized > 19000);
+    }
+}
@@ -20,8 +20,10 @@
 
 package slash.navigation.nominatim;
 
+import slash.common.helpers.RateLimiter;
 import slash.navigation.common.NavigationPosition;
 import slash.navigation.common.SimpleNavigationPosition;
+import slash.navigation.geocoding.GeocodingHelper;
 import slash.navigation.geocoding.GeocodingService;
 import slash.navigation.nominatim.reverse.AddresspartsType;
 import slash.navigation.nominatim.reverse.ReversegeocodeType;
@@ -29,10 +31,13 @@ import slash.navigation.nominatim.search.PlaceType;
 import slash.navigation.nominatim.search.SearchresultsType;
 import slash.navigation.rest.Get;
 
+import javax.naming.ServiceUnavailableException;
 import javax.xml.bind.JAXBException;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Semaphore;
 import java.util.prefs.Preferences;
 
 import static slash.common.io.Transfer.encodeUri;
@@ -47,6 +52,10 @@ import static slash.common.io.Transfer.trim;
 public class NominatimService implements GeocodingService {
     private static final Preferences preferences = Preferences.userNodeForPackage(NominatimService.class);
     private static final String NOMINATIM_URL_PREFERENCE = "nominatiumUrl";
+    private static final String NOMINATIM_REQUESTS_PER_SECOND_PREFERENCE = "nominatimRequestsPerSecond";
+    // the usage policy permits an absolute maximum of 1 request per second and no parallel requests
+    private static final RateLimiter rateLimiter = new RateLimiter(preferences.getDouble(NOMINATIM_REQUESTS_PER_SECOND_PREFERENCE, 1.0));
+    private static final Semaphore requestPermit = new Semaphore(1, true);
 
     public String getName() {
         return "Nominatim";
@@ -60,17 +69,32 @@ public class NominatimService implements GeocodingService {
         return false;
     }
 
+    public boolean isCacheable() {
+        return true;
+    }
+
     private String getNominatimUrl() {
         return preferences.get(NOMINATIM_URL_PREFERENCE, "https://nominatim.openstreetmap.org/");
     }
 
     private String execute(String uri) throws IOException {
         String url = getNominatimUrl() + uri;
-        Get get = new Get(url);
-        String result = get.executeAsString();
-        if (get.isSuccessful())
-            return result;
-        return null;
+        try {
+            requestPermit.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for request permit");
+        }
+        try {
+            rateLimiter.acquire();
+            Get get = new Get(url);
+            String result = get.executeAsString();
+            if (get.isSuccessful())
+                return result;
+            return null;
+        } finally {
+            requestPermit.release();
+        }
     }
 
     private SearchresultsType getSearchFor(String uri) throws IOException {
@@ -132,4 +156,9 @@ public class NominatimService implements GeocodingService {
                         (parts.getCountry() != null ? parts.getCountry() : "");
         return trim(result);
     }
+
+    public List<String> getAddressesFor(List<NavigationPosition> positions) throws IOException, ServiceUnavailableException {
+        // the usage policy permits no parallel requests
+        return GeocodingHelper.getAddressesFor(this, positions, null);
+    }
 }
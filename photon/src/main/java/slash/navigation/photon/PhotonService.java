@@ -24,16 +24,21 @@ import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.geojson.*;
+import slash.common.helpers.RateLimiter;
 import slash.navigation.common.NavigationPosition;
 import slash.navigation.common.SimpleNavigationPosition;
+import slash.navigation.geocoding.GeocodingHelper;
 import slash.navigation.geocoding.GeocodingService;
 import slash.navigation.rest.Get;
 
+import javax.naming.ServiceUnavailableException;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 import java.util.prefs.Preferences;
 
+import static slash.common.helpers.ThreadHelper.createDaemonThreadPool;
 import static slash.common.io.Transfer.encodeUri;
 import static slash.common.io.Transfer.trim;
 
@@ -46,6 +51,10 @@ import static slash.common.io.Transfer.trim;
 public class PhotonService implements GeocodingService {
     private static final Preferences preferences = Preferences.userNodeForPackage(PhotonService.class);
     private static final String PHOTON_URL_PREFERENCE = "photonUrl";
+    private static final String PHOTON_REQUESTS_PER_SECOND_PREFERENCE = "photonRequestsPerSecond";
+    private static final int PARALLEL_REQUESTS = 4;
+    private static final ExecutorService geocodingExecutor = createDaemonThreadPool("PhotonGeocoding", PARALLEL_REQUESTS);
+    private static final RateLimiter rateLimiter = new RateLimiter(preferences.getDouble(PHOTON_REQUESTS_PER_SECOND_PREFERENCE, 10.0));
 
     public String getName() {
         return "Photon";
@@ -59,12 +68,17 @@ public class PhotonService implements GeocodingService {
         return false;
     }
 
+    public boolean isCacheable() {
+        return true;
+    }
+
     private String getPhotonUrl() {
         return preferences.get(PHOTON_URL_PREFERENCE, "http://photon.komoot.de");
     }
 
     private String execute(String uri) throws IOException {
         String url = getPhotonUrl() + uri;
+        rateLimiter.acquire();
         Get get = new Get(url);
         String result = get.executeAsString();
         if (get.isSuccessful())
@@ -122,6 +136,10 @@ public class PhotonService implements GeocodingService {
         return getDisplayName(feature);
     }
 
+    public List<String> getAddressesFor(List<NavigationPosition> positions) throws IOException, ServiceUnavailableException {
+        return GeocodingHelper.getAddressesFor(this, positions, geocodingExecutor);
+    }
+
     private String getProperty(Feature feature, String propertyName) {
         Object property = feature.getProperty(propertyName);
         return property != null ? trim(property.toString()) : "";
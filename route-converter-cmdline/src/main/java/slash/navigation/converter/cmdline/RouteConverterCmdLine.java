@@ -22,10 +22,16 @@ package slash.navigation.converter.cmdline;
 
 import slash.common.system.Version;
 import slash.navigation.base.*;
+import slash.navigation.common.LongitudeAndLatitude;
+import slash.navigation.common.NavigationPosition;
+import slash.navigation.elevation.CachingElevationService;
+import slash.navigation.elevation.ElevationService;
+import slash.navigation.geonames.GeoNamesService;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.LogManager;
 import java.util.logging.Logger;
@@ -35,6 +41,7 @@ import static slash.common.io.Files.*;
 import static slash.common.system.Platform.*;
 import static slash.common.system.Version.parseVersionFromManifest;
 import static slash.navigation.base.NavigationFormatParser.getNumberOfFilesToWriteFor;
+import static slash.navigation.elevation.CachingElevationService.disposeElevationCache;
 
 /**
  * A simple command line user interface for the route conversion.
@@ -44,6 +51,7 @@ import static slash.navigation.base.NavigationFormatParser.getNumberOfFilesToWri
 
 public class RouteConverterCmdLine {
     private static final Logger log = Logger.getLogger(RouteConverterCmdLine.class.getName());
+    private static final String COMPLEMENT_ELEVATIONS_OPTION = "-elevations";
     private NavigationFormatRegistry registry = new CmdLineNavigationFormatRegistry();
 
     private void initializeLogging() {
@@ -74,11 +82,13 @@ public class RouteConverterCmdLine {
         Version version = parseVersionFromManifest();
         log.info("Started RouteConverter " + version.getVersion() + " from " + version.getDate() +
                 " on " + getJava() + " and " + getPlatform() + " with " + getMaximumMemory() + " MByte heap");
-        if (args.length != 3) {
-            log.info("Usage: java -jar RouteConverterCmdLine.jar <source file> <target format> <target file>");
+        if (args.length != 3 && !(args.length == 4 && COMPLEMENT_ELEVATIONS_OPTION.equals(args[3]))) {
+            log.info("Usage: java -jar RouteConverterCmdLine.jar <source file> <target format> <target file> [" +
+                    COMPLEMENT_ELEVATIONS_OPTION + "]");
             logFormatNames(false);
             return 5;
         }
+        boolean complementElevations = args.length == 4;
 
         File source = absolutize(new File(args[0]));
         if (!source.exists()) {
@@ -101,7 +111,7 @@ public class RouteConverterCmdLine {
         }
 
         try {
-            convert(source, format, target);
+            convert(source, format, target, complementElevations);
         } catch (IOException e) {
             log.severe("Error while converting: " + e);
             return 25;
@@ -110,7 +120,38 @@ public class RouteConverterCmdLine {
         return 0;
     }
 
-    private void convert(File source, NavigationFormat format, File target) throws IOException {
+    private void complementElevations(List<BaseRoute> routes) throws IOException {
+        // shares the elevation cache with the graphical user interface
+        ElevationService service = new CachingElevationService(new GeoNamesService());
+        for (BaseRoute route : routes) {
+            List<NavigationPosition> positions = new ArrayList<>();
+            List<LongitudeAndLatitude> longitudeAndLatitudes = new ArrayList<>();
+            for (int i = 0; i < route.getPositionCount(); i++) {
+                NavigationPosition position = route.getPosition(i);
+                if (position.hasCoordinates() && position.getElevation() == null) {
+                    positions.add(position);
+                    longitudeAndLatitudes.add(new LongitudeAndLatitude(position.getLongitude(), position.getLatitude()));
+                }
+            }
+            if (positions.isEmpty())
+                continue;
+
+            List<Double> elevations = service.getElevationsFor(longitudeAndLatitudes);
+            int count = 0;
+            for (int i = 0; i < positions.size(); i++) {
+                Double elevation = elevations.get(i);
+                if (elevation != null) {
+                    positions.get(i).setElevation(elevation);
+                    count++;
+                }
+            }
+            if (count > 0)
+                route.modified();
+            log.info("Complemented " + count + " of " + positions.size() + " missing elevations of '" + route.getName() + "'");
+        }
+    }
+
+    private void convert(File source, NavigationFormat format, File target, boolean complementElevations) throws IOException {
         NavigationFormatParser parser = new NavigationFormatParser(new NavigationFormatRegistry());
         ParserResult result = parser.read(source);
         if (!result.isSuccessful()) {
@@ -119,6 +160,11 @@ public class RouteConverterCmdLine {
             exit(20);
         }
 
+        if (complementElevations) {
+            complementElevations(result.getAllRoutes());
+            disposeElevationCache();
+        }
+
         if (format.isSupportsMultipleRoutes()) {
             parser.write(result.getAllRoutes(), (MultipleRoutesFormat) format, target);
         } else {
@@ -27,6 +27,7 @@ import slash.navigation.converter.gui.helpers.AutomaticGeocodingService;
 import slash.navigation.converter.gui.helpers.MapViewImplementation;
 import slash.navigation.converter.gui.helpers.OverlaysMenu;
 import slash.navigation.datasources.DataSource;
+import slash.navigation.elevation.CachingElevationService;
 import slash.navigation.geonames.GeoNamesService;
 import slash.navigation.graphhopper.GraphHopper;
 import slash.navigation.gui.Application;
@@ -139,6 +140,8 @@ public class RouteConverterOpenSource extends RouteConverter {
         for (HgtFiles hgtFile : getHgtFilesService().getHgtFiles()) {
             getElevationServiceFacade().addElevationService(hgtFile);
         }
+
+        getElevationServiceFacade().addElevationService(new CachingElevationService(new GeoNamesService()));
     }
 
     protected void updateElevationServices() {
@@ -174,6 +174,7 @@ import static slash.navigation.datasources.DataSourceManager.FORMAT_XML;
 import static slash.navigation.datasources.DataSourceManager.V1;
 import static slash.navigation.download.Action.Copy;
 import static slash.navigation.download.Action.Extract;
+import static slash.navigation.elevation.CachingElevationService.disposeElevationCache;
 import static slash.navigation.gui.helpers.JMenuHelper.findItem;
 import static slash.navigation.gui.helpers.JMenuHelper.findMenu;
 import static slash.navigation.gui.helpers.UIHelper.patchUIManager;
@@ -520,6 +521,8 @@ public abstract class RouteConverter extends SingleFrameApplication {
             audioPlayer.dispose();
         if (geoTagger != null)
             geoTagger.dispose();
+        getGeocodingServiceFacade().dispose();
+        disposeElevationCache();
         getDataSourceManager().dispose();
         getDownloadManager().saveQueue();
         getTileServerMapManager().dispose();
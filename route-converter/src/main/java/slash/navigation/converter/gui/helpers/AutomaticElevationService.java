@@ -29,6 +29,7 @@ import java.util.*;
 import java.util.logging.Logger;
 
 import static java.util.Arrays.sort;
+import static java.util.Collections.nCopies;
 
 /**
  * An elevation service that tries to find the best available elevation service.
@@ -107,6 +108,53 @@ public class AutomaticElevationService implements ElevationService {
             return null;
     }
 
+    public List<Double> getElevationsFor(List<LongitudeAndLatitude> longitudeAndLatitudes) throws IOException {
+        List<Double> result = new ArrayList<>(nCopies(longitudeAndLatitudes.size(), (Double) null));
+        int found = 0;
+        IOException lastException = null;
+
+        for (ElevationService service : sortByBestEffort(elevationServiceFacade.getElevationServices())) {
+            if (found == longitudeAndLatitudes.size())
+                break;
+
+            try {
+                if(service.isOverQueryLimit())
+                    continue;
+
+                // ask the next service only for the positions without elevation
+                List<Integer> indices = new ArrayList<>();
+                List<LongitudeAndLatitude> missing = new ArrayList<>();
+                for (int i = 0; i < result.size(); i++) {
+                    if (result.get(i) == null) {
+                        indices.add(i);
+                        missing.add(longitudeAndLatitudes.get(i));
+                    }
+                }
+
+                List<Double> elevations = service.getElevationsFor(missing);
+                int count = 0;
+                for (int i = 0; i < indices.size(); i++) {
+                    Double elevation = elevations.get(i);
+                    if (elevation != null) {
+                        result.set(indices.get(i), elevation);
+                        count++;
+                    }
+                }
+                found += count;
+                if (count > 0)
+                    log.fine("Used " + service.getName() + " to retrieve " + count + " elevations");
+
+            } catch (IOException e) {
+                lastException = e;
+            }
+        }
+
+        if(found == 0 && lastException != null)
+            throw lastException;
+        else
+            return result;
+    }
+
     private ElevationService[] sortByBestEffort(List<ElevationService> elevationServices) {
         List<ElevationService> toSort = new ArrayList<>(elevationServices);
         toSort.remove(this);
@@ -28,6 +28,7 @@ import java.util.*;
 import java.util.logging.Logger;
 
 import static java.util.Arrays.sort;
+import static java.util.Collections.nCopies;
 
 /**
  * A geocoding service that tries to find the best available geocoding service.
@@ -88,7 +89,7 @@ public class AutomaticGeocodingService implements GeocodingService {
         for (GeocodingService service : sortByBestEffort(geocodingServiceFacade.getGeocodingServices())) {
             try {
 
-                String address = service.getAddressFor(position);
+                String address = geocodingServiceFacade.getAddressFor(service, position);
                 if (address != null) {
                     log.info("Used " + service.getName() + " to retrieve address for " + address);
                     return address;
@@ -105,6 +106,50 @@ public class AutomaticGeocodingService implements GeocodingService {
             return null;
     }
 
+    public List<String> getAddressesFor(List<NavigationPosition> positions) throws IOException, ServiceUnavailableException {
+        List<String> result = new ArrayList<>(nCopies(positions.size(), (String) null));
+        int found = 0;
+        IOException lastException = null;
+
+        for (GeocodingService service : sortByBestEffort(geocodingServiceFacade.getGeocodingServices())) {
+            if (found == positions.size())
+                break;
+
+            try {
+                // ask the next service only for the positions without address
+                List<Integer> indices = new ArrayList<>();
+                List<NavigationPosition> missing = new ArrayList<>();
+                for (int i = 0; i < result.size(); i++) {
+                    if (result.get(i) == null) {
+                        indices.add(i);
+                        missing.add(positions.get(i));
+                    }
+                }
+
+                List<String> addresses = geocodingServiceFacade.getAddressesFor(service, missing);
+                int count = 0;
+                for (int i = 0; i < indices.size(); i++) {
+                    String address = addresses.get(i);
+                    if (address != null) {
+                        result.set(indices.get(i), address);
+                        count++;
+                    }
+                }
+                found += count;
+                if (count > 0)
+                    log.info("Used " + service.getName() + " to retrieve " + count + " addresses");
+
+            } catch (IOException e) {
+                lastException = e;
+            }
+        }
+
+        if(found == 0 && lastException != null)
+            throw lastException;
+        else
+            return result;
+    }
+
     private GeocodingService[] sortByBestEffort(List<GeocodingService> geocodingServices) {
         List<GeocodingService> toSort = new ArrayList<>(geocodingServices);
         toSort.remove(this);
@@ -96,6 +96,14 @@ public class ElevationServiceFacade {
         return elevation != null ? formatElevation(elevation).doubleValue() : null;
     }
 
+    public List<Double> getElevationsFor(List<LongitudeAndLatitude> longitudeAndLatitudes) throws IOException {
+        List<Double> elevations = getElevationService().getElevationsFor(longitudeAndLatitudes);
+        List<Double> result = new ArrayList<>(elevations.size());
+        for (Double elevation : elevations)
+            result.add(elevation != null ? formatElevation(elevation).doubleValue() : null);
+        return result;
+    }
+
     public boolean isDownload() {
         return getElevationService().isDownload();
     }
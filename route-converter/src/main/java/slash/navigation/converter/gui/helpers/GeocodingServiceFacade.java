@@ -20,10 +20,12 @@
 
 package slash.navigation.converter.gui.helpers;
 
+import slash.navigation.common.CoordinateCache;
 import slash.navigation.common.NavigationPosition;
 import slash.navigation.geocoding.GeocodingService;
 
 import javax.naming.ServiceUnavailableException;
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
@@ -31,6 +33,8 @@ import java.util.logging.Logger;
 import java.util.prefs.Preferences;
 
 import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.DAYS;
+import static slash.common.io.Directories.getApplicationDirectory;
 
 /**
  * Helps to convert addresses into geographic coordinates.
@@ -42,11 +46,24 @@ public class GeocodingServiceFacade {
     private static final Logger log = Logger.getLogger(GeocodingServiceFacade.class.getName());
     private static final Preferences preferences = Preferences.userNodeForPackage(GeocodingServiceFacade.class);
     private static final String GEOCODING_SERVICE = "geocodingService-2.24"; // versioned preference
+    private static final String ADDRESS_CACHE_SIZE_PREFERENCE = "addressCacheSize";
+    private static final String ADDRESS_CACHE_TIME_TO_LIVE_PREFERENCE = "addressCacheTimeToLive";
 
     private final List<GeocodingService> geocodingServices = new ArrayList<>();
+    private final CoordinateCache addressCache;
     private GeocodingService preferredGeocodingService;
     private boolean loggedFailedWarning;
 
+    public GeocodingServiceFacade() {
+        this(new CoordinateCache(new File(getApplicationDirectory(), "addresses.cache"),
+                preferences.getInt(ADDRESS_CACHE_SIZE_PREFERENCE, 10000),
+                preferences.getLong(ADDRESS_CACHE_TIME_TO_LIVE_PREFERENCE, DAYS.toMillis(30))));
+    }
+
+    GeocodingServiceFacade(CoordinateCache addressCache) {
+        this.addressCache = addressCache;
+    }
+
     public void addGeocodingService(GeocodingService geocodingService) {
         GeocodingService previous = findGeocodingService(geocodingService.getName());
         if(previous != null) {
@@ -91,12 +108,74 @@ public class GeocodingServiceFacade {
         preferences.put(GEOCODING_SERVICE, service.getName());
     }
 
+    public CoordinateCache getAddressCache() {
+        return addressCache;
+    }
+
+    public void dispose() {
+        addressCache.dispose();
+    }
+
+    private static boolean hasCoordinates(NavigationPosition position) {
+        return position != null && position.hasCoordinates();
+    }
+
     public List<NavigationPosition> getPositionsFor(String address) throws IOException, ServiceUnavailableException {
         return getGeocodingService().getPositionsFor(address);
     }
 
     public String getAddressFor(NavigationPosition position) throws IOException, ServiceUnavailableException {
-        return getGeocodingService().getAddressFor(position);
+        return getAddressFor(getGeocodingService(), position);
+    }
+
+    String getAddressFor(GeocodingService service, NavigationPosition position) throws IOException, ServiceUnavailableException {
+        // services like Automatic look up the cache per service that answers
+        if (!service.isCacheable() || !hasCoordinates(position))
+            return service.getAddressFor(position);
+
+        String address = addressCache.get(service.getName(), position.getLongitude(), position.getLatitude());
+        if (address == null) {
+            address = service.getAddressFor(position);
+            addressCache.put(service.getName(), position.getLongitude(), position.getLatitude(), address);
+            addressCache.flush();
+        }
+        return address;
+    }
+
+    public List<String> getAddressesFor(List<NavigationPosition> positions) throws IOException, ServiceUnavailableException {
+        return getAddressesFor(getGeocodingService(), positions);
+    }
+
+    List<String> getAddressesFor(GeocodingService service, List<NavigationPosition> positions) throws IOException, ServiceUnavailableException {
+        if (!service.isCacheable())
+            return service.getAddressesFor(positions);
+
+        List<String> result = new ArrayList<>(positions.size());
+        List<NavigationPosition> missing = new ArrayList<>();
+        List<Integer> missingIndices = new ArrayList<>();
+        for (int i = 0; i < positions.size(); i++) {
+            NavigationPosition position = positions.get(i);
+            String address = hasCoordinates(position) ?
+                    addressCache.get(service.getName(), position.getLongitude(), position.getLatitude()) : null;
+            result.add(address);
+            if (address == null) {
+                missing.add(position);
+                missingIndices.add(i);
+            }
+        }
+        if (missing.isEmpty())
+            return result;
+
+        List<String> addresses = service.getAddressesFor(missing);
+        for (int i = 0; i < missing.size(); i++) {
+            NavigationPosition position = missing.get(i);
+            String address = addresses.get(i);
+            result.set(missingIndices.get(i), address);
+            if (hasCoordinates(position))
+                addressCache.put(service.getName(), position.getLongitude(), position.getLatitude(), address);
+        }
+        addressCache.flush();
+        return result;
     }
 
     public NavigationPosition getPositionFor(String address) throws IOException, ServiceUnavailableException {
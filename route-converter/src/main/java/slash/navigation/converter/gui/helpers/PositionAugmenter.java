@@ -28,8 +28,7 @@ import slash.navigation.converter.gui.RouteConverter;
 import slash.navigation.converter.gui.models.PositionColumnValues;
 import slash.navigation.converter.gui.models.PositionsModel;
 import slash.navigation.gui.Application;
-import slash.navigation.gui.events.ContinousRange;
-import slash.navigation.gui.events.RangeOperation;
+import slash.navigation.gui.events.CoalescedRange;
 import slash.navigation.gui.notifications.NotificationManager;
 
 import javax.swing.*;
@@ -38,21 +37,31 @@ import java.io.IOException;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.logging.Logger;
 
 import static java.lang.Math.abs;
 import static java.lang.Math.min;
 import static java.lang.String.format;
 import static java.util.Arrays.asList;
+import static java.util.Arrays.binarySearch;
+import static java.util.Arrays.sort;
+import static java.util.Collections.singletonList;
 import static javax.swing.JOptionPane.ERROR_MESSAGE;
 import static javax.swing.JOptionPane.showMessageDialog;
 import static javax.swing.SwingUtilities.invokeLater;
 import static javax.swing.event.TableModelEvent.ALL_COLUMNS;
 import static slash.common.helpers.ExceptionHelper.getLocalizedMessage;
 import static slash.common.helpers.ExceptionHelper.printStackTrace;
+import static slash.common.helpers.ThreadHelper.createFixedThreadPool;
 import static slash.common.helpers.ThreadHelper.createSingleThreadExecutor;
+import static slash.common.io.Transfer.isEmpty;
 import static slash.common.io.Transfer.widthInDigits;
 import static slash.common.type.CompactCalendar.fromMillis;
 import static slash.navigation.base.RouteComments.formatNumberedPosition;
@@ -72,12 +81,19 @@ import static slash.navigation.gui.helpers.JTableHelper.scrollToPosition;
 
 public class PositionAugmenter {
     private static final Logger log = Logger.getLogger(PositionAugmenter.class.getName());
+    private static final int ELEVATION_BATCH_SIZE = 100;
+    private static final int ADDRESS_BATCH_SIZE = 20;
+    private static final int COORDINATES_BATCH_SIZE = 5;
+    private static final int LOOKUP_THREAD_COUNT = 4;
+    private static final int LOOKAHEAD_BATCH_COUNT = LOOKUP_THREAD_COUNT;
+    private static final long NOTIFICATION_DELAY_MILLIS = 100;
 
     private final JFrame frame;
     private final JTable positionsView;
     private final PositionsModel positionsModel;
 
     private final ExecutorService executor = createSingleThreadExecutor("AugmentPositions");
+    private final ExecutorService lookupExecutor = createFixedThreadPool("AugmentPositionsLookup", LOOKUP_THREAD_COUNT);
     private final ElevationServiceFacade elevationServiceFacade;
     private final GeocodingServiceFacade geocodingServiceFacade;
     private static final Object notificationMutex = new Object();
@@ -102,9 +118,10 @@ public class PositionAugmenter {
     public void dispose() {
         interrupt();
         executor.shutdownNow();
+        lookupExecutor.shutdownNow();
     }
 
-    private interface OverwritePredicate {
+    interface OverwritePredicate {
         boolean shouldOverwrite(NavigationPosition position);
     }
 
@@ -114,7 +131,7 @@ public class PositionAugmenter {
         }
     };
 
-    private static final OverwritePredicate COORDINATE_PREDICATE = new OverwritePredicate() {
+    static final OverwritePredicate COORDINATE_PREDICATE = new OverwritePredicate() {
         public boolean shouldOverwrite(NavigationPosition position) {
             return position.hasCoordinates();
         }
@@ -124,6 +141,7 @@ public class PositionAugmenter {
         String getName();
         int getColumnIndex();
         void performOnStart();
+        void performOnEnd();
         boolean run(int index, NavigationPosition position) throws Exception;
         String getMessagePrefix();
     }
@@ -173,40 +191,48 @@ public class PositionAugmenter {
                     lastException[0] = null;
                     final int maximumRangeLength = rows.length > 99 ? rows.length / (slowOperation ? 100 : 10) : rows.length;
 
-                    new ContinousRange(rows, new RangeOperation() {
-                        public void performOnIndex(final int index) {
+                    // one notification for all rows edited within the range length or the delay
+                    CoalescedRange updatedRows = new CoalescedRange(maximumRangeLength, NOTIFICATION_DELAY_MILLIS) {
+                        protected void performOnRange(final int firstIndex, final int lastIndex) {
+                            invokeLater(new Runnable() {
+                                public void run() {
+                                    positionsModel.fireTableRowsUpdated(firstIndex, lastIndex, operation.getColumnIndex());
+                                    if (positionsTable != null) {
+                                        scrollToPosition(positionsTable, min(lastIndex + maximumRangeLength, positionsModel.getRowCount() - 1));
+                                    }
+                                }
+                            });
+                        }
+                    };
+
+                    int[] sortedRows = rows.clone();
+                    sort(sortedRows);
+                    try {
+                        for (int index : sortedRows) {
                             NavigationPosition position = positionsModel.getPosition(index);
                             if (predicate.shouldOverwrite(position)) {
                                 try {
-                                    // ignoring the result since the performance boost of the continous
-                                    // range operations outweights the possible optimization
+                                    // ignoring the result since the performance boost of the coalesced
+                                    // notifications outweights the possible optimization
                                     operation.run(index, position);
                                 } catch (Exception e) {
                                     log.warning(format("Error while running operation %s on position %d: %s, %s", operation, index, e, printStackTrace(e)));
                                     lastException[0] = e;
                                 }
                             }
+                            updatedRows.add(index);
                             getNotificationManager().showNotification(MessageFormat.format(
                                     RouteConverter.getBundle().getString("augmenting-progress"), count[0]++, rows.length), cancelAction);
-                        }
 
-                        public void performOnRange(final int firstIndex, final int lastIndex) {
-                            invokeLater(new Runnable() {
-                                public void run() {
-                                    positionsModel.fireTableRowsUpdated(firstIndex, lastIndex, operation.getColumnIndex());
-                                    if (positionsTable != null) {
-                                        scrollToPosition(positionsTable, min(lastIndex + maximumRangeLength, positionsModel.getRowCount() - 1));
-                                    }
-                                }
-                            });
-                        }
-
-                        public boolean isInterrupted() {
                             synchronized (notificationMutex) {
-                                return cancelAction.isCanceled() || !running;
+                                if (cancelAction.isCanceled() || !running)
+                                    break;
                             }
                         }
-                    }).performMonotonicallyIncreasing(maximumRangeLength);
+                    } finally {
+                        // notify about the rows edited before the operation finished or was canceled
+                        updatedRows.flush();
+                    }
 
                     if (lastException[0] != null) {
                         String errorMessage = RouteConverter.getBundle().getString(operation.getMessagePrefix() + "error");
@@ -214,6 +240,7 @@ public class PositionAugmenter {
                                 MessageFormat.format(errorMessage, getLocalizedMessage(lastException[0])), frame.getTitle(), ERROR_MESSAGE);
                     }
                 } finally {
+                    operation.performOnEnd();
                     invokeLater(new Runnable() {
                         public void run() {
                             getNotificationManager().showNotification(MessageFormat.format(
@@ -231,6 +258,8 @@ public class PositionAugmenter {
                                     final OverwritePredicate predicate) {
         executeOperation(positionsTable, positionsModel, rows, true, predicate,
                 new Operation() {
+                    private final BatchedCoordinates coordinates = new BatchedCoordinates(rows, predicate);
+
                     public String getName() {
                         return "CoordinatesPositionAugmenter";
                     }
@@ -242,13 +271,17 @@ public class PositionAugmenter {
                     public void performOnStart() {
                     }
 
+                    public void performOnEnd() {
+                        coordinates.cancel();
+                    }
+
                     public boolean run(int index, NavigationPosition position) throws Exception {
-                        NavigationPosition coordinates = RouteConverter.getInstance().getGeocodingServiceFacade().getPositionFor(position.getDescription());
-                        if (coordinates != null)
+                        NavigationPosition next = coordinates.getValueFor(index, position);
+                        if (next != null)
                             positionsModel.edit(index,
                                     new PositionColumnValues(asList(LONGITUDE_COLUMN_INDEX, LATITUDE_COLUMN_INDEX),
-                                            Arrays.asList(coordinates.getLongitude(), coordinates.getLatitude())), false, true);
-                        return coordinates != null;
+                                            Arrays.asList(next.getLongitude(), next.getLatitude())), false, true);
+                        return next != null;
                     }
 
                     public String getMessagePrefix() {
@@ -271,6 +304,8 @@ public class PositionAugmenter {
                                    final OverwritePredicate predicate) {
         executeOperation(positionsTable, positionsModel, rows, true, predicate,
                 new Operation() {
+                    private final BatchedElevations elevations = new BatchedElevations(rows, predicate);
+
                     public String getName() {
                         return "ElevationPositionAugmenter";
                     }
@@ -283,9 +318,13 @@ public class PositionAugmenter {
                         downloadElevationData(rows, true);
                     }
 
+                    public void performOnEnd() {
+                        elevations.cancel();
+                    }
+
                     public boolean run(int index, NavigationPosition position) throws Exception {
                         String previousElevation = formatElevation(position.getElevation());
-                        String nextElevation = getElevationFor(position);
+                        String nextElevation = elevations.getValueFor(index, position);
                         boolean changed = nextElevation != null && !nextElevation.equals(previousElevation);
                         if (changed)
                             positionsModel.edit(index, new PositionColumnValues(ELEVATION_COLUMN_INDEX, nextElevation), false, true);
@@ -299,15 +338,160 @@ public class PositionAugmenter {
         );
     }
 
-    private String getElevationFor(NavigationPosition position) throws IOException {
-        if(!position.hasCoordinates())
-            return null;
+    /**
+     * Looks up values for the rows in batches so that services can answer
+     * many positions with one tile, one request or parallel requests.
+     * The next batches are looked up on the lookup executor while the values of
+     * the current batch are applied. Rows without a key for the lookup and rows
+     * that the predicate of the operation rejects are never looked up.
+     */
+    abstract class BatchedLookup<T> {
+        private final int[] sortedRows;
+        private final OverwritePredicate predicate;
+        private final int batchSize;
+        private final Map<Integer, Batch<T>> batches = new HashMap<>();
+        private int nextRow;
+
+        BatchedLookup(int[] rows, OverwritePredicate predicate, int batchSize) {
+            this.sortedRows = rows.clone();
+            sort(sortedRows);
+            this.predicate = predicate;
+            this.batchSize = batchSize;
+        }
 
-        Double elevation = elevationServiceFacade.getElevationFor(position.getLongitude(), position.getLatitude());
-        if(elevation == null)
-            return null;
+        boolean hasKey(NavigationPosition position) {
+            return position.hasCoordinates();
+        }
+
+        private boolean isLookedUp(NavigationPosition position) {
+            return hasKey(position) && predicate.shouldOverwrite(position);
+        }
+
+        T getValueFor(int index, NavigationPosition position) throws Exception {
+            if (!isLookedUp(position))
+                return null;
+
+            submitBatches(index, position);
+            Batch<T> batch = batches.remove(index);
+            try {
+                return batch.getValueFor(index);
+            } catch (ExecutionException e) {
+                // look up the remaining rows of the failed batch again
+                for (Integer row : batch.indices)
+                    batches.remove(row);
+                Throwable cause = e.getCause();
+                throw cause instanceof Exception ? (Exception) cause : e;
+            }
+        }
+
+        private void submitBatches(int index, NavigationPosition position) {
+            int start = binarySearch(sortedRows, index);
+            if (start < 0) {
+                if (!batches.containsKey(index))
+                    submit(singletonList(index), singletonList(position));
+                return;
+            }
+            if (!batches.containsKey(index))
+                nextRow = start;
+
+            while (nextRow < sortedRows.length && nextRow - start < LOOKAHEAD_BATCH_COUNT * batchSize) {
+                List<Integer> indices = new ArrayList<>(batchSize);
+                List<NavigationPosition> positions = new ArrayList<>(batchSize);
+                while (nextRow < sortedRows.length && indices.size() < batchSize) {
+                    int row = sortedRows[nextRow++];
+                    NavigationPosition next = positionsModel.getPosition(row);
+                    if (isLookedUp(next) && !batches.containsKey(row)) {
+                        indices.add(row);
+                        positions.add(next);
+                    }
+                }
+                if (!indices.isEmpty())
+                    submit(indices, positions);
+            }
+        }
+
+        private void submit(List<Integer> indices, final List<NavigationPosition> positions) {
+            Batch<T> batch = new Batch<>(indices, lookupExecutor.submit(new Callable<List<T>>() {
+                public List<T> call() throws Exception {
+                    return lookup(positions);
+                }
+            }));
+            for (Integer index : indices)
+                batches.put(index, batch);
+        }
+
+        void cancel() {
+            for (Batch<T> batch : batches.values())
+                batch.future.cancel(true);
+            batches.clear();
+        }
+
+        protected abstract List<T> lookup(List<NavigationPosition> positions) throws Exception;
+    }
+
+    private static class Batch<T> {
+        private final List<Integer> indices;
+        private final Future<List<T>> future;
+
+        private Batch(List<Integer> indices, Future<List<T>> future) {
+            this.indices = indices;
+            this.future = future;
+        }
 
-        return formatElevation(elevation);
+        private T getValueFor(int index) throws InterruptedException, ExecutionException {
+            return future.get().get(indices.indexOf(index));
+        }
+    }
+
+    private class BatchedElevations extends BatchedLookup<String> {
+        BatchedElevations(int[] rows, OverwritePredicate predicate) {
+            super(rows, predicate, ELEVATION_BATCH_SIZE);
+        }
+
+        protected List<String> lookup(List<NavigationPosition> positions) throws IOException {
+            List<LongitudeAndLatitude> longitudeAndLatitudes = new ArrayList<>(positions.size());
+            for (NavigationPosition position : positions)
+                longitudeAndLatitudes.add(new LongitudeAndLatitude(position.getLongitude(), position.getLatitude()));
+
+            List<Double> elevations = elevationServiceFacade.getElevationsFor(longitudeAndLatitudes);
+            List<String> result = new ArrayList<>(elevations.size());
+            for (Double elevation : elevations)
+                result.add(elevation != null ? formatElevation(elevation) : null);
+            return result;
+        }
+    }
+
+    private class BatchedAddresses extends BatchedLookup<String> {
+        BatchedAddresses(int[] rows, OverwritePredicate predicate) {
+            super(rows, predicate, ADDRESS_BATCH_SIZE);
+        }
+
+        protected List<String> lookup(List<NavigationPosition> positions) throws Exception {
+            return geocodingServiceFacade.getAddressesFor(positions);
+        }
+    }
+
+    private class BatchedCoordinates extends BatchedLookup<NavigationPosition> {
+        BatchedCoordinates(int[] rows, OverwritePredicate predicate) {
+            super(rows, predicate, COORDINATES_BATCH_SIZE);
+        }
+
+        boolean hasKey(NavigationPosition position) {
+            return !isEmpty(position.getDescription());
+        }
+
+        protected List<NavigationPosition> lookup(List<NavigationPosition> positions) throws Exception {
+            // look up each description once per batch; the batches run in parallel unless the service serializes them
+            Map<String, NavigationPosition> descriptionToPosition = new HashMap<>();
+            List<NavigationPosition> result = new ArrayList<>(positions.size());
+            for (NavigationPosition position : positions) {
+                String description = position.getDescription();
+                if (!descriptionToPosition.containsKey(description))
+                    descriptionToPosition.put(description, geocodingServiceFacade.getPositionFor(description));
+                result.add(descriptionToPosition.get(description));
+            }
+            return result;
+        }
     }
 
     private void downloadElevationData(int[] rows, boolean waitForDownload) {
@@ -334,6 +518,8 @@ public class PositionAugmenter {
                               final OverwritePredicate predicate) {
         executeOperation(positionsTable, positionsModel, rows, true, predicate,
                 new Operation() {
+                    private final BatchedAddresses addresses = new BatchedAddresses(rows, predicate);
+
                     public String getName() {
                         return "AddressPositionAugmenter";
                     }
@@ -345,8 +531,12 @@ public class PositionAugmenter {
                     public void performOnStart() {
                     }
 
+                    public void performOnEnd() {
+                        addresses.cancel();
+                    }
+
                     public boolean run(int index, NavigationPosition position) throws Exception {
-                        String description = geocodingServiceFacade.getAddressFor(position);
+                        String description = addresses.getValueFor(index, position);
                         if (description != null)
                             positionsModel.edit(index, new PositionColumnValues(DESCRIPTION_COLUMN_INDEX, description), false, true);
                         return description != null;
@@ -383,6 +573,9 @@ public class PositionAugmenter {
                     public void performOnStart() {
                     }
 
+                    public void performOnEnd() {
+                    }
+
                     public boolean run(int index, NavigationPosition position) {
                         NavigationPosition predecessor = index > 0 && index < positionsModel.getRowCount() ? positionsModel.getPosition(index - 1) : null;
                         if (predecessor != null) {
@@ -473,6 +666,9 @@ public class PositionAugmenter {
                         successorIndex = findSuccessorWithTime(positionsModel, rows[rows.length-1]);
                     }
 
+                    public void performOnEnd() {
+                    }
+
                     public boolean run(int index, NavigationPosition position) {
                         if (predecessorIndex != -1 && successorIndex != -1) {
                             CompactCalendar previousTime = position.getTime();
@@ -526,6 +722,9 @@ public class PositionAugmenter {
                     public void performOnStart() {
                     }
 
+                    public void performOnEnd() {
+                    }
+
                     public boolean run(int index, NavigationPosition position) {
                         String previousDescription = position.getDescription();
                         int number = numberingStrategy.equals(Absolute_Position_Within_Position_List) ? index : findRelativeIndex(rows, index);
@@ -566,6 +765,8 @@ public class PositionAugmenter {
                          final boolean trackUndo) {
         executeOperation(positionsTable, positionsModel, rows, true, predicate,
                 new Operation() {
+                    private final BatchedAddresses addresses = new BatchedAddresses(rows, predicate);
+                    private final BatchedElevations elevations = new BatchedElevations(rows, predicate);
                     private int predecessorIndex, successorIndex;
 
                     public String getName() {
@@ -588,12 +789,17 @@ public class PositionAugmenter {
                         downloadElevationData(rows, waitForDownload);
                     }
 
+                    public void performOnEnd() {
+                        addresses.cancel();
+                        elevations.cancel();
+                    }
+
                     public boolean run(int index, NavigationPosition position) throws Exception {
                         List<Integer> columnIndices = new ArrayList<>(3);
                         List<Object> columnValues = new ArrayList<>(3);
 
                         if (complementDescription) {
-                            String nextDescription = waitForDownload ? geocodingServiceFacade.getAddressFor(position) : null;
+                            String nextDescription = waitForDownload ? addresses.getValueFor(index, position) : null;
                             if (nextDescription != null)
                                 nextDescription = createDescription(index + 1, nextDescription);
                             String previousDescription = position.getDescription();
@@ -607,7 +813,7 @@ public class PositionAugmenter {
                         if (complementElevation) {
                             String previousElevation = formatElevation(position.getElevation());
                             String nextElevation = waitForDownload || elevationServiceFacade.isDownload() ?
-                                    getElevationFor(position) : null;
+                                    elevations.getValueFor(index, position) : null;
                             boolean changed = nextElevation != null && !nextElevation.equals(previousElevation);
                             if (changed) {
                                 columnIndices.add(ELEVATION_COLUMN_INDEX);
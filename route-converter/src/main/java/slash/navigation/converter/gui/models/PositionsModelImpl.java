@@ -71,6 +71,8 @@ public class PositionsModelImpl extends AbstractTableModel implements PositionsM
 
     public void setRoute(BaseRoute route) {
         this.route = route;
+        if (route != null)
+            route.getPositionColumns();
         fireTableDataChanged();
     }
 
@@ -181,6 +183,7 @@ public class PositionsModelImpl extends AbstractTableModel implements PositionsM
                 int columnIndex = columnToValues.getColumnIndices().get(i);
                 editCell(rowIndex, columnIndex, columnToValues.getNextValues().get(i));
             }
+            getRoute().modified(rowIndex);
         }
 
         if (fireEvent) {
@@ -476,6 +479,8 @@ public class PositionsModelImpl extends AbstractTableModel implements PositionsM
     private TableModelEvent currentEvent;
 
     public void fireTableChanged(TableModelEvent e) {
+        if (getRoute() != null)
+            getRoute().modified(e.getFirstRow());
         this.currentEvent = e;
         super.fireTableChanged(e);
         this.currentEvent = null;
@@ -0,0 +1,179 @@
+/*
+    This file is part of RouteConverter.
+
+    RouteConverter is free software; you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation; either version 2 of the License, or
+    (at your option) any later version.
+
+    RouteConverter is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with RouteConverter; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+
+    Copyright (C) 2007 Christian Pesch. All Rights Reserved.
+*/
+
+package slash.navigation.converter.gui.helpers;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import slash.navigation.common.CoordinateCache;
+import slash.navigation.common.NavigationPosition;
+import slash.navigation.common.SimpleNavigationPosition;
+import slash.navigation.geocoding.GeocodingService;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.io.File.createTempFile;
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.DAYS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class GeocodingServiceFacadeTest {
+    private final NavigationPosition hamburg = new SimpleNavigationPosition(10.0, 53.5);
+    private final NavigationPosition munich = new SimpleNavigationPosition(11.5, 48.1);
+    private final NavigationPosition nowhere = new SimpleNavigationPosition(null, null);
+    private final CountingGeocodingService service = new CountingGeocodingService("Counting", true);
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = createTempFile("addresses", ".cache");
+        assertTrue(file.delete());
+    }
+
+    @After
+    public void tearDown() {
+        if (file.exists())
+            assertTrue(file.delete());
+    }
+
+    private GeocodingServiceFacade createFacade(GeocodingService preferred, GeocodingService... services) {
+        GeocodingServiceFacade facade = new GeocodingServiceFacade(new CoordinateCache(file, 100, DAYS.toMillis(1)));
+        facade.addGeocodingService(preferred);
+        for (GeocodingService geocodingService : services)
+            facade.addGeocodingService(geocodingService);
+        facade.setPreferredGeocodingService(preferred);
+        return facade;
+    }
+
+    private GeocodingServiceFacade createFacade() {
+        return createFacade(service);
+    }
+
+    @Test
+    public void testGetAddressForFromCache() throws Exception {
+        GeocodingServiceFacade facade = createFacade();
+        assertEquals("10.0,53.5", facade.getAddressFor(hamburg));
+        assertEquals("10.0,53.5", facade.getAddressFor(new SimpleNavigationPosition(10.000001, 53.500001)));
+        assertEquals(1, service.requests.size());
+        assertEquals(1, facade.getAddressCache().getHitCount());
+        assertEquals(1, facade.getAddressCache().getMissCount());
+
+        assertNull(facade.getAddressFor(nowhere));
+        assertEquals(2, service.requests.size());
+        assertEquals(2, facade.getAddressCache().getHitCount() + facade.getAddressCache().getMissCount());
+    }
+
+    @Test
+    public void testGetAddressesForOnlyMissingPositions() throws Exception {
+        GeocodingServiceFacade facade = createFacade();
+        facade.getAddressFor(hamburg);
+        service.requests.clear();
+
+        assertEquals(asList("10.0,53.5", "11.5,48.1", null, "10.0,53.5"),
+                facade.getAddressesFor(asList(hamburg, munich, nowhere, hamburg)));
+        assertEquals(asList(munich, nowhere), service.requests);
+        assertEquals(2, facade.getAddressCache().getHitCount());
+    }
+
+    @Test
+    public void testCacheSurvivesRestart() throws Exception {
+        createFacade().getAddressesFor(asList(hamburg, munich));
+        assertEquals(2, service.requests.size());
+
+        GeocodingServiceFacade restarted = createFacade();
+        assertEquals(asList("10.0,53.5", "11.5,48.1"), restarted.getAddressesFor(asList(hamburg, munich)));
+        assertEquals(2, service.requests.size());
+        assertEquals(2, restarted.getAddressCache().getHitCount());
+        assertEquals(0, restarted.getAddressCache().getMissCount());
+    }
+
+    @Test
+    public void testNoCacheForServicesThatForbidStoring() throws Exception {
+        CountingGeocodingService uncacheable = new CountingGeocodingService("Uncacheable", false);
+        GeocodingServiceFacade facade = createFacade(uncacheable);
+        facade.getAddressFor(hamburg);
+        facade.getAddressesFor(asList(hamburg, munich));
+        assertEquals(asList(hamburg, hamburg, munich), uncacheable.requests);
+        assertEquals(0, facade.getAddressCache().size());
+    }
+
+    @Test
+    public void testAutomaticCachesPerAnsweringService() throws Exception {
+        CountingGeocodingService uncacheable = new CountingGeocodingService("Uncacheable", false);
+        GeocodingServiceFacade facade = new GeocodingServiceFacade(new CoordinateCache(file, 100, DAYS.toMillis(1)));
+        AutomaticGeocodingService automatic = new AutomaticGeocodingService(facade);
+        facade.addGeocodingService(automatic);
+        facade.addGeocodingService(uncacheable);
+        facade.addGeocodingService(service);
+        facade.setPreferredGeocodingService(automatic);
+        uncacheable.answer = false;
+
+        assertEquals(asList("10.0,53.5", "11.5,48.1"), facade.getAddressesFor(asList(hamburg, munich)));
+        assertEquals("10.0,53.5", facade.getAddressFor(hamburg));
+        assertEquals(asList(hamburg, munich), service.requests);
+        assertEquals(2, facade.getAddressCache().size());
+        assertEquals("11.5,48.1", facade.getAddressCache().get("Counting", 11.5, 48.1));
+        assertNull(facade.getAddressCache().get("Automatic", 11.5, 48.1));
+        assertNull(facade.getAddressCache().get("Uncacheable", 11.5, 48.1));
+    }
+
+    private static class CountingGeocodingService implements GeocodingService {
+        private final String name;
+        private final boolean cacheable;
+        private final List<NavigationPosition> requests = new ArrayList<>();
+        private boolean answer = true;
+
+        private CountingGeocodingService(String name, boolean cacheable) {
+            this.name = name;
+            this.cacheable = cacheable;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isCacheable() {
+            return cacheable;
+        }
+
+        public boolean isDownload() {
+            return false;
+        }
+
+        public boolean isOverQueryLimit() {
+            return false;
+        }
+
+        public List<NavigationPosition> getPositionsFor(String address) {
+            throw new UnsupportedOperationException();
+        }
+
+        public String getAddressFor(NavigationPosition position) {
+            requests.add(position);
+            return answer && position.hasCoordinates() ? position.getLongitude() + "," + position.getLatitude() : null;
+        }
+    }
+}
@@ -23,14 +23,29 @@ package slash.navigation.converter.gui.helpers;
 import org.junit.Before;
 import org.junit.Test;
 import slash.navigation.base.BaseRoute;
+import slash.navigation.common.NavigationPosition;
 import slash.navigation.converter.gui.models.PositionsModelImpl;
 import slash.navigation.gpx.Gpx11Format;
 import slash.navigation.gpx.GpxPosition;
 import slash.navigation.gpx.GpxRoute;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static java.util.Arrays.asList;
+import static java.util.Collections.synchronizedList;
+import static java.util.Collections.synchronizedSet;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static slash.common.TestCase.calendar;
+import static slash.navigation.converter.gui.helpers.PositionAugmenter.COORDINATE_PREDICATE;
 
 public class PositionAugmenterTest {
     private PositionAugmenter augmenter = new PositionAugmenter(null, null, null, null, null);
@@ -94,4 +109,182 @@ public class PositionAugmenterTest {
         assertEquals(3, augmenter.findSuccessorWithTime(model, 3));
         assertEquals(-1, augmenter.findSuccessorWithTime(model, 4));
     }
+
+    private PositionsModelImpl createModelWithCoordinates(int count) {
+        List<GpxPosition> positions = new ArrayList<>();
+        for (int i = 0; i < count; i++)
+            positions.add(new GpxPosition(10.0 + i, 50.0, null, null, null, null));
+        PositionsModelImpl positionsModel = new PositionsModelImpl();
+        positionsModel.setRoute(new GpxRoute(new Gpx11Format(), null, null, null, positions));
+        return positionsModel;
+    }
+
+    private int[] createRows(int count) {
+        int[] rows = new int[count];
+        for (int i = 0; i < count; i++)
+            rows[i] = i;
+        return rows;
+    }
+
+    @Test
+    public void testBatchedLookupAheadOnLookupThreads() throws Exception {
+        PositionsModelImpl positionsModel = createModelWithCoordinates(50);
+        positionsModel.getPosition(7).setLongitude(null);
+        PositionAugmenter batchAugmenter = new PositionAugmenter(null, positionsModel, null, null, null);
+
+        final AtomicInteger calls = new AtomicInteger(), running = new AtomicInteger(), maximumRunning = new AtomicInteger();
+        final CountDownLatch secondStarted = new CountDownLatch(1);
+        final List<Double> lookedUp = synchronizedList(new ArrayList<Double>());
+        final Set<String> threadNames = synchronizedSet(new HashSet<String>());
+        int[] rows = createRows(50);
+        PositionAugmenter.BatchedLookup<Double> lookup = batchAugmenter.new BatchedLookup<Double>(rows, COORDINATE_PREDICATE, 5) {
+            protected List<Double> lookup(List<NavigationPosition> positions) throws Exception {
+                maximumRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    threadNames.add(Thread.currentThread().getName());
+                    // the first lookup waits until a lookup ahead of it runs in parallel
+                    if (calls.incrementAndGet() == 1)
+                        assertTrue(secondStarted.await(10, SECONDS));
+                    else
+                        secondStarted.countDown();
+
+                    List<Double> result = new ArrayList<>();
+                    for (NavigationPosition position : positions) {
+                        lookedUp.add(position.getLongitude());
+                        result.add(position.getLongitude());
+                    }
+                    return result;
+                } finally {
+                    running.decrementAndGet();
+                }
+            }
+        };
+
+        try {
+            for (int row : rows) {
+                Double expected = row == 7 ? null : Double.valueOf(10.0 + row);
+                assertEquals(expected, lookup.getValueFor(row, positionsModel.getPosition(row)));
+            }
+        } finally {
+            batchAugmenter.dispose();
+        }
+
+        assertEquals(49, lookedUp.size());
+        assertEquals(49, new HashSet<>(lookedUp).size());
+        assertTrue(maximumRunning.get() > 1);
+        assertTrue(maximumRunning.get() <= 4);
+        for (String threadName : threadNames)
+            assertTrue(threadName.startsWith("AugmentPositionsLookup"));
+    }
+
+    @Test
+    public void testBatchedLookupAgainAfterFailure() throws Exception {
+        PositionsModelImpl positionsModel = createModelWithCoordinates(10);
+        PositionAugmenter batchAugmenter = new PositionAugmenter(null, positionsModel, null, null, null);
+
+        final AtomicInteger calls = new AtomicInteger();
+        int[] rows = createRows(10);
+        PositionAugmenter.BatchedLookup<Double> lookup = batchAugmenter.new BatchedLookup<Double>(rows, COORDINATE_PREDICATE, 20) {
+            protected List<Double> lookup(List<NavigationPosition> positions) throws Exception {
+                if (calls.incrementAndGet() == 1)
+                    throw new IOException("first call fails");
+                List<Double> result = new ArrayList<>();
+                for (NavigationPosition position : positions)
+                    result.add(position.getLongitude());
+                return result;
+            }
+        };
+
+        try {
+            try {
+                lookup.getValueFor(0, positionsModel.getPosition(0));
+                fail("IOException expected");
+            } catch (IOException e) {
+                assertEquals("first call fails", e.getMessage());
+            }
+            for (int row = 1; row < 10; row++)
+                assertEquals(10.0 + row, lookup.getValueFor(row, positionsModel.getPosition(row)), 0.0);
+            assertEquals(2, calls.get());
+        } finally {
+            batchAugmenter.dispose();
+        }
+    }
+
+    @Test
+    public void testBatchedLookupByDescriptionWithoutCoordinates() throws Exception {
+        b.setDescription("Hamburg");
+        d.setDescription("Munich");
+        PositionAugmenter batchAugmenter = new PositionAugmenter(null, model, null, null, null);
+
+        final List<String> lookedUp = synchronizedList(new ArrayList<String>());
+        int[] rows = createRows(5);
+        PositionAugmenter.OverwritePredicate tautology = new PositionAugmenter.OverwritePredicate() {
+            public boolean shouldOverwrite(NavigationPosition position) {
+                return true;
+            }
+        };
+        PositionAugmenter.BatchedLookup<String> lookup = batchAugmenter.new BatchedLookup<String>(rows, tautology, 2) {
+            boolean hasKey(NavigationPosition position) {
+                return position.getDescription() != null;
+            }
+
+            protected List<String> lookup(List<NavigationPosition> positions) throws Exception {
+                List<String> result = new ArrayList<>();
+                for (NavigationPosition position : positions) {
+                    lookedUp.add(position.getDescription());
+                    result.add(position.getDescription().toUpperCase());
+                }
+                return result;
+            }
+        };
+
+        try {
+            List<String> expected = asList(null, "HAMBURG", null, "MUNICH", null);
+            for (int row : rows)
+                assertEquals(expected.get(row), lookup.getValueFor(row, model.getPosition(row)));
+        } finally {
+            batchAugmenter.dispose();
+        }
+
+        assertEquals(asList("Hamburg", "Munich"), lookedUp);
+    }
+
+    @Test
+    public void testBatchedLookupSkipsRowsRejectedByPredicate() throws Exception {
+        PositionsModelImpl positionsModel = createModelWithCoordinates(20);
+        for (int row = 0; row < 20; row += 2)
+            positionsModel.getPosition(row).setElevation(100.0);
+        PositionAugmenter batchAugmenter = new PositionAugmenter(null, positionsModel, null, null, null);
+
+        final List<Double> lookedUp = synchronizedList(new ArrayList<Double>());
+        int[] rows = createRows(20);
+        PositionAugmenter.OverwritePredicate withoutElevation = new PositionAugmenter.OverwritePredicate() {
+            public boolean shouldOverwrite(NavigationPosition position) {
+                return position.getElevation() == null;
+            }
+        };
+        PositionAugmenter.BatchedLookup<Double> lookup = batchAugmenter.new BatchedLookup<Double>(rows, withoutElevation, 5) {
+            protected List<Double> lookup(List<NavigationPosition> positions) throws Exception {
+                List<Double> result = new ArrayList<>();
+                for (NavigationPosition position : positions) {
+                    lookedUp.add(position.getLongitude());
+                    result.add(position.getLongitude());
+                }
+                return result;
+            }
+        };
+
+        try {
+            for (int row : rows) {
+                Double expected = row % 2 == 0 ? null : Double.valueOf(10.0 + row);
+                assertEquals(expected, lookup.getValueFor(row, positionsModel.getPosition(row)));
+            }
+        } finally {
+            batchAugmenter.dispose();
+        }
+
+        assertEquals(10, lookedUp.size());
+        for (Double longitude : lookedUp)
+            assertTrue((longitude.intValue() - 10) % 2 == 1);
+    }
 }